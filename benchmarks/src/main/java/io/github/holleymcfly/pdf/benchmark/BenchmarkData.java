@@ -0,0 +1,100 @@
+package io.github.holleymcfly.pdf.benchmark;
+
+import io.github.holleymcfly.pdf.model.PdfFormattedText;
+import io.github.holleymcfly.pdf.model.color.PdfColor;
+import io.github.holleymcfly.pdf.model.font.PdfFont;
+import io.github.holleymcfly.pdf.model.font.PdfFontBuilder;
+import io.github.holleymcfly.pdf.model.table.PdfTable;
+import io.github.holleymcfly.pdf.model.table.PdfTableCellBuilder;
+import io.github.holleymcfly.pdf.model.table.PdfTableCellPosition;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+
+import java.util.LinkedList;
+import java.util.Random;
+
+/**
+ * Creates the texts, fonts and tables the benchmarks work on. The data is random, but the same for every run.
+ */
+class BenchmarkData {
+
+    static final int TABLE_COLUMNS = 4;
+
+    private static final String[] WORDS = { "Lorem", "ipsum", "dolor", "sit", "amet,", "consectetur", "adipiscing",
+            "elit.", "Nam", "ornare", "dui", "nisl,", "in", "congue", "mauris", "tincidunt", "nec.", "Maecenas",
+            "condimentum", "elit", "ac", "consequat", "semper.", "EUR", "Paid", "2023-01-31", "0,00", "1.234,56" };
+
+    private static final Standard14Fonts.FontName[] MIXED_FONTS = { Standard14Fonts.FontName.TIMES_ROMAN,
+            Standard14Fonts.FontName.HELVETICA_BOLD, Standard14Fonts.FontName.COURIER,
+            Standard14Fonts.FontName.TIMES_ITALIC };
+
+    static String createText(int numberOfWords, long seed) {
+
+        Random random = new Random(seed);
+        StringBuilder text = new StringBuilder();
+        for (int i=0; i<numberOfWords; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+
+    static PdfFont createFont(Standard14Fonts.FontName fontName) {
+        return new PdfFontBuilder().withFont(fontName).build();
+    }
+
+    /**
+     * Creates a text consisting of chunks of a few words, each chunk in another font if <code>mixed</code> is set.
+     */
+    static LinkedList<PdfFormattedText> createFormattedText(int numberOfWords, boolean mixed) {
+
+        LinkedList<PdfFormattedText> formattedText = new LinkedList<>();
+        int chunkSize = 8;
+        for (int i=0; i*chunkSize<numberOfWords; i++) {
+            Standard14Fonts.FontName fontName = mixed ? MIXED_FONTS[i % MIXED_FONTS.length] : MIXED_FONTS[0];
+            int words = Math.min(chunkSize, numberOfWords - i*chunkSize);
+            formattedText.add(new PdfFormattedText(createText(words, i) + " ", createFont(fontName)));
+        }
+        return formattedText;
+    }
+
+    // Typical values of a ledger, repeated in many cells.
+    private static final String[] LEDGER_VALUES = { "EUR", "Paid", "Open", "0.00", "2024-01-31", "100.00",
+            "Transfer", "Direct debit" };
+
+    static PdfTable createTable(int numberOfCells, boolean mixed) {
+        return createTable(numberOfCells, mixed, false);
+    }
+
+    static PdfTable createTable(int numberOfCells, boolean mixed, boolean ledger) {
+        return createTable(numberOfCells, mixed, ledger, null);
+    }
+
+    /**
+     * Creates a table whose even rows have the given background, if it isn't <code>null</code>.
+     */
+    static PdfTable createTable(int numberOfCells, boolean mixed, boolean ledger, PdfColor evenRowBackground) {
+
+        PdfFont font = createFont(Standard14Fonts.FontName.TIMES_ROMAN);
+        PdfTable table = new PdfTable(font, 500, TABLE_COLUMNS);
+
+        Random random = new Random(numberOfCells);
+        for (int i=0; i<numberOfCells; i++) {
+            int row = i / TABLE_COLUMNS + 1;
+            int column = i % TABLE_COLUMNS + 1;
+            PdfTableCellBuilder cell = new PdfTableCellBuilder()
+                    .withPosition(new PdfTableCellPosition(row, column))
+                    .withContent(ledger ? LEDGER_VALUES[random.nextInt(LEDGER_VALUES.length)]
+                            : createText(1 + random.nextInt(12), i));
+            if (mixed) {
+                cell.withFont(createFont(MIXED_FONTS[column % MIXED_FONTS.length]));
+            }
+            if (evenRowBackground != null && row % 2 == 0) {
+                cell.withBackgroundColor(evenRowBackground);
+            }
+            table.addCell(cell.build());
+        }
+        return table;
+    }
+}
@@ -0,0 +1,87 @@
+package io.github.holleymcfly.pdf.benchmark;
+
+import io.github.holleymcfly.pdf.core.PdfCreator;
+import io.github.holleymcfly.pdf.core.PdfCreatorBuilder;
+import io.github.holleymcfly.pdf.model.color.PdfColorBuilder;
+import io.github.holleymcfly.pdf.model.table.PdfTable;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the size of the content streams of a large table, besides the time to render and save it.<br>
+ * <br>
+ * The cells of every other row have a background, so the fill color changes between backgrounds and texts. The sizes
+ * are reported per document: the operations of all pages before compressing them, and the saved document.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContentStreamBenchmark {
+
+    @Param({ "10000", "100000" })
+    private int tableCells;
+
+    @Param({ "false", "true" })
+    private boolean mixedFonts;
+
+    private PdfTable table;
+    private PdfCreator pdfCreator;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Sizes {
+
+        // Set rather than summed up, so they are the sizes of a single document.
+        public long contentStreamBytes;
+        public long documentBytes;
+    }
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+        table = BenchmarkData.createTable(tableCells, mixedFonts, false,
+                PdfColorBuilder.createPdfColor(230, 230, 230));
+        pdfCreator = new PdfCreatorBuilder().build();
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() {
+        pdfCreator.closeDocument();
+    }
+
+    @Benchmark
+    public byte[] addTableAndSave(Sizes sizes) throws IOException {
+
+        pdfCreator.addTable(table);
+        ByteArrayOutputStream document = new ByteArrayOutputStream();
+        pdfCreator.save(document);
+
+        byte[] bytes = document.toByteArray();
+        sizes.documentBytes = bytes.length;
+        sizes.contentStreamBytes = getContentStreamBytes(bytes);
+        return bytes;
+    }
+
+    private long getContentStreamBytes(byte[] document) throws IOException {
+
+        long bytes = 0;
+        try (PDDocument loaded = Loader.loadPDF(document)) {
+            for (PDPage page : loaded.getPages()) {
+                try (InputStream contents = page.getContents()) {
+                    bytes += contents.transferTo(OutputStream.nullOutputStream());
+                }
+            }
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,74 @@
+package io.github.holleymcfly.pdf.benchmark;
+
+import io.github.holleymcfly.pdf.core.PdfCreator;
+import io.github.holleymcfly.pdf.core.PdfCreatorBuilder;
+import org.openjdk.jmh.annotations.*;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures adding images to a document and saving it.<br>
+ * <br>
+ * A few distinct images are added repeatedly, like a logo that is printed on every page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ImageBenchmark {
+
+    private static final int DISTINCT_IMAGES = 4;
+
+    @Param({ "1", "10", "100" })
+    private int images;
+
+    private File directory;
+    private String[] imageFiles;
+
+    @Setup
+    public void setUp() throws IOException {
+
+        directory = Files.createTempDirectory("pdf-creator-benchmark").toFile();
+        imageFiles = new String[DISTINCT_IMAGES];
+        for (int i=0; i<DISTINCT_IMAGES; i++) {
+            BufferedImage image = new BufferedImage(400, 200, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = image.createGraphics();
+            graphics.setColor(new Color(60 * i, 100, 200));
+            graphics.fillOval(10, 10, 380, 180);
+            graphics.dispose();
+
+            File file = new File(directory, "image" + i + ".png");
+            ImageIO.write(image, "png", file);
+            imageFiles[i] = file.getAbsolutePath();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        for (String imageFile : imageFiles) {
+            new File(imageFile).delete();
+        }
+        directory.delete();
+    }
+
+    @Benchmark
+    public PdfCreator addImagesAndSave() {
+
+        PdfCreator pdfCreator = new PdfCreatorBuilder().build();
+        for (int i=0; i<images; i++) {
+            pdfCreator.addImage(imageFiles[i % DISTINCT_IMAGES], 200, 100);
+        }
+        pdfCreator.save(OutputStream.nullOutputStream());
+        pdfCreator.closeDocument();
+        return pdfCreator;
+    }
+}
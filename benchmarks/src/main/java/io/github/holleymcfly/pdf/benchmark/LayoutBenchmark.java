@@ -0,0 +1,57 @@
+package io.github.holleymcfly.pdf.benchmark;
+
+import io.github.holleymcfly.pdf.core.PdfCreator;
+import io.github.holleymcfly.pdf.core.PdfCreatorBuilder;
+import io.github.holleymcfly.pdf.layout.PdfLayout;
+import io.github.holleymcfly.pdf.layout.PdfParagraphBuilder;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures adding a layout of many paragraphs, painting its pages sequentially or in parallel.<br>
+ * <br>
+ * The layout is shared by all invocations, so it is only measured once and each invocation paginates and paints it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LayoutBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    private int paragraphs;
+
+    @Param({ "false", "true" })
+    private boolean parallelPainting;
+
+    private PdfLayout layout;
+    private PdfCreator pdfCreator;
+
+    @Setup(Level.Trial)
+    public void setUpLayout() {
+        layout = new PdfLayout();
+        for (int i=0; i<paragraphs; i++) {
+            layout.add(new PdfParagraphBuilder().withFormattedText(BenchmarkData.createFormattedText(200, true))
+                    .build());
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+        pdfCreator = new PdfCreatorBuilder().withParallelPainting(parallelPainting).build();
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() {
+        pdfCreator.closeDocument();
+    }
+
+    @Benchmark
+    public PdfCreator addLayout() {
+        pdfCreator.addLayout(layout);
+        return pdfCreator;
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.holleymcfly.pdf.benchmark;
+
+import io.github.holleymcfly.pdf.core.PdfCreator;
+import io.github.holleymcfly.pdf.core.PdfCreatorBuilder;
+import io.github.holleymcfly.pdf.model.font.PdfFont;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Measures bundling many small documents into a single one and saving it.<br>
+ * <br>
+ * The documents are created on demand while they are appended, and the bundle keeps its content in a scratch file,
+ * so the memory used doesn't grow with the number of documents.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MergeBenchmark {
+
+    private static final long MAIN_MEMORY_BYTES = 16 * 1024 * 1024;
+
+    @Param({ "100", "1000" })
+    private int documents;
+
+    private PdfFont font;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        font = BenchmarkData.createFont(Standard14Fonts.FontName.TIMES_ROMAN);
+    }
+
+    @Benchmark
+    public PdfCreator appendAndSave() {
+
+        PdfCreator bundle = new PdfCreatorBuilder().withScratchFile(MAIN_MEMORY_BYTES).build();
+        bundle.addDocuments(IntStream.range(0, documents).mapToObj(this::createDocument));
+        bundle.save(OutputStream.nullOutputStream());
+        bundle.closeDocument();
+        return bundle;
+    }
+
+    private PdfCreator createDocument(int number) {
+
+        PdfCreator pdfCreator = new PdfCreatorBuilder()
+                .withHeader("Document " + number, font)
+                .withFooter("Page " + PdfCreator.PAGE_NUMBER_PLACEHOLDER, font)
+                .build();
+        pdfCreator.addTextLeftAligned(BenchmarkData.createText(400, number), font);
+        return pdfCreator;
+    }
+}
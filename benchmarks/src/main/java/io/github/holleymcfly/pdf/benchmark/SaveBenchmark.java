@@ -0,0 +1,46 @@
+package io.github.holleymcfly.pdf.benchmark;
+
+import io.github.holleymcfly.pdf.core.PdfCreator;
+import io.github.holleymcfly.pdf.core.PdfCreatorBuilder;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures rendering and saving a document with many pages of tables, with the pages compressed while drawing or
+ * in parallel when saving.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SaveBenchmark {
+
+    @Param({ "10000", "100000" })
+    private int tableCells;
+
+    @Param({ "false", "true" })
+    private boolean parallelSave;
+
+    private PdfCreator pdfCreator;
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+        pdfCreator = new PdfCreatorBuilder().withParallelSave(parallelSave).build();
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() {
+        pdfCreator.closeDocument();
+    }
+
+    @Benchmark
+    public PdfCreator addTableAndSave() {
+        pdfCreator.addTable(BenchmarkData.createTable(tableCells, false));
+        pdfCreator.save(OutputStream.nullOutputStream());
+        return pdfCreator;
+    }
+}
@@ -0,0 +1,76 @@
+package io.github.holleymcfly.pdf.benchmark;
+
+import io.github.holleymcfly.pdf.core.PdfCreator;
+import io.github.holleymcfly.pdf.core.PdfCreatorBuilder;
+import io.github.holleymcfly.pdf.model.table.PdfTable;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures initializing, rendering and saving tables.<br>
+ * <br>
+ * A table can only be initialized once, so every invocation gets a new table (and a new document).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TableBenchmark {
+
+    @Param({ "100", "1000", "10000", "100000" })
+    private int tableCells;
+
+    @Param({ "false", "true" })
+    private boolean mixedFonts;
+
+    // Whether the cells repeat a few short values, as ledgers do, instead of containing random text.
+    @Param({ "false", "true" })
+    private boolean ledger;
+
+    // How the column widths are set: equal widths, calculated from all rows, or from the first and sampled rows.
+    @Param({ "fixed", "auto", "sampled" })
+    private String columnWidths;
+
+    private PdfTable table;
+    private PdfCreator pdfCreator;
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+        table = BenchmarkData.createTable(tableCells, mixedFonts, ledger);
+        if (columnWidths.equals("auto")) {
+            table.setAutoColumnWidths(true);
+        }
+        else if (columnWidths.equals("sampled")) {
+            table.setAutoColumnWidths(100, 1000);
+        }
+        pdfCreator = new PdfCreatorBuilder().build();
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() {
+        pdfCreator.closeDocument();
+    }
+
+    @Benchmark
+    public PdfTable initTable() {
+        table.init();
+        return table;
+    }
+
+    @Benchmark
+    public PdfCreator addTable() {
+        pdfCreator.addTable(table);
+        return pdfCreator;
+    }
+
+    @Benchmark
+    public PdfCreator addTableAndSave() {
+        pdfCreator.addTable(table);
+        pdfCreator.save(OutputStream.nullOutputStream());
+        return pdfCreator;
+    }
+}
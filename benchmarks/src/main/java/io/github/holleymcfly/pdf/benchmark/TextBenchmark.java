@@ -0,0 +1,73 @@
+package io.github.holleymcfly.pdf.benchmark;
+
+import io.github.holleymcfly.pdf.model.PdfFormattedText;
+import io.github.holleymcfly.pdf.model.font.PdfFont;
+import io.github.holleymcfly.pdf.util.OptimalLineBreaker;
+import io.github.holleymcfly.pdf.util.TextHelper;
+import io.github.holleymcfly.pdf.util.TextSplitter;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.LinkedList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures splitting up paragraphs into lines and measuring text widths.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TextBenchmark {
+
+    private static final float LINE_WIDTH = 450;
+
+    @Param({ "10", "100", "1000", "10000" })
+    private int paragraphWords;
+
+    @Param({ "false", "true" })
+    private boolean mixedFonts;
+
+    private String text;
+    private PdfFont font;
+    private LinkedList<PdfFormattedText> formattedText;
+    private OptimalLineBreaker uncachedLineBreaker;
+    private OptimalLineBreaker cachedLineBreaker;
+
+    @Setup
+    public void setUp() {
+        text = BenchmarkData.createText(paragraphWords, 42);
+        font = BenchmarkData.createFont(mixedFonts ? Standard14Fonts.FontName.HELVETICA_BOLD
+                : Standard14Fonts.FontName.TIMES_ROMAN);
+        formattedText = BenchmarkData.createFormattedText(paragraphWords, mixedFonts);
+        uncachedLineBreaker = new OptimalLineBreaker(0);
+        cachedLineBreaker = new OptimalLineBreaker();
+    }
+
+    @Benchmark
+    public String[] splitUpText() {
+        return new TextSplitter(new PdfFormattedText(text, font), LINE_WIDTH).splitUpText();
+    }
+
+    @Benchmark
+    public LinkedList<LinkedList<PdfFormattedText>> splitUpTextWithWords() {
+        return new TextSplitter(formattedText, LINE_WIDTH).splitUpTextWithWords();
+    }
+
+    @Benchmark
+    public String[] splitUpTextOptimal() {
+        return new TextSplitter(new PdfFormattedText(text, font), LINE_WIDTH, uncachedLineBreaker).splitUpText();
+    }
+
+    @Benchmark
+    public String[] splitUpTextOptimalCached() {
+        return new TextSplitter(new PdfFormattedText(text, font), LINE_WIDTH, cachedLineBreaker).splitUpText();
+    }
+
+    @Benchmark
+    public float getTextWidth() {
+        return TextHelper.getTextWidth(text, font);
+    }
+}
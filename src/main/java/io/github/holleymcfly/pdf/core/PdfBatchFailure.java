@@ -0,0 +1,34 @@
+package io.github.holleymcfly.pdf.core;
+
+/**
+ * A job of the <code>PdfBatchGenerator</code> that didn't succeed.
+ */
+public class PdfBatchFailure {
+
+    private final int index;
+    private final String jobName;
+    private final Throwable cause;
+
+    /**
+     * @param index     The position of the job among all jobs of the run, starting with 0.
+     * @param jobName   The name of the job, which may be <code>null</code> or shared by other jobs.
+     * @param cause     What the job failed with, including errors.
+     */
+    PdfBatchFailure(int index, String jobName, Throwable cause) {
+        this.index = index;
+        this.jobName = jobName;
+        this.cause = cause;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public String getJobName() {
+        return jobName;
+    }
+
+    public Throwable getCause() {
+        return cause;
+    }
+}
@@ -0,0 +1,166 @@
+package io.github.holleymcfly.pdf.core;
+
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * <b>Creates many documents concurrently.</b><br>
+ * <br>
+ * Every job gets its own pdf-creator and therefore its own pdf document. Only immutable data like the font metrics is
+ * shared between the jobs. A job that fails, even with an error, is reported in the result and doesn't affect any
+ * other job.<br>
+ * <br>
+ * The generator should be closed when it isn't needed anymore, so that its executor is shut down (unless the
+ * executor has been passed in from outside).
+ */
+public class PdfBatchGenerator implements AutoCloseable {
+
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+    private final int maxConcurrentJobs;
+
+    /**
+     * Creates a generator that runs as many jobs concurrently as there are processors available. It uses virtual
+     * threads if the Java runtime supports them.
+     */
+    public PdfBatchGenerator() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a generator that runs the given number of jobs concurrently. It uses virtual threads if the Java runtime
+     * supports them.
+     *
+     * @param maxConcurrentJobs The maximum number of documents that are created at the same time.
+     */
+    public PdfBatchGenerator(int maxConcurrentJobs) {
+        this(createDefaultExecutor(maxConcurrentJobs), true, maxConcurrentJobs);
+    }
+
+    /**
+     * Creates a generator that runs the jobs on the given executor.
+     *
+     * @param executor          The executor for the jobs. It isn't shut down by the generator.
+     * @param maxConcurrentJobs The maximum number of documents that are created (and held in memory) at the same time.
+     */
+    public PdfBatchGenerator(ExecutorService executor, int maxConcurrentJobs) {
+        this(executor, false, maxConcurrentJobs);
+    }
+
+    private PdfBatchGenerator(ExecutorService executor, boolean ownsExecutor, int maxConcurrentJobs) {
+
+        if (maxConcurrentJobs < 1) {
+            throw new IllegalArgumentException("At least one job must be allowed to run at a time.");
+        }
+
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+        this.maxConcurrentJobs = maxConcurrentJobs;
+    }
+
+    private static ExecutorService createDefaultExecutor(int maxConcurrentJobs) {
+
+        try {
+            // Virtual threads are available from Java 21 on, but this library is compiled for Java 11.
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        }
+        catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(maxConcurrentJobs);
+        }
+    }
+
+    /**
+     * <b>Creates all documents of the given jobs.</b><br>
+     * <br>
+     * The jobs are pulled from the stream while the documents are created, so only a limited number of jobs is held
+     * in memory at a time. The method returns when all documents have been written, and waits for the jobs that
+     * have been started even if pulling the next job from the stream fails.<br>
+     * <br>
+     * @param jobs  The jobs to run.
+     * @return      The number of succeeded jobs and the failures of all jobs that didn't succeed.
+     */
+    public PdfBatchResult generate(Stream<PdfBatchJob> jobs) {
+
+        Semaphore runningJobs = new Semaphore(maxConcurrentJobs);
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        Queue<PdfBatchFailure> failures = new ConcurrentLinkedQueue<>();
+
+        try {
+            Iterator<PdfBatchJob> iterator = jobs.iterator();
+            int index = 0;
+            try {
+                while (iterator.hasNext()) {
+                    PdfBatchJob job = iterator.next();
+                    int jobIndex = index++;
+                    runningJobs.acquire();
+
+                    try {
+                        executor.execute(() -> {
+                            try {
+                                run(job);
+                                succeeded.incrementAndGet();
+                            }
+                            catch (Throwable e) {
+                                failed.incrementAndGet();
+                                failures.add(new PdfBatchFailure(jobIndex, job.getName(), e));
+                            }
+                            finally {
+                                runningJobs.release();
+                            }
+                        });
+                    }
+                    catch (RejectedExecutionException e) {
+                        runningJobs.release();
+                        throw e;
+                    }
+                }
+            }
+            finally {
+                // Wait until all jobs that have been started are done.
+                runningJobs.acquireUninterruptibly(maxConcurrentJobs);
+                runningJobs.release(maxConcurrentJobs);
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while creating the documents.", e);
+        }
+
+        return new PdfBatchResult(succeeded.get(), failed.get(), new ArrayList<>(failures));
+    }
+
+    private void run(PdfBatchJob job) throws Exception {
+
+        PdfCreator pdfCreator = job.getCreatorBuilder().build();
+        try {
+            job.getTemplate().accept(pdfCreator);
+
+            // The sink is only opened when the document is complete, so a failing template doesn't leave any output.
+            try (OutputStream outputStream = job.getSink().open()) {
+                pdfCreator.save(outputStream);
+            }
+        }
+        finally {
+            pdfCreator.closeDocument();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (ownsExecutor) {
+            executor.shutdown();
+        }
+    }
+}
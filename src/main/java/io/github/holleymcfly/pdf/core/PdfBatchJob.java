@@ -0,0 +1,57 @@
+package io.github.holleymcfly.pdf.core;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.function.Consumer;
+
+/**
+ * A single document that is created by the <code>PdfBatchGenerator</code>.<br>
+ * <br>
+ * The job consists of the builder for the document's pdf-creator, the template that fills the document and the sink
+ * the finished document is written to.
+ */
+public class PdfBatchJob {
+
+    /**
+     * Opens the output stream a finished document is written to. The stream is closed by the generator.
+     */
+    @FunctionalInterface
+    public interface Sink {
+        OutputStream open() throws IOException;
+    }
+
+    private final String name;
+    private final PdfCreatorBuilder creatorBuilder;
+    private final Consumer<PdfCreator> template;
+    private final Sink sink;
+
+    /**
+     * @param name              The name of the job, used for reporting failures.
+     * @param creatorBuilder    The builder for the pdf-creator of the document. It may be shared between jobs, but
+     *                          must not be changed while the generator is running.
+     * @param template          Adds the content to the document.
+     * @param sink              Opens the stream the document is written to.
+     */
+    public PdfBatchJob(String name, PdfCreatorBuilder creatorBuilder, Consumer<PdfCreator> template, Sink sink) {
+        this.name = name;
+        this.creatorBuilder = creatorBuilder;
+        this.template = template;
+        this.sink = sink;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public PdfCreatorBuilder getCreatorBuilder() {
+        return creatorBuilder;
+    }
+
+    public Consumer<PdfCreator> getTemplate() {
+        return template;
+    }
+
+    public Sink getSink() {
+        return sink;
+    }
+}
@@ -0,0 +1,46 @@
+package io.github.holleymcfly.pdf.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The outcome of a run of the <code>PdfBatchGenerator</code>.
+ */
+public class PdfBatchResult {
+
+    private final int numberOfSucceededJobs;
+    private final int numberOfFailedJobs;
+    private final List<PdfBatchFailure> failures;
+
+    PdfBatchResult(int numberOfSucceededJobs, int numberOfFailedJobs, List<PdfBatchFailure> failures) {
+        this.numberOfSucceededJobs = numberOfSucceededJobs;
+        this.numberOfFailedJobs = numberOfFailedJobs;
+
+        List<PdfBatchFailure> sorted = new ArrayList<>(failures);
+        sorted.sort(Comparator.comparingInt(PdfBatchFailure::getIndex));
+        this.failures = Collections.unmodifiableList(sorted);
+    }
+
+    public int getNumberOfSucceededJobs() {
+        return numberOfSucceededJobs;
+    }
+
+    public int getNumberOfFailedJobs() {
+        return numberOfFailedJobs;
+    }
+
+    /**
+     * <b>Returns the failures of all failed jobs, in the order of the jobs.</b><br>
+     * <br>
+     * There is one failure per failed job, even if several jobs have the same name.
+     */
+    public List<PdfBatchFailure> getFailures() {
+        return failures;
+    }
+
+    public boolean isSuccessful() {
+        return numberOfFailedJobs == 0;
+    }
+}
@@ -0,0 +1,247 @@
+package io.github.holleymcfly.pdf.core;
+
+import io.github.holleymcfly.pdf.layout.PdfGraphicsState;
+import org.apache.pdfbox.cos.COSArray;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.interactive.annotation.PDAppearanceStream;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Keeps a single content stream open for the page that is currently written to.<br>
+ * <br>
+ * All drawing operations on a page share that stream and its graphics state. It is only closed (and thereby written
+ * to the page) when the creator moves to another page or the document is saved.<br>
+ * <br>
+ * If the pages are buffered, the operations of each page are collected in memory instead, without compressing them.
+ * When the document is saved, the buffers of all pages are compressed in parallel (using the common fork-join pool)
+ * and then written to their pages in the order of the pages.
+ */
+class PdfContentStreamManager {
+
+    private final PDDocument document;
+    private boolean bufferPages;
+    // Whether the pages are written incrementally, see setIncremental().
+    private boolean incremental;
+
+    // The operations of the pages that haven't been written to their pages yet, in the order of the pages.
+    private final Map<PDPage, ByteArrayOutputStream> pageBuffers = new LinkedHashMap<>();
+
+    private PDPage page;
+    private PDPageContentStream contentStream;
+    private PdfGraphicsState graphicsState;
+
+    PdfContentStreamManager(PDDocument document) {
+        this(document, false);
+    }
+
+    PdfContentStreamManager(PDDocument document, boolean bufferPages) {
+        this.document = document;
+        this.bufferPages = bufferPages;
+    }
+
+    /**
+     * <b>Prepares the content streams for pages that are written and dropped while the document is created.</b><br>
+     * <br>
+     * The pages are buffered, so each content stream is written in one piece when its page is finished. These
+     * streams aren't registered at the document, which would keep them until the document is closed.
+     */
+    void setIncremental() {
+        this.bufferPages = true;
+        this.incremental = true;
+    }
+
+    /**
+     * <b>Returns the graphics state of the open content stream of the given page.</b><br>
+     * <br>
+     * If the stream currently open belongs to another page, it is closed first and a new one is opened.<br>
+     * <br>
+     * @param page  The page that shall be drawn on.
+     * @return      The graphics state of the content stream of that page.
+     */
+    PdfGraphicsState getGraphicsState(PDPage page) throws IOException {
+
+        if (contentStream != null && this.page == page) {
+            return graphicsState;
+        }
+
+        close();
+
+        if (bufferPages) {
+            ByteArrayOutputStream buffer = pageBuffers.computeIfAbsent(page, p -> new ByteArrayOutputStream());
+            this.contentStream = createBufferedContentStream(page, buffer);
+        }
+        else {
+            this.contentStream = new PDPageContentStream(document, page, PDPageContentStream.AppendMode.APPEND, true);
+        }
+        this.graphicsState = new PdfGraphicsState(contentStream);
+        this.page = page;
+        return graphicsState;
+    }
+
+    /**
+     * <b>Creates a content stream that writes the operations of the given page into a buffer.</b>
+     */
+    PDPageContentStream createBufferedContentStream(PDPage page, OutputStream buffer) {
+
+        if (page.getResources() == null) {
+            page.setResources(new PDResources());
+        }
+
+        // The appearance stream only passes the resources of the page, its own stream isn't written.
+        PDAppearanceStream resourceHolder = new PDAppearanceStream(new COSStream());
+        resourceHolder.setResources(page.getResources());
+        return new PDPageContentStream(document, resourceHolder, buffer);
+    }
+
+    /**
+     * <b>Adds the operations that have been written into a buffer to the given page.</b><br>
+     * <br>
+     * If the pages are buffered, the operations are kept until the document is saved. Otherwise, they are compressed
+     * and written to the page right away.
+     */
+    void addContents(PDPage page, ByteArrayOutputStream buffer) throws IOException {
+
+        if (bufferPages) {
+            ByteArrayOutputStream pageBuffer = pageBuffers.get(page);
+            if (pageBuffer == null) {
+                pageBuffers.put(page, buffer);
+            }
+            else {
+                buffer.writeTo(pageBuffer);
+            }
+            return;
+        }
+
+        addContents(page, compress(buffer));
+    }
+
+    /**
+     * <b>Compresses the buffered operations of all pages in parallel and writes them to their pages.</b><br>
+     * <br>
+     * The open content stream is closed first. Nothing is done if the pages aren't buffered.
+     */
+    void writeBufferedPages() throws IOException {
+
+        close();
+        if (pageBuffers.isEmpty()) {
+            return;
+        }
+
+        List<PDPage> pages = new ArrayList<>(pageBuffers.keySet());
+        List<ByteArrayOutputStream> buffers = new ArrayList<>(pageBuffers.values());
+        byte[][] compressed = new byte[pages.size()][];
+
+        try {
+            IntStream.range(0, pages.size()).parallel().forEach(i -> compressed[i] = compressUnchecked(buffers.get(i)));
+        }
+        catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        for (int i=0; i<pages.size(); i++) {
+            addContents(pages.get(i), compressed[i]);
+        }
+
+        pageBuffers.clear();
+    }
+
+    /**
+     * <b>Drops the buffered operations of all pages, e.g. when the document is closed without saving it.</b>
+     */
+    void discardBufferedPages() {
+        pageBuffers.clear();
+    }
+
+    private byte[] compressUnchecked(ByteArrayOutputStream buffer) {
+        try {
+            return compress(buffer);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * <b>Compresses the operations of a page.</b><br>
+     * <br>
+     * This is called by several threads at once when the buffered pages are written.
+     */
+    byte[] compress(ByteArrayOutputStream buffer) throws IOException {
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(buffer.size() / 4 + 64);
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try (DeflaterOutputStream outputStream = new DeflaterOutputStream(compressed, deflater)) {
+            buffer.writeTo(outputStream);
+        }
+        finally {
+            deflater.end();
+        }
+
+        return compressed.toByteArray();
+    }
+
+    /**
+     * <b>Adds the given compressed operations as a content stream to the page.</b><br>
+     * <br>
+     * Usually, the page doesn't have any content yet. Only if it has been drawn on after the document has been saved,
+     * the new stream is appended to the existing one.
+     */
+    private void addContents(PDPage page, byte[] compressed) throws IOException {
+
+        COSStream stream = incremental ? new COSStream() : document.getDocument().createCOSStream();
+        try (OutputStream outputStream = stream.createRawOutputStream()) {
+            outputStream.write(compressed);
+        }
+        stream.setItem(COSName.FILTER, COSName.FLATE_DECODE);
+
+        COSBase contents = page.getCOSObject().getDictionaryObject(COSName.CONTENTS);
+        if (contents == null) {
+            page.getCOSObject().setItem(COSName.CONTENTS, stream);
+        }
+        else if (contents instanceof COSArray) {
+            ((COSArray) contents).add(stream);
+        }
+        else {
+            COSArray array = new COSArray();
+            array.add(contents);
+            array.add(stream);
+            page.getCOSObject().setItem(COSName.CONTENTS, array);
+        }
+    }
+
+    /**
+     * <b>Closes the currently open content stream, if there is one.</b>
+     */
+    void close() throws IOException {
+
+        if (contentStream == null) {
+            return;
+        }
+
+        try {
+            contentStream.close();
+        }
+        finally {
+            contentStream = null;
+            graphicsState = null;
+            page = null;
+        }
+    }
+}
@@ -1,28 +1,96 @@
 package io.github.holleymcfly.pdf.core;
 
+import io.github.holleymcfly.pdf.layout.PdfGraphicsState;
+import io.github.holleymcfly.pdf.layout.PdfLayout;
+import io.github.holleymcfly.pdf.layout.PdfMeasuredLayout;
+import io.github.holleymcfly.pdf.layout.PdfPageLayout;
+import io.github.holleymcfly.pdf.layout.PdfTableRowBox;
+import io.github.holleymcfly.pdf.metrics.PdfCounter;
+import io.github.holleymcfly.pdf.metrics.PdfMetricsListener;
+import io.github.holleymcfly.pdf.metrics.PdfPhase;
 import io.github.holleymcfly.pdf.model.PdfFormattedText;
 import io.github.holleymcfly.pdf.model.PdfPoint;
 import io.github.holleymcfly.pdf.model.font.PdfFont;
 import io.github.holleymcfly.pdf.model.table.PdfTable;
 import io.github.holleymcfly.pdf.model.table.PdfTableCell;
 import io.github.holleymcfly.pdf.util.TextHelper;
+import io.github.holleymcfly.pdf.util.LineBreaker;
 import io.github.holleymcfly.pdf.util.TextSplitter;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.io.MemoryUsageSetting;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.PDResources;
 import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
 import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.apache.pdfbox.pdmodel.interactive.annotation.PDAppearanceStream;
 
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 public class PdfCreator {
 
+    /**
+     * Placeholder for the header and footer text that is replaced by the number of the page.
+     */
+    public static final String PAGE_NUMBER_PLACEHOLDER = "{page}";
+
+    /**
+     * Placeholder for the header and footer text that is replaced by the total number of pages of the document.
+     * The total is only known when the document is saved, so such texts are printed when saving.
+     */
+    public static final String PAGE_COUNT_PLACEHOLDER = "{pages}";
+
     private final PDDocument document;
+    private final PdfContentStreamManager contentStreamManager;
+    private final PdfImageCache imageCache;
+    // The forms of the content encoded by a template, if the document is filled from one.
+    private final PdfEncodedForms encodedForms = new PdfEncodedForms();
+
+    // The pdfbox fonts used by this document. They aren't shared with other documents, as they aren't thread-safe.
+    private final PdfDocumentFonts documentFonts;
+    // Further sets of fonts for painting pages in parallel. Each set is only used by one thread at a time. The pages
+    // painted with a set are moved to the embedded fonts of the document fonts afterwards, so each font file is
+    // embedded only once.
+    private final Queue<PdfDocumentFonts> paintingFonts = new ConcurrentLinkedQueue<>();
+    private final PdfDocumentAppender appender;
+    // Writes the finished pages right away, if the document is written incrementally.
+    private PdfIncrementalWriter incrementalWriter;
     private PDPage currentPage;
     private float currentY = 0;
 
+    // The current page as long as nothing but the header and footer has been drawn on it.
+    private PDPage blankPage;
+    // Whether the blank page has been started after appending other documents, and whether it has been removed from
+    // the document for saving. It is added again as soon as something is drawn on it.
+    private boolean blankPageAfterAppend;
+    private boolean blankPageRemoved;
+
     private PDRectangle pageFormat;
 
     private float pageTop;
@@ -32,6 +100,16 @@ public class PdfCreator {
     private String footerText;
     private PdfFont footerFont;
 
+    // The static parts of the header and footer, rendered once and drawn on every page.
+    private PDFormXObject headerForm;
+    private PDFormXObject footerForm;
+    // The static parts of the header and footer encoded by a template, if the document is filled from one.
+    private PdfEncodedContent encodedHeader;
+    private PdfEncodedContent encodedFooter;
+
+    // The header and footer texts containing the page count, printed when the document is saved.
+    private final List<PageCountForm> pageCountForms = new ArrayList<>();
+
     private float pageWidth;
     private float pageContentWidth;
 
@@ -40,8 +118,33 @@ public class PdfCreator {
     private float pageMarginTop;
     private float pageMarginBottom;
 
+    private LineBreaker lineBreaker = LineBreaker.GREEDY;
+    private boolean parallelPainting = false;
+    private PdfMetrics metrics = PdfMetrics.NONE;
+
     protected PdfCreator() {
         this.document = new PDDocument();
+        this.contentStreamManager = new PdfContentStreamManager(document);
+        this.imageCache = new PdfImageCache(document);
+        this.documentFonts = new PdfDocumentFonts(document);
+        this.appender = new PdfDocumentAppender(document, documentFonts, imageCache);
+    }
+
+    protected PdfCreator(MemoryUsageSetting memoryUsageSetting) {
+        this(memoryUsageSetting, false);
+    }
+
+    /**
+     * @param memoryUsageSetting    How the document buffers its content, or <code>null</code> for the default.
+     * @param bufferPages           Whether the content of the pages is buffered and compressed in parallel when the
+     *                              document is saved.
+     */
+    protected PdfCreator(MemoryUsageSetting memoryUsageSetting, boolean bufferPages) {
+        this.document = memoryUsageSetting != null ? new PDDocument(memoryUsageSetting) : new PDDocument();
+        this.contentStreamManager = new PdfContentStreamManager(document, bufferPages);
+        this.imageCache = new PdfImageCache(document);
+        this.documentFonts = new PdfDocumentFonts(document);
+        this.appender = new PdfDocumentAppender(document, documentFonts, imageCache);
     }
 
     protected void init() {
@@ -53,48 +156,248 @@ public class PdfCreator {
      */
     public void newPage() {
 
+        long start = metrics.start();
+        closeContentStream();
+        writeFinishedPages();
+        addPage();
+        decoratePage(createPainter(), getNumberOfPages());
+        currentY = getBodyTop();
+        blankPage = currentPage;
+        blankPageAfterAppend = false;
+        metrics.end(PdfPhase.PAGE_CREATION, start);
+    }
+
+    /**
+     * <b>Adds an empty page to the document and makes it the current page.</b>
+     */
+    private PDPage addPage() {
+
         PDPage page = new PDPage(pageFormat);
         document.addPage(page);
         currentPage = page;
+        blankPageRemoved = false;
+        metrics.count(PdfCounter.PAGES, 1);
 
         pageWidth = currentPage.getMediaBox().getWidth();
         pageContentWidth = pageWidth - getPageMarginLeft() - getPageMarginRight();
 
         pageTop = currentPage.getMediaBox().getHeight() - pageMarginTop - 30; // Some space to the top end of the page.
 
-        addHeaderToPage();
-        addFooterToPage();
+        return page;
+    }
+
+    /**
+     * <b>Returns the y position where the content of a new page starts.</b>
+     */
+    private float getBodyTop() {
 
         if (this.headerText != null && !this.headerText.isEmpty()) {
-            currentY = pageTop - headerFont.getSize() - 30; // Some space between the line and the following text.
+            return pageTop - headerFont.getSize() - 30; // Some space between the line and the following text.
+        }
+
+        return pageTop;
+    }
+
+    /**
+     * <b>Adds the header and footer to the page of the given painter.</b>
+     */
+    private void decoratePage(PdfPagePainter painter, int pageNumber) {
+
+        try {
+            addHeaderToPage(painter, pageNumber);
+            addFooterToPage(painter, pageNumber);
         }
-        else {
-            currentY = pageTop;
+        catch (IOException e) {
+            throw createRuntimeException(e, "Failed to add the header or footer to the page.");
         }
     }
 
-    private void addHeaderToPage() {
+    private void addHeaderToPage(PdfPagePainter painter, int pageNumber) throws IOException {
 
         if (headerText != null && !headerText.isEmpty()) {
-            addText(headerText, headerFont, getPageMarginLeft(), false, pageTop + pageMarginTop);
+            float textY = pageTop + pageMarginTop;
+            // magic 10: some space between text and line
+            float lineY = pageTop + pageMarginTop - headerFont.getSize() - 10;
 
-            float y = pageTop + pageMarginTop - headerFont.getSize() - 10; // magic 10: some space between text and line
-            float x = pageWidth - getPageMarginRight();
-            line(new PdfPoint(getPageMarginLeft(), y), new PdfPoint(x, y));
+            if (headerForm == null) {
+                headerForm = encodedHeader != null ? createForm(encodedHeader)
+                        : createHeaderFooterForm(headerText, headerFont, textY, lineY);
+            }
+            addHeaderFooterToPage(painter, headerForm, headerText, headerFont, textY, pageNumber);
         }
     }
 
-    private void addFooterToPage() {
+    private void addFooterToPage(PdfPagePainter painter, int pageNumber) throws IOException {
 
         if (footerText != null && !footerText.isEmpty()) {
-            addText(footerText, footerFont, getPageMarginLeft(), true, 35);
+            float textY = 35;
+            float lineY = 40; // magic 40: can be set fixed, because the points count from the bottom.
+
+            if (footerForm == null) {
+                footerForm = encodedFooter != null ? createForm(encodedFooter)
+                        : createHeaderFooterForm(footerText, footerFont, textY, lineY);
+            }
+            addHeaderFooterToPage(painter, footerForm, footerText, footerFont, textY, pageNumber);
+        }
+    }
 
-            float x = pageWidth - getPageMarginRight();
-            float y = 40; // magic 40: can be set fixed, because the points count from the bottom.
-            line(new PdfPoint(getPageMarginLeft(), y), new PdfPoint(x, y));
+    /**
+     * <b>Draws the static part of a header or footer and prints the text that differs from page to page.</b>
+     */
+    private void addHeaderFooterToPage(PdfPagePainter painter, PDFormXObject form, String text, PdfFont font,
+            float textY, int pageNumber) throws IOException {
+
+        PDPageContentStream contentStream = painter.getGraphicsState().getContentStream();
+        contentStream.drawForm(form);
+
+        if (containsPageCount(text)) {
+            // The form stays empty until the document is saved and the number of pages is known.
+            PDAppearanceStream pageCountForm = createForm();
+            if (incrementalWriter != null) {
+                incrementalWriter.reserve(pageCountForm.getCOSObject());
+            }
+            contentStream.drawForm(pageCountForm);
+            pageCountForms.add(new PageCountForm(pageCountForm, text, font, textY, pageNumber));
+        }
+        else if (containsPageNumber(text)) {
+            showHeaderFooterText(painter.getGraphicsState(), insertPageNumber(text, pageNumber), font, textY);
         }
     }
 
+    /**
+     * <b>Renders the static part of a header or footer into a form that can be drawn on every page.</b><br>
+     * <br>
+     * The form contains the separator line and the text, unless the text contains the page number. In that case the
+     * text has to be printed on each page separately.
+     */
+    private PDFormXObject createHeaderFooterForm(String text, PdfFont font, float textY, float lineY) {
+
+        PDAppearanceStream form = createForm();
+        try (PDPageContentStream contentStream = new PDPageContentStream(document, form)) {
+
+            if (!containsPageNumber(text) && !containsPageCount(text)) {
+                showHeaderFooterText(new PdfGraphicsState(contentStream), text, font, textY);
+            }
+
+            contentStream.moveTo(getPageMarginLeft(), lineY);
+            contentStream.lineTo(pageWidth - getPageMarginRight(), lineY);
+            contentStream.stroke();
+        }
+        catch (IOException e) {
+            throw createRuntimeException(e, "Failed to create the header or footer.");
+        }
+
+        return form;
+    }
+
+    /**
+     * <b>Creates an empty form covering the whole page.</b><br>
+     * <br>
+     * An appearance stream is a form that can be written with a page content stream, so forms and pages can share
+     * the code that prints the header and footer texts.
+     */
+    private PDAppearanceStream createForm() {
+
+        // The forms of pages written incrementally aren't registered at the document, which would keep them.
+        PDAppearanceStream form = incrementalWriter != null ? new PDAppearanceStream(new COSStream())
+                : new PDAppearanceStream(document);
+        form.setBBox(currentPage.getMediaBox());
+        form.setResources(new PDResources());
+        return form;
+    }
+
+    /**
+     * <b>Creates a form from content that has been encoded by a template.</b>
+     */
+    private PDFormXObject createForm(PdfEncodedContent content) throws IOException {
+
+        PDAppearanceStream form = createForm();
+        content.writeTo(form, documentFonts);
+        return form;
+    }
+
+    /**
+     * <b>Sets the static parts of the header and footer, as encoded by a template.</b><br>
+     * <br>
+     * Must be called before the first page is added.<br>
+     * <br>
+     * @param header    The static part of the header, or <code>null</code> if it shall be rendered.
+     * @param footer    The static part of the footer, or <code>null</code> if it shall be rendered.
+     */
+    void setEncodedHeaderFooter(PdfEncodedContent header, PdfEncodedContent footer) {
+        this.encodedHeader = header;
+        this.encodedFooter = footer;
+    }
+
+    /**
+     * <b>Returns the static part of the header as encoded content, or <code>null</code> if it can't be
+     * encoded.</b>
+     */
+    PdfEncodedContent encodeHeader() throws IOException {
+        return headerForm != null ? PdfEncodedContent.of(headerForm, documentFonts) : null;
+    }
+
+    /**
+     * <b>Returns the static part of the footer as encoded content, or <code>null</code> if it can't be
+     * encoded.</b>
+     */
+    PdfEncodedContent encodeFooter() throws IOException {
+        return footerForm != null ? PdfEncodedContent.of(footerForm, documentFonts) : null;
+    }
+
+    private void showHeaderFooterText(PdfGraphicsState graphicsState, String text, PdfFont font, float textY)
+            throws IOException {
+
+        String[] lines = splitUpText(text, font);
+        float textHeight = TextHelper.getLineHeight(font);
+        float y = textY;
+        for (String line : lines) {
+            y = y - textHeight;
+            graphicsState.beginText();
+            graphicsState.newLineAtOffset(getPageMarginLeft(), y);
+            graphicsState.showText(line, font, getDocumentFont(font));
+            graphicsState.endText();
+        }
+    }
+
+    /**
+     * <b>Prints the header and footer texts containing the page count, now that the number of pages is known.</b><br>
+     * <br>
+     * The forms are rewritten every time the document is saved, so they are up to date even if pages have been added
+     * after saving the document before.
+     */
+    private void drawPageCounts() throws IOException {
+
+        String pageCount = String.valueOf(getNumberOfPages());
+        for (PageCountForm pageCountForm : pageCountForms) {
+
+            // The form of a page that has been written incrementally is created again, with the reserved number.
+            PDAppearanceStream form = pageCountForm.form != null ? pageCountForm.form : createForm();
+            try (PDPageContentStream contentStream = new PDPageContentStream(document, form)) {
+                String text = insertPageNumber(pageCountForm.text, pageCountForm.pageNumber)
+                        .replace(PAGE_COUNT_PLACEHOLDER, pageCount);
+                showHeaderFooterText(new PdfGraphicsState(contentStream), text, pageCountForm.font,
+                        pageCountForm.textY);
+            }
+
+            if (pageCountForm.form == null) {
+                incrementalWriter.writeObject(pageCountForm.objectNumber, form.getCOSObject());
+            }
+        }
+    }
+
+    private boolean containsPageNumber(String text) {
+        return text.contains(PAGE_NUMBER_PLACEHOLDER);
+    }
+
+    private boolean containsPageCount(String text) {
+        return text.contains(PAGE_COUNT_PLACEHOLDER);
+    }
+
+    private String insertPageNumber(String text, int pageNumber) {
+        return text.replace(PAGE_NUMBER_PLACEHOLDER, String.valueOf(pageNumber));
+    }
+
     /**
      * <b>Draws a line from the point <code>from</code> to the point <code>to</code>.</b><br>
      * <br>
@@ -104,11 +407,10 @@ public class PdfCreator {
     public void line(PdfPoint from, PdfPoint to) {
 
         try {
-            PDPageContentStream contentStream = newContentStream();
+            PDPageContentStream contentStream = getContentStream();
             contentStream.moveTo(from.getX(), from.getY());
             contentStream.lineTo(to.getX(), to.getY());
             contentStream.stroke();
-            contentStream.close();
         }
         catch (IOException e) {
             throw createRuntimeException(e, "Failed to create the header line.");
@@ -124,111 +426,300 @@ public class PdfCreator {
      * @param table     The fully configured table to print
      */
     public void addTable(PdfTable table) {
+        addFixedTableRows(table);
+    }
+
+    /**
+     * <b>Initializes the table and adds the rows that are part of it.</b><br>
+     * <br>
+     * @param table The fully configured table to print.
+     * @return      The header rows of the table, to be repeated on each page the table is continued on.
+     */
+    private List<PdfTableRowBox> addFixedTableRows(PdfTable table) {
 
         currentY -= table.getFont().getSize();
 
+        long start = metrics.start();
         table.init();
+        metrics.end(PdfPhase.TABLE_INIT, start);
 
-        float tableStartX = getPageMarginLeft();
+        List<PdfTableRowBox> headerRows = createHeaderRows(table);
+        keepHeaderWithFirstRow(table);
 
         for (int i=0; i<table.getNumberOfRows(); i++) {
 
-            List<PdfTableCell> cells = table.getCellsForRowOrdered(i+1);
+            List<PdfTableCell> cells = table.getCellsForRow(i+1);
             if (cells.isEmpty()) {
                 continue;
             }
 
-            float rowHeight = table.getRowHeight(i+1);
-            float rowWidth = tableStartX + table.getTableWidth();
+            boolean headerRow = i < table.getNumberOfHeaderRows();
+            addTableRow(table, cells, table.getRowHeight(i+1), headerRow ? Collections.emptyList() : headerRows);
+        }
 
-            if (doesntFitOnPage(rowHeight)) {
-                newPage();
-            }
+        return headerRows;
+    }
 
-            drawTableRowLines(tableStartX, table, cells, rowHeight, rowWidth);
-            fillTableCellBackgrounds(table, cells);
-            fillTableCellTexts(table, cells);
+    /**
+     * <b>Creates the boxes of the header rows from the cells and heights calculated when the table was
+     * initialized.</b><br>
+     * <br>
+     * The same boxes are painted on each page, so repeating the header doesn't measure anything again.
+     */
+    private List<PdfTableRowBox> createHeaderRows(PdfTable table) {
 
-            currentY -= rowHeight;
+        List<PdfTableRowBox> headerRows = new ArrayList<>();
+        for (int i=1; i<=table.getNumberOfHeaderRows(); i++) {
+
+            List<PdfTableCell> cells = table.getCellsForRow(i);
+            if (!cells.isEmpty()) {
+                headerRows.add(new PdfTableRowBox(table, cells, table.getRowHeight(i)));
+            }
         }
+
+        return headerRows;
     }
 
-    private boolean doesntFitOnPage(float height) {
-        return (currentY - height) < pageMarginBottom;
+    /**
+     * <b>Starts a new page if the header rows and the first row below them don't fit onto the current one.</b><br>
+     * <br>
+     * This avoids header rows at the bottom of a page without any content below them.
+     */
+    private void keepHeaderWithFirstRow(PdfTable table) {
+
+        if (table.getNumberOfHeaderRows() == 0) {
+            return;
+        }
+
+        float height = table.getHeaderHeight() + table.getRowHeight(table.getNumberOfHeaderRows() + 1);
+        if (doesntFitOnPage(height) && height <= getBodyTop() - pageMarginBottom) {
+            newPage();
+        }
     }
 
-    private void fillTableCellBackgrounds(PdfTable table, List<PdfTableCell> cells) {
+    /**
+     * <b>Creates the given table with rows that are pulled from the given iterator.</b><br>
+     * <br>
+     * The cells of the table itself (e.g. a header row) are printed first. After that, the rows of the iterator are
+     * initialized and printed one after another, using the font and columns of the table. The rows are not stored in
+     * the table, so a row isn't referenced anymore as soon as it has been printed. The row numbers of the cells'
+     * positions are ignored for these rows.<br>
+     * <br>
+     * @param table     The table that defines the font and columns, optionally with some fixed cells.
+     * @param rows      The rows to print, each consisting of the cells of that row.
+     */
+    public void addTable(PdfTable table, Iterator<? extends Collection<PdfTableCell>> rows) {
+
+        List<PdfTableRowBox> headerRows = addFixedTableRows(table);
+
+        while (rows.hasNext()) {
 
-        float cellY = currentY;
-        for (PdfTableCell cell : cells) {
-            if (cell.getBackgroundColor() == null) {
+            long start = metrics.start();
+            List<PdfTableCell> cells = table.initRow(rows.next());
+            metrics.end(PdfPhase.TABLE_INIT, start);
+            if (cells.isEmpty()) {
                 continue;
             }
 
-            float borderWidth = 1;
-            float xStart = table.getXofTableCell(cell, getPageMarginLeft() + borderWidth/2);
-            float yStart = cellY - table.getRowHeight(cell.getPosition().getRow());
-            float width = cell.getWidth() - borderWidth;
-            float height = table.getRowHeight(cell.getPosition().getRow()) - borderWidth/2;
-
-            PDPageContentStream contentStream = newContentStream();
-            try {
-                contentStream.addRect(xStart, yStart, width, height);
-                cell.getBackgroundColor().setNonStrokingToContentStream(contentStream);
-                contentStream.fill();
-                contentStream.close();
-            }
-            catch (IOException e) {
-                throw createRuntimeException(e, "Failed to fill out a table cell with its color.");
-            }
+            addTableRow(table, cells, table.getRowHeight(cells), headerRows);
         }
     }
 
-    private void fillTableCellTexts(PdfTable table, List<PdfTableCell> cells) {
+    /**
+     * <b>Creates the given table with rows that are pulled from the given stream.</b><br>
+     * <br>
+     * Same as <code>addTable(PdfTable table, Iterator rows)</code>, with a stream as input.<br>
+     * <br>
+     * @param table     The table that defines the font and columns, optionally with some fixed cells.
+     * @param rows      The rows to print, each consisting of the cells of that row.
+     */
+    public void addTable(PdfTable table, Stream<? extends Collection<PdfTableCell>> rows) {
+        addTable(table, rows.iterator());
+    }
+
+    /**
+     * <b>Adds a single row of the table, continuing it on the next page if it doesn't fit.</b><br>
+     * <br>
+     * If the row may be split, the rest of the page is filled with as many lines of its cells as fit, and the other
+     * lines are printed on the next page. Otherwise, the whole row is moved to the next page. A row that doesn't even
+     * fit onto an empty page is split anyway; if not a single line fits, it's printed as it is.<br>
+     * <br>
+     * @param table         The table the row belongs to.
+     * @param cells         The initialized cells of the row.
+     * @param rowHeight     The height of the row.
+     * @param headerRows  The header rows painted at the top of each page the row is continued on.
+     */
+    private void addTableRow(PdfTable table, List<PdfTableCell> cells, float rowHeight,
+                             List<PdfTableRowBox> headerRows) {
 
-        float cellY = currentY;
-        for (PdfTableCell cell : cells) {
-            float x = table.getXofTableCell(cell, cell.getMarginLeft()) + getPageMarginLeft();
-            addTextLines(cell.getSplitUpLines(), cell.getFont(), x, false, false, cellY);
+        float headerHeight = 0;
+        for (PdfTableRowBox headerRow : headerRows) {
+            headerHeight += headerRow.getHeight();
         }
 
-        // When setting the text to table cells, we don't modify the currentY value.
-        // That's already handled in the calling method.
-        currentY = cellY;
-    }
+        PdfTableRowBox row = new PdfTableRowBox(table, cells, rowHeight);
+        boolean split = table.isSplitRows() || rowHeight > getBodyTop() - pageMarginBottom - headerHeight;
+        boolean onNewPage = false;
 
-    private void drawTableRowLines(float tableStartX, PdfTable table, List<PdfTableCell> cells, float rowHeight,
-            float rowWidth) {
+        while (row != null && doesntFitOnPage(row.getHeight())) {
 
-        drawTopHorizontalTableLine(tableStartX, rowWidth);
-        drawLeftVerticalTableLine(tableStartX, rowHeight);
-        drawRightVerticalTableLine(rowHeight, rowWidth);
-        drawBottomHorizontalTableLine(tableStartX, rowHeight, rowWidth);
-        drawVerticalRowLines(tableStartX, table, cells, rowHeight);
-    }
+            PdfTableRowBox[] parts = split ? row.split(currentY - pageMarginBottom) : null;
+            if (parts == null && onNewPage) {
+                break;
+            }
 
-    private void drawVerticalRowLines(float tableStartX, PdfTable table, List<PdfTableCell> cells, float rowHeight) {
+            if (parts != null) {
+                paintTableRow(parts[0]);
+                row = parts[1];
+            }
 
-        for (PdfTableCell cell : cells) {
-            float x = table.getXofTableCell(cell, tableStartX);
-            line(new PdfPoint(x, currentY), new PdfPoint(x, currentY - rowHeight));
+            if (row != null) {
+                newPage();
+                for (PdfTableRowBox headerRow : headerRows) {
+                    paintTableRow(headerRow);
+                }
+                onNewPage = true;
+            }
+        }
+
+        if (row != null) {
+            paintTableRow(row);
         }
     }
 
-    private void drawBottomHorizontalTableLine(float tableStartX, float rowHeight, float rowWidth) {
-        line(new PdfPoint(tableStartX, currentY - rowHeight), new PdfPoint(rowWidth, currentY - rowHeight));
+    private void paintTableRow(PdfTableRowBox row) {
+
+        try {
+            row.paint(createPainter(), currentY);
+        }
+        catch (IOException e) {
+            throw createRuntimeException(e, "Failed to add a table row to the page.");
+        }
+
+        currentY -= row.getHeight();
     }
 
-    private void drawRightVerticalTableLine(float rowHeight, float rowWidth) {
-        line(new PdfPoint(rowWidth, currentY), new PdfPoint(rowWidth, currentY - rowHeight));
+    private boolean doesntFitOnPage(float height) {
+        return (currentY - height) < pageMarginBottom;
     }
 
-    private void drawLeftVerticalTableLine(float tableStartX, float rowHeight) {
-        line(new PdfPoint(tableStartX, currentY), new PdfPoint(tableStartX, currentY - rowHeight));
+    /**
+     * <b>Adds the given layout, starting at the current position.</b><br>
+     * <br>
+     * The layout is measured and broken into pages first, and painted afterwards. Measuring is skipped if the layout
+     * has already been measured for the content width of this document. If parallel painting is enabled, the pages
+     * between the first and the last page of the layout are painted at the same time.<br>
+     * <br>
+     * @param layout    The layout to add.
+     */
+    public void addLayout(PdfLayout layout) {
+
+        // The layout caches its measurement per line breaker, so it isn't passed a timed one.
+        long start = metrics.start();
+        PdfMeasuredLayout measuredLayout = layout.measure(pageContentWidth, lineBreaker);
+        metrics.end(PdfPhase.TEXT_MEASUREMENT, start);
+        List<PdfPageLayout> pages = measuredLayout.paginate(currentY, getBodyTop(), pageMarginBottom);
+
+        try {
+            pages.get(0).paint(createPainter());
+
+            int last = pages.size() - 1;
+            // Painting a single page in between in parallel doesn't pay off.
+            if (parallelPainting && last > 2) {
+                paintPagesInParallel(pages.subList(1, last));
+            }
+            else {
+                for (int i=1; i<last; i++) {
+                    newPage();
+                    pages.get(i).paint(createPainter());
+                }
+            }
+
+            if (last > 0) {
+                newPage();
+                pages.get(last).paint(createPainter());
+            }
+
+            currentY = pages.get(last).getEndY();
+        }
+        catch (IOException e) {
+            throw createRuntimeException(e, "Failed to add the layout.");
+        }
     }
 
-    private void drawTopHorizontalTableLine(float tableStartX, float rowWidth) {
-        line(new PdfPoint(tableStartX, currentY), new PdfPoint(rowWidth, currentY));
+    /**
+     * <b>Adds a new page for each of the given page layouts and paints them in parallel.</b><br>
+     * <br>
+     * The pages are added and decorated with the header and footer one after another, as that changes the document.
+     * Only painting the content is done in parallel, each page into its own buffer and with fonts that aren't used by
+     * any other thread at the same time. The buffers are written to the pages afterwards, so each page still has a
+     * single content stream. The pages are moved to the embedded fonts of the document, which take over the glyphs
+     * the pages have drawn.
+     */
+    private void paintPagesInParallel(List<PdfPageLayout> pageLayouts) throws IOException {
+
+        closeContentStream();
+
+        int numberOfPages = pageLayouts.size();
+        PDPage[] pages = new PDPage[numberOfPages];
+        ByteArrayOutputStream[] contents = new ByteArrayOutputStream[numberOfPages];
+
+        for (int i=0; i<numberOfPages; i++) {
+            long start = metrics.start();
+            pages[i] = addPage();
+            contents[i] = new ByteArrayOutputStream();
+            try (PDPageContentStream contentStream = contentStreamManager.createBufferedContentStream(pages[i],
+                    contents[i])) {
+                decoratePage(new PdfPagePainter(new PdfGraphicsState(contentStream), pages[i].getResources(),
+                        getPageMarginLeft(), documentFonts, imageCache, encodedForms), getNumberOfPages());
+            }
+            metrics.end(PdfPhase.PAGE_CREATION, start);
+        }
+
+        PdfDocumentFonts[] paintedWith = new PdfDocumentFonts[numberOfPages];
+        Map<Integer, Map<COSName, Set<Integer>>> embeddedGlyphs = new ConcurrentHashMap<>();
+        try {
+            IntStream.range(0, numberOfPages).parallel().forEach(i -> {
+                PdfDocumentFonts fonts = paintingFonts.poll();
+                if (fonts == null) {
+                    fonts = new PdfDocumentFonts(document);
+                }
+
+                try {
+                    try (PDPageContentStream contentStream = contentStreamManager.createBufferedContentStream(
+                            pages[i], contents[i])) {
+                        pageLayouts.get(i).paint(new PdfPagePainter(new PdfGraphicsState(contentStream),
+                                pages[i].getResources(), getPageMarginLeft(), fonts, imageCache, encodedForms));
+                    }
+
+                    Map<COSName, Set<Integer>> glyphs = fonts.findEmbeddedGlyphs(pages[i].getResources(), contents[i]);
+                    if (!glyphs.isEmpty()) {
+                        paintedWith[i] = fonts;
+                        embeddedGlyphs.put(i, glyphs);
+                    }
+                }
+                catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                finally {
+                    paintingFonts.add(fonts);
+                }
+            });
+        }
+        catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        for (Map.Entry<Integer, Map<COSName, Set<Integer>>> glyphs : embeddedGlyphs.entrySet()) {
+            int i = glyphs.getKey();
+            documentFonts.takeEmbeddedFonts(pages[i].getResources(), glyphs.getValue(), paintedWith[i]);
+        }
+
+        long start = metrics.start();
+        for (int i=0; i<numberOfPages; i++) {
+            contentStreamManager.addContents(pages[i], contents[i]);
+        }
+        metrics.end(PdfPhase.CONTENT_STREAM_WRITE, start);
     }
 
     protected void setPageMarginTop(float pageMarginTop) {
@@ -278,25 +769,39 @@ public class PdfCreator {
     }
 
     private void addText(String text, PdfFont font, float x, boolean centered) {
-        String[] lines = new TextSplitter(new PdfFormattedText(text, font), pageContentWidth).splitUpText();
+        String[] lines = splitUpText(text, font);
         addTextLines(lines, font, x, centered, false, currentY);
     }
 
     private void addText(String text, PdfFont font, float x, boolean ignoreBottom, float y) {
-        String[] lines = new TextSplitter(new PdfFormattedText(text, font), pageContentWidth).splitUpText();
+        String[] lines = splitUpText(text, font);
         addTextLines(lines, font, x, false, ignoreBottom, y);
     }
 
     private void addText(LinkedList<PdfFormattedText> formattedTexts, float x, boolean centered) {
-        LinkedList<LinkedList<PdfFormattedText>> lines = new TextSplitter(formattedTexts, pageContentWidth)
-                .splitUpTextWithWords();
+        long start = metrics.start();
+        LinkedList<LinkedList<PdfFormattedText>> lines = new TextSplitter(formattedTexts, pageContentWidth,
+                metrics.timed(lineBreaker)).splitUpTextWithWords();
+        metrics.end(PdfPhase.TEXT_MEASUREMENT, start);
         addTextLines(lines, x, centered, currentY);
     }
 
+    /**
+     * <b>Splits the text into lines that fit into the width of the page content.</b>
+     */
+    private String[] splitUpText(String text, PdfFont font) {
+
+        long start = metrics.start();
+        String[] lines = new TextSplitter(new PdfFormattedText(text, font), pageContentWidth,
+                metrics.timed(lineBreaker)).splitUpText();
+        metrics.end(PdfPhase.TEXT_MEASUREMENT, start);
+        return lines;
+    }
+
     private void addTextLines(LinkedList<LinkedList<PdfFormattedText>> textLines, float x, boolean centered, float y) {
 
         try {
-            PDPageContentStream contentStream;
+            PdfGraphicsState graphicsState;
 
             for (LinkedList<PdfFormattedText> line : textLines) {
 
@@ -312,22 +817,14 @@ public class PdfCreator {
                     x = getXForCenteredText(line);
                 }
 
-                boolean first = true;
-
-                contentStream = newContentStream();
-                contentStream.beginText();
+                graphicsState = getGraphicsState();
+                graphicsState.beginText();
+                graphicsState.newLineAtOffset(x, y);
 
                 for (PdfFormattedText word : line) {
-                    if (first) {
-                        contentStream.newLineAtOffset(x, y);
-                        first = false;
-                    }
-                    contentStream.setFont(word.getFont().getFont(), word.getFont().getSize());
-                    word.getFont().getColor().setNonStrokingToContentStream(contentStream);
-                    contentStream.showText(word.getText());
+                    graphicsState.showText(word.getText(), word.getFont(), getDocumentFont(word.getFont()));
                 }
-                contentStream.endText();
-                contentStream.close();
+                graphicsState.endText();
             }
 
         }
@@ -351,16 +848,15 @@ public class PdfCreator {
     private void addTextLines(String[] textLines, PdfFont font, float x, boolean centered, boolean ignoreBottom, float y) {
 
         try {
-            PDPageContentStream contentStream = newContentStream();
+            PdfGraphicsState graphicsState = getGraphicsState();
 
-            float textHeight = font.getFont().getFontDescriptor().getFontBoundingBox().getHeight() / 1000 * font.getSize();
+            float textHeight = TextHelper.getLineHeight(font);
 
             for (String line : textLines) {
                 y = y - textHeight;
                 if (y <= pageMarginBottom && !ignoreBottom) {
-                    contentStream.close();
                     newPage();
-                    contentStream = newContentStream();
+                    graphicsState = getGraphicsState();
                     y = currentY;
                 }
 
@@ -368,17 +864,12 @@ public class PdfCreator {
                     x = getXForCenteredText(font, line);
                 }
 
-                contentStream.beginText();
-                contentStream.setFont(font.getFont(), font.getSize());
-                contentStream.newLineAtOffset(x, y);
-
-                font.getColor().setNonStrokingToContentStream(contentStream);
-                contentStream.showText(line);
-                contentStream.endText();
+                graphicsState.beginText();
+                graphicsState.newLineAtOffset(x, y);
+                graphicsState.showText(line, font, getDocumentFont(font));
+                graphicsState.endText();
             }
 
-            contentStream.close();
-
         }
         catch (IOException e) {
             throw createRuntimeException(e, "Failed to add text to the page.");
@@ -390,15 +881,14 @@ public class PdfCreator {
     public void addImage(String fullQualifiedFilename) {
 
         try {
-            PDImageXObject pdImage = PDImageXObject.createFromFile(fullQualifiedFilename, document);
+            PDImageXObject pdImage = imageCache.getImage(fullQualifiedFilename);
             if (doesntFitOnPage(pdImage.getHeight())) {
                 newPage();
             }
 
-            PDPageContentStream contentStream = newContentStream();
+            PDPageContentStream contentStream = getContentStream();
             currentY -= pdImage.getHeight();
             contentStream.drawImage(pdImage, getPageMarginLeft(), currentY);
-            contentStream.close();
         }
         catch (IOException e) {
             throw createRuntimeException(e, "Failed to load image from " + fullQualifiedFilename + ".");
@@ -408,27 +898,110 @@ public class PdfCreator {
     public void addImage(String fullQualifiedFilename, long width, long height) {
 
         try {
-            PDImageXObject pdImage = PDImageXObject.createFromFile(fullQualifiedFilename, document);
+            PDImageXObject pdImage = imageCache.getImage(fullQualifiedFilename, width, height);
             if (doesntFitOnPage(height)) {
                 newPage();
             }
 
-            PDPageContentStream contentStream = newContentStream();
+            PDPageContentStream contentStream = getContentStream();
             currentY -= height;
             contentStream.drawImage(pdImage, getPageMarginLeft(), currentY, width, height);
-            contentStream.close();
         }
         catch (IOException e) {
             throw createRuntimeException(e, "Failed to load image from " + fullQualifiedFilename + ".");
         }
     }
 
-    private PDPageContentStream newContentStream() {
+    private PDFont getDocumentFont(PdfFont font) {
+        return documentFonts.getFont(font);
+    }
+
+    /**
+     * <b>Returns a painter for the content stream of the current page.</b>
+     */
+    private PdfPagePainter createPainter() {
+        PdfGraphicsState graphicsState = getGraphicsState();
+        return new PdfPagePainter(graphicsState, currentPage.getResources(), getPageMarginLeft(), documentFonts,
+                imageCache, encodedForms);
+    }
+
+    /**
+     * <b>Returns the cache of the images embedded into this document.</b><br>
+     * <br>
+     * An image that is added several times is only embedded once. The cache tells how often that was the case.
+     */
+    public PdfImageCache getImageCache() {
+        return imageCache;
+    }
+
+    PDDocument getDocument() {
+        return document;
+    }
+
+    /**
+     * <b>Returns the writer of the pages, or <code>null</code> if the document isn't written incrementally.</b>
+     */
+    PdfIncrementalWriter getIncrementalWriter() {
+        return incrementalWriter;
+    }
+
+    PdfDocumentFonts getDocumentFonts() {
+        return documentFonts;
+    }
+
+    float getPageContentWidth() {
+        return pageContentWidth;
+    }
+
+    /**
+     * <b>Returns the width and height of the pages, as a copy that doesn't belong to this document.</b>
+     */
+    PDRectangle getPageSize() {
+        PDRectangle mediaBox = currentPage.getMediaBox();
+        return new PDRectangle(mediaBox.getWidth(), mediaBox.getHeight());
+    }
+
+    LineBreaker getLineBreaker() {
+        return lineBreaker;
+    }
+
+    /**
+     * <b>Returns the content stream of the current page.</b><br>
+     * <br>
+     * All drawing operations of a page share the same stream. It is closed when a new page is started or the
+     * document is saved.
+     */
+    private PDPageContentStream getContentStream() {
+        return getGraphicsState().getContentStream();
+    }
+
+    /**
+     * <b>Returns the graphics state of the content stream of the current page.</b><br>
+     * <br>
+     * The state is kept as long as the stream, so font and color are only set again when they change.
+     */
+    private PdfGraphicsState getGraphicsState() {
+        try {
+            if (blankPageRemoved) {
+                document.addPage(currentPage);
+                blankPageRemoved = false;
+            }
+            blankPage = null;
+            return contentStreamManager.getGraphicsState(currentPage);
+        }
+        catch (IOException e) {
+            throw createRuntimeException(e, "Failed to open the content stream of the current page.");
+        }
+    }
+
+    private void closeContentStream() {
+        long start = metrics.start();
         try {
-            return new PDPageContentStream(document, currentPage, PDPageContentStream.AppendMode.APPEND, true);
+            contentStreamManager.close();
+            metrics.end(PdfPhase.CONTENT_STREAM_WRITE, start);
         }
         catch (IOException e) {
-            throw createRuntimeException(e, "Failed to save the current document.");
+            throw createRuntimeException(e, "Failed to close the content stream of the current page.");
         }
     }
 
@@ -439,7 +1012,286 @@ public class PdfCreator {
      */
     public void save(String path) {
         try {
+            long start = metrics.start();
+            prepareSave();
             document.save(path);
+            metrics.end(PdfPhase.SAVE, start);
+            if (metrics.isEnabled()) {
+                metrics.count(PdfCounter.BYTES_WRITTEN, new File(path).length());
+            }
+        }
+        catch (IOException e) {
+            throw createRuntimeException(e, "Failed to save the current document.");
+        }
+    }
+
+    /**
+     * <b>Saves the current document to the given output stream.</b><br>
+     * <br>
+     * The stream is not closed after the document has been written.<br>
+     * <br>
+     * @param outputStream  The stream the document shall be written to.
+     */
+    public void save(OutputStream outputStream) {
+        try {
+            long start = metrics.start();
+            prepareSave();
+            if (metrics.isEnabled()) {
+                CountingOutputStream countingStream = new CountingOutputStream(outputStream);
+                document.save(countingStream);
+                metrics.end(PdfPhase.SAVE, start);
+                metrics.count(PdfCounter.BYTES_WRITTEN, countingStream.count);
+            }
+            else {
+                document.save(outputStream);
+            }
+        }
+        catch (IOException e) {
+            throw createRuntimeException(e, "Failed to save the current document.");
+        }
+    }
+
+    /**
+     * <b>Writes everything that is only written when the document is saved.</b>
+     */
+    void prepareSave() throws IOException {
+
+        if (incrementalWriter != null) {
+            throw new IllegalStateException("The document is written incrementally, it is completed with finish().");
+        }
+
+        long start = metrics.start();
+        contentStreamManager.writeBufferedPages();
+        metrics.end(PdfPhase.CONTENT_STREAM_WRITE, start);
+
+        // The page started after appending other documents isn't saved unless something is drawn on it.
+        if (blankPageAfterAppend) {
+            removeBlankPage();
+        }
+
+        drawPageCounts();
+    }
+
+    /**
+     * <b>Removes the current page from the document if nothing but the header and footer has been drawn on it.</b>
+     */
+    private void removeBlankPage() {
+
+        if (blankPage != null && !blankPageRemoved) {
+            document.removePage(blankPage);
+            blankPageRemoved = true;
+        }
+    }
+
+    /**
+     * <b>Returns the number of pages of the document, including the pages that have already been written.</b>
+     */
+    private int getNumberOfPages() {
+
+        if (incrementalWriter != null) {
+            return incrementalWriter.getNumberOfPages() + document.getNumberOfPages();
+        }
+
+        return document.getNumberOfPages();
+    }
+
+    /**
+     * <b>Writes all pages of the document to the output and drops them, if the document is written
+     * incrementally.</b>
+     */
+    private void writeFinishedPages() {
+
+        if (incrementalWriter == null) {
+            return;
+        }
+
+        long start = metrics.start();
+        try {
+            contentStreamManager.writeBufferedPages();
+
+            List<PDPage> pages = new ArrayList<>();
+            document.getPages().forEach(pages::add);
+            for (PDPage page : pages) {
+                incrementalWriter.writePage(page);
+                document.removePage(page);
+            }
+            releasePageCountForms();
+            // All appended pages have been written, so the objects they share aren't referenced anymore.
+            appender.releaseSharedCopies(incrementalWriter::release);
+        }
+        catch (IOException e) {
+            throw createRuntimeException(e, "Failed to write the finished pages.");
+        }
+        metrics.end(PdfPhase.SAVE, start);
+    }
+
+    /**
+     * <b>Tells the incremental writer whether an object may be referenced by pages that haven't been written yet.</b>
+     */
+    private boolean isSharedObject(COSBase object) {
+
+        return headerForm != null && object == headerForm.getCOSObject()
+                || footerForm != null && object == footerForm.getCOSObject()
+                || encodedForms.contains(object)
+                || imageCache.getKeyFor(object) != null
+                || appender.isSharedCopy(object);
+    }
+
+    /**
+     * <b>Keeps only the numbers of the page count forms of the pages that have been written.</b><br>
+     * <br>
+     * The forms are created again when the page count is known. Forms of pages that have been dropped without being
+     * written aren't needed anymore.
+     */
+    private void releasePageCountForms() {
+
+        Iterator<PageCountForm> iterator = pageCountForms.iterator();
+        while (iterator.hasNext()) {
+
+            PageCountForm pageCountForm = iterator.next();
+            if (pageCountForm.form == null) {
+                continue;
+            }
+
+            Integer number = incrementalWriter.release(pageCountForm.form.getCOSObject());
+            if (number == null) {
+                iterator.remove();
+            }
+            else {
+                pageCountForm.form = null;
+                pageCountForm.objectNumber = number;
+            }
+        }
+    }
+
+    /**
+     * <b>Completes a document that is written incrementally.</b><br>
+     * <br>
+     * The pages that haven't been written yet are written to the output, followed by the fonts, the header and
+     * footer texts containing the page count, and the cross-reference table. Nothing can be added to the document
+     * afterwards. The output stream is not closed, and the document still has to be closed.
+     */
+    public void finish() {
+
+        if (incrementalWriter == null) {
+            throw new IllegalStateException("The document isn't written incrementally, it is saved with save().");
+        }
+
+        try {
+            closeContentStream();
+            if (blankPageAfterAppend) {
+                removeBlankPage();
+            }
+            writeFinishedPages();
+
+            long start = metrics.start();
+            drawPageCounts();
+            documentFonts.subsetFonts();
+
+            long bytesWritten = incrementalWriter.finish();
+            metrics.end(PdfPhase.SAVE, start);
+            metrics.count(PdfCounter.BYTES_WRITTEN, bytesWritten);
+        }
+        catch (IOException e) {
+            throw createRuntimeException(e, "Failed to finish the document.");
+        }
+    }
+
+    /**
+     * <b>Appends the pages of another document to this document.</b><br>
+     * <br>
+     * The pages are copied as they are, including their header and footer, after the current page. The current page
+     * is dropped if nothing but the header and footer has been drawn on it yet, so the pages of several documents can
+     * be bundled with a pdf-creator that has just been built. Content added afterwards starts on a new page.<br>
+     * <br>
+     * Fonts that aren't embedded and images embedded from the same file are shared by all documents, so they are
+     * written only once. The other document is closed after its pages have been copied. A page count in the header
+     * or footer of this document counts the appended pages, too.<br>
+     * <br>
+     * @param source    The pdf-creator of the document to append. It doesn't have to be saved before.
+     */
+    public void addDocument(PdfCreator source) {
+
+        if (source == this) {
+            throw new IllegalArgumentException("A document can't be appended to itself.");
+        }
+
+        try {
+            source.prepareSave();
+            closeContentStream();
+            removeBlankPage();
+            appender.append(source);
+
+            newPage();
+            blankPageAfterAppend = true;
+        }
+        catch (IOException e) {
+            throw createRuntimeException(e, "Failed to append the document.");
+        }
+        finally {
+            source.closeDocument();
+        }
+    }
+
+    /**
+     * <b>Appends the pages of the given documents to this document, one after another.</b><br>
+     * <br>
+     * Each document is closed as soon as its pages have been copied, so only one of them has to be kept in memory at
+     * a time if the iterator creates them on demand. To keep the memory used for this document bounded, too, build
+     * it with a scratch file.<br>
+     * <br>
+     * @param sources   The pdf-creators of the documents to append.
+     */
+    public void addDocuments(Iterator<? extends PdfCreator> sources) {
+
+        while (sources.hasNext()) {
+            addDocument(sources.next());
+        }
+    }
+
+    /**
+     * <b>Appends the pages of the documents that are pulled from the given stream.</b><br>
+     * <br>
+     * Same as <code>addDocuments(Iterator sources)</code>, with a stream as input.<br>
+     * <br>
+     * @param sources   The pdf-creators of the documents to append.
+     */
+    public void addDocuments(Stream<? extends PdfCreator> sources) {
+        addDocuments(sources.iterator());
+    }
+
+    /**
+     * <b>Returns the font a pdfbox font of this document has been created for, or <code>null</code>.</b>
+     */
+    PdfFont getFontFor(COSBase fontObject) {
+
+        PdfFont font = documentFonts.getFontFor(fontObject);
+        if (font != null) {
+            return font;
+        }
+
+        for (PdfDocumentFonts fonts : paintingFonts) {
+            font = fonts.getFontFor(fontObject);
+            if (font != null) {
+                return font;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * <b>Saves the current document to the given channel.</b><br>
+     * <br>
+     * The channel is not closed after the document has been written.<br>
+     * <br>
+     * @param channel   The channel the document shall be written to.
+     */
+    public void save(WritableByteChannel channel) {
+        try {
+            BufferedOutputStream outputStream = new BufferedOutputStream(Channels.newOutputStream(channel));
+            save(outputStream);
+            outputStream.flush();
         }
         catch (IOException e) {
             throw createRuntimeException(e, "Failed to save the current document.");
@@ -452,6 +1304,8 @@ public class PdfCreator {
     public void closeDocument() {
 
         try {
+            closeContentStream();
+            contentStreamManager.discardBufferedPages();
             document.close();
         }
         catch (Exception e) {
@@ -495,7 +1349,76 @@ public class PdfCreator {
         this.pageFormat = pageFormat;
     }
 
+    protected void setLineBreaker(LineBreaker lineBreaker) {
+        this.lineBreaker = lineBreaker;
+    }
+
+    protected void setImageResolution(float imageResolution) {
+        imageCache.setResolution(imageResolution);
+    }
+
+    protected void setMetricsListener(PdfMetricsListener metricsListener) {
+        this.metrics = new PdfMetrics(metricsListener);
+        imageCache.setMetrics(metrics);
+    }
+
+    protected void setIncrementalOutput(OutputStream outputStream) {
+        this.incrementalWriter = outputStream != null
+                ? new PdfIncrementalWriter(outputStream, document.getVersion(), this::isSharedObject) : null;
+        if (incrementalWriter != null) {
+            contentStreamManager.setIncremental();
+            appender.setIncremental();
+        }
+    }
+
+    protected void setParallelPainting(boolean parallelPainting) {
+        this.parallelPainting = parallelPainting;
+    }
+
     private RuntimeException createRuntimeException(Exception e, String message) {
         throw new RuntimeException(message, e);
     }
+
+    private static final class PageCountForm {
+
+        // The form, or null once its page has been written incrementally. Then, only the number of the form is kept.
+        private PDAppearanceStream form;
+        private int objectNumber;
+        private final String text;
+        private final PdfFont font;
+        private final float textY;
+        private final int pageNumber;
+
+        private PageCountForm(PDAppearanceStream form, String text, PdfFont font, float textY, int pageNumber) {
+            this.form = form;
+            this.text = text;
+            this.font = font;
+            this.textY = textY;
+            this.pageNumber = pageNumber;
+        }
+    }
+
+    /**
+     * Counts the bytes written to the stream, without closing it.
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        private CountingOutputStream(OutputStream outputStream) {
+            super(outputStream);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            out.write(bytes, offset, length);
+            count += length;
+        }
+    }
 }
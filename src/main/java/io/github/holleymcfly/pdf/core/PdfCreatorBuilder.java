@@ -1,8 +1,15 @@
 package io.github.holleymcfly.pdf.core;
 
+import io.github.holleymcfly.pdf.metrics.PdfMetricsListener;
 import io.github.holleymcfly.pdf.model.font.PdfFont;
+import io.github.holleymcfly.pdf.util.LineBreaker;
+import io.github.holleymcfly.pdf.util.OptimalLineBreaker;
+import org.apache.pdfbox.io.MemoryUsageSetting;
 import org.apache.pdfbox.pdmodel.common.PDRectangle;
 
+import java.io.File;
+import java.io.OutputStream;
+
 public class PdfCreatorBuilder {
 
     private String headerText;
@@ -14,13 +21,38 @@ public class PdfCreatorBuilder {
     private Float pageMarginBottom = null;
     private float pageMarginTop = 30; // Set some suitable default.
     private PDRectangle pageFormat = PDRectangle.A4;
-
+    private MemoryUsageSetting memoryUsageSetting;
+    private LineBreaker lineBreaker = LineBreaker.GREEDY;
+    private boolean parallelPainting = false;
+    private boolean parallelSave = false;
+    private float imageResolution = 0;
+    private PdfMetricsListener metricsListener = PdfMetricsListener.NONE;
+    private OutputStream incrementalOutput;
+
+    /**
+     * <b>Adds a header to every page.</b><br>
+     * <br>
+     * The text may contain <code>PdfCreator.PAGE_NUMBER_PLACEHOLDER</code>, which is replaced by the page number.<br>
+     * <br>
+     * @param headerText    The text of the header.
+     * @param headerFont    The font of the header.
+     * @return              The builder.
+     */
     public PdfCreatorBuilder withHeader(String headerText, PdfFont headerFont) {
         this.headerText = headerText;
         this.headerFont = headerFont;
         return this;
     }
 
+    /**
+     * <b>Adds a footer to every page.</b><br>
+     * <br>
+     * The text may contain <code>PdfCreator.PAGE_NUMBER_PLACEHOLDER</code>, which is replaced by the page number.<br>
+     * <br>
+     * @param footerText    The text of the footer.
+     * @param footerFont    The font of the footer.
+     * @return              The builder.
+     */
     public PdfCreatorBuilder withFooter(String footerText, PdfFont footerFont) {
         this.footerText = footerText;
         this.footerFont = footerFont;
@@ -52,9 +84,134 @@ public class PdfCreatorBuilder {
         return this;
     }
 
+    /**
+     * <b>Lets the document buffer its content in a temporary file once it exceeds the given heap budget.</b><br>
+     * <br>
+     * @param maxMainMemoryBytes    The maximum number of bytes the document may keep in the heap.
+     * @return                      The builder.
+     */
+    public PdfCreatorBuilder withScratchFile(long maxMainMemoryBytes) {
+        this.memoryUsageSetting = MemoryUsageSetting.setupMixed(maxMainMemoryBytes);
+        return this;
+    }
+
+    /**
+     * <b>Lets the document buffer its content in a temporary file once it exceeds the given heap budget.</b><br>
+     * <br>
+     * @param maxMainMemoryBytes    The maximum number of bytes the document may keep in the heap.
+     * @param tempDir               The directory where the temporary file is created.
+     * @return                      The builder.
+     */
+    public PdfCreatorBuilder withScratchFile(long maxMainMemoryBytes, File tempDir) {
+        this.memoryUsageSetting = MemoryUsageSetting.setupMixed(maxMainMemoryBytes).setTempDir(tempDir);
+        return this;
+    }
+
+    /**
+     * <b>Sets how paragraphs are broken into lines.</b><br>
+     * <br>
+     * By default, as many words as possible are put into each line. An {@link OptimalLineBreaker} fills the lines
+     * more evenly, at higher costs. As it caches its results, it should be shared by documents printing the same
+     * paragraphs.<br>
+     * <br>
+     * @param lineBreaker   The line breaker.
+     * @return              The builder.
+     */
+    public PdfCreatorBuilder withLineBreaker(LineBreaker lineBreaker) {
+        this.lineBreaker = lineBreaker;
+        return this;
+    }
+
+    /**
+     * <b>Lets the pages of a layout be painted in parallel.</b><br>
+     * <br>
+     * Only pages added with <code>addLayout</code> are painted in parallel, using the common fork-join pool. This
+     * only pays off for layouts spanning many pages, on machines with several processors.<br>
+     * <br>
+     * @param parallelPainting  Whether the pages shall be painted in parallel.
+     * @return                  The builder.
+     */
+    public PdfCreatorBuilder withParallelPainting(boolean parallelPainting) {
+        this.parallelPainting = parallelPainting;
+        return this;
+    }
+
+    /**
+     * <b>Lets the pages be compressed in parallel when the document is saved.</b><br>
+     * <br>
+     * The drawing operations of each page are collected in memory, without compressing them. When the document is
+     * saved, all pages are compressed in parallel, using the common fork-join pool. This speeds up saving documents
+     * with many pages, at the cost of keeping the uncompressed content of all pages in memory until then.<br>
+     * <br>
+     * @param parallelSave  Whether the pages shall be compressed in parallel when saving.
+     * @return              The builder.
+     */
+    public PdfCreatorBuilder withParallelSave(boolean parallelSave) {
+        this.parallelSave = parallelSave;
+        return this;
+    }
+
+    /**
+     * <b>Lets images that are added with a size be downsampled to the given resolution.</b><br>
+     * <br>
+     * An image that has at least twice as many pixels as needed for printing it with the given resolution is
+     * downsampled while it is read, so the full image is never decoded into memory. JPEG images are always embedded
+     * as they are, without decoding them. All other images, including those without enough pixels for downsampling,
+     * are decoded completely once when they are embedded.<br>
+     * <br>
+     * @param dotsPerInch   The resolution in dots per inch, e.g. 150. With 0, images are embedded in their full size.
+     * @return              The builder.
+     */
+    public PdfCreatorBuilder withImageResolution(float dotsPerInch) {
+        this.imageResolution = dotsPerInch;
+        return this;
+    }
+
+    /**
+     * <b>Passes the timings and counters of creating the document to the given listener.</b><br>
+     * <br>
+     * The listener is told how long measuring texts, breaking lines, initializing tables, creating pages, writing
+     * content streams, embedding images and saving took, and how many pages, images and bytes were written. See
+     * {@link io.github.holleymcfly.pdf.metrics.PdfJfrMetricsListener} for recording them with Java Flight Recorder.
+     * Without a listener, nothing is timed.<br>
+     * <br>
+     * @param metricsListener   The listener, which may be shared by several documents.
+     * @return                  The builder.
+     */
+    public PdfCreatorBuilder withMetricsListener(PdfMetricsListener metricsListener) {
+        this.metricsListener = metricsListener != null ? metricsListener : PdfMetricsListener.NONE;
+        return this;
+    }
+
+    /**
+     * <b>Lets the document be written to the given stream while it is created.</b><br>
+     * <br>
+     * Each page is written and dropped from memory as soon as the next page is started, so the memory used doesn't
+     * grow with the number of pages. Only the fonts, the texts containing the page count and the cross-reference
+     * table are written at the end, by <code>PdfCreator.finish()</code>, which replaces saving the document. As the
+     * written pages can't be changed anymore, the builder must only build a single pdf-creator with this option.<br>
+     * <br>
+     * @param outputStream  The stream the document is written to. It isn't closed by the pdf-creator.
+     * @return              The builder.
+     */
+    public PdfCreatorBuilder withIncrementalOutput(OutputStream outputStream) {
+        this.incrementalOutput = outputStream;
+        return this;
+    }
+
     public PdfCreator build() {
 
-        PdfCreator pdfCreator = new PdfCreator();
+        PdfCreator pdfCreator = create();
+        pdfCreator.init();
+        return pdfCreator;
+    }
+
+    /**
+     * <b>Creates a configured pdf-creator without adding the first page yet.</b>
+     */
+    PdfCreator create() {
+
+        PdfCreator pdfCreator = new PdfCreator(memoryUsageSetting, parallelSave);
         if (this.headerText != null && !this.headerText.isEmpty()) {
             pdfCreator.setHeaderText(this.headerText);
             pdfCreator.setHeaderFont(this.headerFont);
@@ -82,7 +239,11 @@ public class PdfCreatorBuilder {
         pdfCreator.setPageMarginLeft(this.pageMarginLeft);
         pdfCreator.setPageMarginRight(this.pageMarginRight);
         pdfCreator.setPageFormat(this.pageFormat);
-        pdfCreator.init();
+        pdfCreator.setLineBreaker(this.lineBreaker);
+        pdfCreator.setParallelPainting(this.parallelPainting);
+        pdfCreator.setImageResolution(this.imageResolution);
+        pdfCreator.setMetricsListener(this.metricsListener);
+        pdfCreator.setIncrementalOutput(this.incrementalOutput);
         return pdfCreator;
     }
 }
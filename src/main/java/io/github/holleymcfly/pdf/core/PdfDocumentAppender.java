@@ -0,0 +1,199 @@
+package io.github.holleymcfly.pdf.core;
+
+import io.github.holleymcfly.pdf.model.font.PdfFont;
+import org.apache.pdfbox.cos.COSArray;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSNull;
+import org.apache.pdfbox.cos.COSObject;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDStream;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Copies the pages of other documents to the end of a document.<br>
+ * <br>
+ * Everything a page refers to is copied, so the other document can be closed right after its pages have been
+ * appended. Content streams and images are copied as they are, without decoding them. Resources the documents have in
+ * common are only added once:
+ * <ul>
+ *     <li>Fonts that aren't embedded are replaced by the fonts of the target document.</li>
+ *     <li>Images are identified by the key of the image cache they have been embedded with. An image that has already
+ *     been embedded into the target document, or appended with another document, is referenced instead of copied.</li>
+ * </ul>
+ * Embedded fonts are copied for each document, as each of them only contains the glyphs of its own document.<br>
+ * <br>
+ * If the document is written incrementally, the copies aren't registered at the document, and the copies shared by
+ * several pages are kept track of until the pages have been written.
+ */
+class PdfDocumentAppender {
+
+    private final PDDocument document;
+    private final PdfDocumentFonts fonts;
+    private final PdfImageCache imageCache;
+
+    private boolean incremental;
+    // The copies referred to by more than one page, while the document is written incrementally.
+    private final Set<COSBase> sharedCopies = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    PdfDocumentAppender(PDDocument document, PdfDocumentFonts fonts, PdfImageCache imageCache) {
+        this.document = document;
+        this.fonts = fonts;
+        this.imageCache = imageCache;
+    }
+
+    /**
+     * <b>Prepares the copies for pages that are written and dropped while the document is created.</b>
+     */
+    void setIncremental() {
+        this.incremental = true;
+    }
+
+    /**
+     * <b>Tells whether the given copy is referred to by more than one of the appended pages.</b>
+     */
+    boolean isSharedCopy(COSBase object) {
+        return sharedCopies.contains(object);
+    }
+
+    /**
+     * <b>Forgets the shared copies, once the pages referring to them have been written.</b><br>
+     * <br>
+     * @param release   Takes each shared copy, e.g. to let the writer forget its number.
+     */
+    void releaseSharedCopies(Consumer<COSBase> release) {
+        sharedCopies.forEach(release);
+        sharedCopies.clear();
+    }
+
+    /**
+     * <b>Appends copies of all pages of the given document.</b><br>
+     * <br>
+     * The source must have been prepared for saving, so that all its content has been written to its pages.<br>
+     * <br>
+     * @param source    The pdf-creator of the document whose pages are appended.
+     * @return          The number of pages appended.
+     */
+    int append(PdfCreator source) throws IOException {
+
+        // The copies of the source's objects, so objects shared by several pages are copied only once.
+        Map<COSBase, COSBase> copies = new IdentityHashMap<>();
+
+        int numberOfPages = 0;
+        for (PDPage page : source.getDocument().getPages()) {
+
+            COSDictionary pageCopy = new COSDictionary();
+            for (Map.Entry<COSName, COSBase> entry : page.getCOSObject().entrySet()) {
+                if (!COSName.PARENT.equals(entry.getKey())) {
+                    pageCopy.setItem(entry.getKey(), copy(entry.getValue(), source, copies));
+                }
+            }
+
+            document.addPage(new PDPage(pageCopy));
+            numberOfPages++;
+        }
+
+        return numberOfPages;
+    }
+
+    private COSBase copy(COSBase base, PdfCreator source, Map<COSBase, COSBase> copies) throws IOException {
+
+        if (base instanceof COSObject) {
+            base = ((COSObject) base).getObject();
+        }
+        if (base == null) {
+            return COSNull.NULL;
+        }
+
+        COSBase copy = copies.get(base);
+        if (copy != null) {
+            if (incremental && (copy instanceof COSDictionary)) {
+                sharedCopies.add(copy);
+            }
+            return copy;
+        }
+
+        if (base instanceof COSStream) {
+            copy = copyStream((COSStream) base, source, copies);
+        }
+        else if (base instanceof COSDictionary) {
+            copy = copyDictionary((COSDictionary) base, source, copies);
+        }
+        else if (base instanceof COSArray) {
+            COSArray array = new COSArray();
+            copies.put(base, array);
+            for (COSBase item : (COSArray) base) {
+                array.add(copy(item, source, copies));
+            }
+            copy = array;
+        }
+        else {
+            // Names, numbers, strings and the like aren't bound to a document.
+            copy = base;
+        }
+
+        copies.put(base, copy);
+        return copy;
+    }
+
+    private COSBase copyDictionary(COSDictionary dictionary, PdfCreator source, Map<COSBase, COSBase> copies)
+            throws IOException {
+
+        PdfFont font = source.getFontFor(dictionary);
+        if (font != null && !font.getMetrics().isEmbedded()) {
+            return fonts.getFont(font).getCOSObject();
+        }
+
+        COSDictionary copy = new COSDictionary();
+        copies.put(dictionary, copy);
+        copyEntries(dictionary, copy, source, copies);
+        return copy;
+    }
+
+    private COSBase copyStream(COSStream stream, PdfCreator source, Map<COSBase, COSBase> copies)
+            throws IOException {
+
+        String imageKey = source.getImageCache().getKeyFor(stream);
+        if (imageKey != null) {
+            PDImageXObject image = imageCache.getCachedImage(imageKey);
+            if (image != null) {
+                return image.getCOSObject();
+            }
+        }
+
+        // Copies registered at the document would be kept until it is closed, even after their pages are written.
+        COSStream copy = incremental ? new COSStream() : document.getDocument().createCOSStream();
+        copies.put(stream, copy);
+        copyEntries(stream, copy, source, copies);
+        try (InputStream inputStream = stream.createRawInputStream();
+             OutputStream outputStream = copy.createRawOutputStream()) {
+            inputStream.transferTo(outputStream);
+        }
+
+        if (imageKey != null) {
+            imageCache.addImage(imageKey, new PDImageXObject(new PDStream(copy), null));
+        }
+
+        return copy;
+    }
+
+    private void copyEntries(COSDictionary from, COSDictionary to, PdfCreator source, Map<COSBase, COSBase> copies)
+            throws IOException {
+
+        for (Map.Entry<COSName, COSBase> entry : from.entrySet()) {
+            to.setItem(entry.getKey(), copy(entry.getValue(), source, copies));
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package io.github.holleymcfly.pdf.core;
+
+import io.github.holleymcfly.pdf.model.font.PdfFont;
+import io.github.holleymcfly.pdf.model.font.PdfFontMetrics;
+import org.apache.pdfbox.contentstream.operator.Operator;
+import org.apache.pdfbox.cos.COSArray;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSString;
+import org.apache.pdfbox.pdfparser.PDFStreamParser;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType0Font;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A set of pdfbox fonts for drawing text into a single document.<br>
+ * <br>
+ * pdfbox fonts aren't thread-safe, so a set must only be used by one thread at a time. Fonts loaded from files are
+ * embedded with subsetting: each of their pdfbox fonts collects the glyphs it has drawn, and only these are embedded
+ * when the document is saved. Pages painted with further sets are moved to the embedded fonts of the document's own
+ * set, so a font file is embedded only once.
+ */
+class PdfDocumentFonts {
+
+    private final PDDocument document;
+
+    // Keyed by the shared metrics, of which there is one per standard 14 font or font file.
+    private final Map<PdfFontMetrics, PDFont> fonts = new HashMap<>();
+    // The font each pdfbox font has been created for, by the pdfbox font's dictionary.
+    private final Map<COSBase, PdfFont> createdFor = new IdentityHashMap<>();
+
+    PdfDocumentFonts(PDDocument document) {
+        this.document = document;
+    }
+
+    /**
+     * <b>Returns the pdfbox font for the given font, creating it on first use.</b>
+     */
+    PDFont getFont(PdfFont font) {
+
+        PdfFontMetrics metrics = font.getMetrics();
+        PDFont pdFont = fonts.get(metrics);
+        if (pdFont == null) {
+            pdFont = createFont(metrics);
+            fonts.put(metrics, pdFont);
+            createdFor.put(pdFont.getCOSObject(), font);
+        }
+
+        return pdFont;
+    }
+
+    /**
+     * <b>Returns the font a pdfbox font of this set has been created for.</b><br>
+     * <br>
+     * @param fontObject    The dictionary of the pdfbox font, e.g. taken from the resources of a form.
+     * @return              A font with the same metrics as the one the pdfbox font was created for, or
+     *                      <code>null</code> if the pdfbox font doesn't belong to this set.
+     */
+    PdfFont getFontFor(COSBase fontObject) {
+        return createdFor.get(fontObject);
+    }
+
+    /**
+     * <b>Finds the glyphs a page has drawn with the embedded fonts of this set.</b><br>
+     * <br>
+     * Fonts loaded from files are encoded with two bytes per glyph, giving the glyph id in the font file, so the
+     * glyphs can be read from the operations of the page.<br>
+     * <br>
+     * @param resources The resources of the page.
+     * @param content   The operations of the page.
+     * @return          The ids of the glyphs drawn with each embedded font of this set, by the name the page refers
+     *                  to the font with. Empty if the page doesn't use any embedded font of this set.
+     */
+    Map<COSName, Set<Integer>> findEmbeddedGlyphs(PDResources resources, ByteArrayOutputStream content)
+            throws IOException {
+
+        Map<COSName, Set<Integer>> glyphs = new HashMap<>();
+        COSDictionary fontDictionary = resources.getCOSObject().getCOSDictionary(COSName.FONT);
+        if (fontDictionary != null) {
+            for (COSName name : fontDictionary.keySet()) {
+                PdfFont font = getFontFor(fontDictionary.getDictionaryObject(name));
+                if (font != null && font.getMetrics().isEmbedded()) {
+                    glyphs.put(name, new HashSet<>());
+                }
+            }
+        }
+
+        if (glyphs.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        PDFStreamParser parser = new PDFStreamParser(content.toByteArray());
+        List<Object> operands = new ArrayList<>();
+        // The glyphs of the current font, or null if it isn't an embedded font of this set.
+        Set<Integer> fontGlyphs = null;
+        // The current fonts saved with the graphics state, which may be null as well.
+        List<Set<Integer>> savedFontGlyphs = new ArrayList<>();
+
+        for (Object token = parser.parseNextToken(); token != null; token = parser.parseNextToken()) {
+
+            if (!(token instanceof Operator)) {
+                operands.add(token);
+                continue;
+            }
+
+            switch (((Operator) token).getName()) {
+                case "Tf":
+                    fontGlyphs = operands.isEmpty() ? null : glyphs.get(operands.get(0));
+                    break;
+                case "q":
+                    savedFontGlyphs.add(fontGlyphs);
+                    break;
+                case "Q":
+                    fontGlyphs = savedFontGlyphs.isEmpty() ? null : savedFontGlyphs.remove(savedFontGlyphs.size()-1);
+                    break;
+                case "Tj":
+                case "TJ":
+                case "'":
+                case "\"":
+                    if (fontGlyphs != null) {
+                        addGlyphIds(operands, fontGlyphs);
+                    }
+                    break;
+                default:
+                    break;
+            }
+
+            operands.clear();
+        }
+
+        return glyphs;
+    }
+
+    private static void addGlyphIds(List<?> operands, Set<Integer> glyphIds) {
+
+        for (Object operand : operands) {
+            if (operand instanceof COSArray) {
+                addGlyphIds(((COSArray) operand).toList(), glyphIds);
+            }
+            else if (operand instanceof COSString) {
+                byte[] bytes = ((COSString) operand).getBytes();
+                for (int i=0; i+1<bytes.length; i+=2) {
+                    glyphIds.add((bytes[i] & 0xFF) << 8 | bytes[i+1] & 0xFF);
+                }
+            }
+        }
+    }
+
+    /**
+     * <b>Takes over the embedded fonts a page has been painted with by another set.</b><br>
+     * <br>
+     * The page refers to the fonts of this set afterwards, which embed the glyphs the page has drawn. So every font
+     * file is embedded only once into the document, however many sets its pages have been painted with.<br>
+     * <br>
+     * @param resources     The resources of the page.
+     * @param glyphs        The glyphs the page has drawn with the embedded fonts of the other set.
+     * @param paintingFonts The set the page has been painted with.
+     */
+    void takeEmbeddedFonts(PDResources resources, Map<COSName, Set<Integer>> glyphs, PdfDocumentFonts paintingFonts) {
+
+        COSDictionary fontDictionary = resources.getCOSObject().getCOSDictionary(COSName.FONT);
+        for (Map.Entry<COSName, Set<Integer>> entry : glyphs.entrySet()) {
+            PdfFont font = paintingFonts.getFontFor(fontDictionary.getDictionaryObject(entry.getKey()));
+            PDType0Font pdFont = (PDType0Font) getFont(font);
+            pdFont.addGlyphsToSubset(entry.getValue());
+            resources.put(entry.getKey(), pdFont);
+        }
+    }
+
+    /**
+     * <b>Reduces the embedded fonts to the glyphs that have been drawn.</b><br>
+     * <br>
+     * This is only needed if the document isn't saved by pdfbox, which does it when saving.
+     */
+    void subsetFonts() throws IOException {
+
+        for (PDFont pdFont : fonts.values()) {
+            if (pdFont.willBeSubset()) {
+                pdFont.subset();
+            }
+        }
+    }
+
+    private PDFont createFont(PdfFontMetrics metrics) {
+
+        if (!metrics.isEmbedded()) {
+            return new PDType1Font(metrics.getFontName());
+        }
+
+        // Loading registers the font for subsetting at the document, which may happen on several painting threads.
+        synchronized (document) {
+            try {
+                return PDType0Font.load(document, metrics.getTrueTypeFont(), true);
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException("Could not embed the font " + metrics.getName(), e);
+            }
+        }
+    }
+}
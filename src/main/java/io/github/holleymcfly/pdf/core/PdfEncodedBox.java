@@ -0,0 +1,53 @@
+package io.github.holleymcfly.pdf.core;
+
+import io.github.holleymcfly.pdf.layout.PdfBox;
+import io.github.holleymcfly.pdf.layout.PdfPaintContext;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
+import org.apache.pdfbox.util.Matrix;
+
+import java.io.IOException;
+
+/**
+ * A box whose drawing operations have been encoded in advance, e.g. a line of the static text of a template.<br>
+ * <br>
+ * The box is drawn as a form, which is shared by all pages of a document the box is drawn on.
+ */
+final class PdfEncodedBox implements PdfBox {
+
+    private final float height;
+    private final PDRectangle pageSize;
+    private final PdfEncodedContent content;
+
+    /**
+     * @param height    The height of the box.
+     * @param pageSize  The size of the pages the box is drawn on.
+     * @param content   The operations, encoded with the upper border of the box at y = 0.
+     */
+    PdfEncodedBox(float height, PDRectangle pageSize, PdfEncodedContent content) {
+        this.height = height;
+        this.pageSize = pageSize;
+        this.content = content;
+    }
+
+    @Override
+    public float getHeight() {
+        return height;
+    }
+
+    @Override
+    public void paint(PdfPaintContext context, float y) throws IOException {
+
+        PDFormXObject form = context instanceof PdfPagePainter
+                ? ((PdfPagePainter) context).getEncodedForm(content, pageSize)
+                : content.createForm(pageSize, context::getFont);
+
+        // The operations have been encoded with the upper border of the box at y = 0.
+        PDPageContentStream contentStream = context.getGraphicsState().getContentStream();
+        contentStream.saveGraphicsState();
+        contentStream.transform(Matrix.getTranslateInstance(0, y));
+        contentStream.drawForm(form);
+        contentStream.restoreGraphicsState();
+    }
+}
@@ -0,0 +1,136 @@
+package io.github.holleymcfly.pdf.core;
+
+import io.github.holleymcfly.pdf.model.font.PdfFont;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * <b>Drawing operations that have been encoded in advance, together with the fonts they use.</b><br>
+ * <br>
+ * The operations refer to the fonts by the names given here, so these names are added to the resources of the page
+ * or form the operations are drawn on. Only fonts that aren't embedded are supported, as the glyphs of an embedded
+ * font are only collected while text is shown with it.<br>
+ * <br>
+ * The operations are compressed once, when the content is encoded. Forms are written with the compressed operations,
+ * so drawing the content into a document doesn't compress anything.<br>
+ * <br>
+ * Encoded content is immutable and may be drawn into any number of documents at the same time.
+ */
+final class PdfEncodedContent {
+
+    private final byte[] compressedOperations;
+    private final Map<COSName, PdfFont> fonts;
+
+    /**
+     * @param operations    The encoded operations, ending with a line break.
+     * @param fonts         The fonts by the names the operations refer to them with.
+     */
+    PdfEncodedContent(byte[] operations, Map<COSName, PdfFont> fonts) throws IOException {
+        this.compressedOperations = compress(operations);
+        this.fonts = Collections.unmodifiableMap(new LinkedHashMap<>(fonts));
+    }
+
+    /**
+     * <b>Takes the operations of a form that has been drawn with the given fonts.</b><br>
+     * <br>
+     * @return  The content of the form, or <code>null</code> if it uses anything but fonts that aren't embedded.
+     */
+    static PdfEncodedContent of(PDFormXObject form, PdfDocumentFonts documentFonts) throws IOException {
+
+        COSDictionary resources = form.getResources().getCOSObject();
+        for (COSName key : resources.keySet()) {
+            if (!COSName.FONT.equals(key)) {
+                return null;
+            }
+        }
+
+        Map<COSName, PdfFont> fonts = new LinkedHashMap<>();
+        COSDictionary fontDictionary = resources.getCOSDictionary(COSName.FONT);
+        if (fontDictionary != null) {
+            for (COSName name : fontDictionary.keySet()) {
+                PdfFont font = documentFonts.getFontFor(fontDictionary.getDictionaryObject(name));
+                if (font == null || font.getMetrics().isEmbedded()) {
+                    return null;
+                }
+                fonts.put(name, font);
+            }
+        }
+
+        try (InputStream inputStream = form.getContents()) {
+            return new PdfEncodedContent(inputStream.readAllBytes(), fonts);
+        }
+    }
+
+    /**
+     * <b>Writes the operations into the given empty form.</b><br>
+     * <br>
+     * @param form          The form, e.g. of another document.
+     * @param documentFonts The fonts of the document the form belongs to.
+     */
+    void writeTo(PDFormXObject form, PdfDocumentFonts documentFonts) throws IOException {
+        writeTo(form, documentFonts::getFont);
+    }
+
+    private void writeTo(PDFormXObject form, Function<PdfFont, PDFont> pdFonts) throws IOException {
+
+        PDResources resources = form.getResources();
+        for (Map.Entry<COSName, PdfFont> font : fonts.entrySet()) {
+            resources.put(font.getKey(), pdFonts.apply(font.getValue()));
+        }
+
+        COSStream stream = form.getContentStream().getCOSObject();
+        try (OutputStream outputStream = stream.createRawOutputStream()) {
+            outputStream.write(compressedOperations);
+        }
+        stream.setItem(COSName.FILTER, COSName.FLATE_DECODE);
+    }
+
+    /**
+     * <b>Creates a form with the operations, to be drawn onto pages of the given size.</b><br>
+     * <br>
+     * The form isn't registered at the document, so it can be created by any painting thread. It is written into the
+     * document together with the first page it is drawn on.<br>
+     * <br>
+     * @param pageSize  The size of the pages. The form covers the page wherever it is moved to, so nothing of it
+     *                  is clipped.
+     * @param pdFonts   The pdfbox fonts of the document, by the fonts of the operations.
+     */
+    PDFormXObject createForm(PDRectangle pageSize, Function<PdfFont, PDFont> pdFonts) throws IOException {
+
+        PDFormXObject form = new PDFormXObject(new COSStream());
+        form.setResources(new PDResources());
+        form.setBBox(new PDRectangle(0, -pageSize.getHeight(), pageSize.getWidth(), 2 * pageSize.getHeight()));
+        writeTo(form, pdFonts);
+        return form;
+    }
+
+    private static byte[] compress(byte[] operations) throws IOException {
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(operations.length / 4 + 64);
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try (DeflaterOutputStream outputStream = new DeflaterOutputStream(compressed, deflater)) {
+            outputStream.write(operations);
+        }
+        finally {
+            deflater.end();
+        }
+
+        return compressed.toByteArray();
+    }
+}
@@ -0,0 +1,65 @@
+package io.github.holleymcfly.pdf.core;
+
+import io.github.holleymcfly.pdf.model.font.PdfFont;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * The forms a single document draws encoded content with.<br>
+ * <br>
+ * Each encoded content gets one form per document, however often it is drawn, e.g. the header row of a table that
+ * is repeated on every page. The forms may be taken by several painting threads at the same time.
+ */
+class PdfEncodedForms {
+
+    private final Map<PdfEncodedContent, PDFormXObject> forms = new ConcurrentHashMap<>();
+    private final Set<COSBase> formObjects = ConcurrentHashMap.newKeySet();
+
+    /**
+     * <b>Returns the form of the given content, creating it on first use.</b><br>
+     * <br>
+     * @param content   The encoded content.
+     * @param pageSize  The size of the pages the form is drawn on.
+     * @param pdFonts   The pdfbox fonts of the document, by the fonts of the content.
+     * @return          The form of the content in this document.
+     */
+    PDFormXObject getForm(PdfEncodedContent content, PDRectangle pageSize, Function<PdfFont, PDFont> pdFonts)
+            throws IOException {
+
+        try {
+            return forms.computeIfAbsent(content, c -> {
+                try {
+                    PDFormXObject form = c.createForm(pageSize, pdFonts);
+                    formObjects.add(form.getCOSObject());
+                    return form;
+                }
+                catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * <b>Tells whether the given object is one of the forms.</b>
+     */
+    boolean contains(COSBase object) {
+        return formObjects.contains(object);
+    }
+
+    int size() {
+        return forms.size();
+    }
+}
@@ -0,0 +1,408 @@
+package io.github.holleymcfly.pdf.core;
+
+import io.github.holleymcfly.pdf.metrics.PdfCounter;
+import io.github.holleymcfly.pdf.metrics.PdfPhase;
+import io.github.holleymcfly.pdf.util.ByteBufferInputStream;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.graphics.image.JPEGFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.LosslessFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <b>The images embedded into a single document.</b><br>
+ * <br>
+ * Each distinct image is embedded only once. Adding the same image again references the already embedded image.
+ * Images are identified by their canonical path and the hash of their content, so a file that has been changed in
+ * the meantime is embedded again. The content is only hashed when a file is added for the first time or its size or
+ * modification time have changed since.<br>
+ * <br>
+ * Image files are read through memory mapping. JPEG images are embedded as they are, without decoding them. Other
+ * images that are drawn much smaller than their size in pixels can be downsampled to a given resolution: only every
+ * n-th pixel of every n-th row is decoded, so the full image is never held in memory. Other images that aren't
+ * downsampled, e.g. PNG images if no resolution is set, are still decoded completely by pdfbox when they are
+ * embedded, so they need their full size in pixels in memory once.<br>
+ * <br>
+ * The cache is thread-safe, as the pages of a document may be painted in parallel. Images are read and decoded
+ * without holding a lock, and an image that is being embedded by one thread is waited for by the others.
+ */
+public class PdfImageCache {
+
+    private final PDDocument document;
+    // The embedded images by their keys, completed when the image has been embedded.
+    private final Map<String, CompletableFuture<PDImageXObject>> images = new ConcurrentHashMap<>();
+    // The keys of the embedded images, by the images' streams.
+    private final Map<COSBase, String> keys = Collections.synchronizedMap(new IdentityHashMap<>());
+    // What has been read from the image files, by the paths they have been added with.
+    private final Map<String, ImageFile> files = new ConcurrentHashMap<>();
+
+    // The resolution in dots per inch images are downsampled to, or 0 if they are embedded in their full size.
+    private volatile float resolution = 0;
+
+    private volatile PdfMetrics metrics = PdfMetrics.NONE;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    PdfImageCache(PDDocument document) {
+        this.document = document;
+    }
+
+    /**
+     * <b>Returns the image of the given file, embedding it into the document if it hasn't been embedded yet.</b><br>
+     * <br>
+     * The image is embedded in its full size.<br>
+     * <br>
+     * @param fullQualifiedFilename The path to the image file.
+     * @return                      The embedded image.
+     */
+    PDImageXObject getImage(String fullQualifiedFilename) throws IOException {
+        return getImage(fullQualifiedFilename, 0, 0);
+    }
+
+    /**
+     * <b>Returns the image of the given file for drawing it with the given size.</b><br>
+     * <br>
+     * If a resolution has been set and the image has at least twice as many pixels as needed for drawing it with that
+     * resolution, a downsampled copy is embedded. The same image drawn with other sizes may therefore be embedded
+     * several times, once per downsampling factor.<br>
+     * <br>
+     * @param fullQualifiedFilename The path to the image file.
+     * @param width                 The width the image is drawn with, in points, or 0 if it isn't known.
+     * @param height                The height the image is drawn with, in points, or 0 if it isn't known.
+     * @return                      The embedded image.
+     */
+    PDImageXObject getImage(String fullQualifiedFilename, float width, float height) throws IOException {
+
+        long start = metrics.start();
+        try {
+            return getOrCreateImage(fullQualifiedFilename, width, height);
+        }
+        finally {
+            metrics.end(PdfPhase.IMAGE_EMBEDDING, start);
+        }
+    }
+
+    private PDImageXObject getOrCreateImage(String fullQualifiedFilename, float width, float height)
+            throws IOException {
+
+        File file = new File(fullQualifiedFilename);
+        ImageFile imageFile = getImageFile(file);
+        int subsampling = imageFile.jpeg ? 1 : getSubsampling(file, imageFile, width, height);
+        String key = imageFile.key + "@" + subsampling;
+
+        CompletableFuture<PDImageXObject> future = images.get(key);
+        if (future == null) {
+            CompletableFuture<PDImageXObject> created = new CompletableFuture<>();
+            future = images.putIfAbsent(key, created);
+            if (future == null) {
+                misses.incrementAndGet();
+                return embedImage(file, imageFile.jpeg, subsampling, key, created);
+            }
+        }
+
+        hits.incrementAndGet();
+        try {
+            return future.join();
+        }
+        catch (CompletionException e) {
+            throw e.getCause() instanceof IOException ? (IOException) e.getCause()
+                    : new IOException("Could not embed the image " + fullQualifiedFilename + ".", e.getCause());
+        }
+    }
+
+    /**
+     * <b>Embeds the image and completes the given future with it, which other threads may be waiting for.</b><br>
+     * <br>
+     * If embedding fails, the future is removed again, so the image is tried to be embedded at the next call.
+     */
+    private PDImageXObject embedImage(File file, boolean jpeg, int subsampling, String key,
+                                      CompletableFuture<PDImageXObject> future) throws IOException {
+
+        try {
+            PDImageXObject image = createImage(file, jpeg, subsampling);
+            keys.put(image.getCOSObject(), key);
+            future.complete(image);
+            metrics.count(PdfCounter.IMAGES_EMBEDDED, 1);
+            return image;
+        }
+        catch (IOException | RuntimeException | Error e) {
+            images.remove(key, future);
+            future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * <b>Returns what has been read from the given image file, reading it if it is new or has been changed.</b><br>
+     * <br>
+     * A file counts as changed if its size or modification time differ from when it has been read.
+     */
+    private ImageFile getImageFile(File file) throws IOException {
+
+        BasicFileAttributes attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+        long size = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+
+        ImageFile imageFile = files.get(file.getPath());
+        if (imageFile != null && imageFile.size == size && imageFile.lastModified == lastModified) {
+            return imageFile;
+        }
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer content = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            imageFile = new ImageFile(file.getCanonicalPath() + "#" + hashContent(content), isJpeg(content), size,
+                    lastModified);
+        }
+
+        files.put(file.getPath(), imageFile);
+        return imageFile;
+    }
+
+    /**
+     * <b>Returns the key an image has been embedded with.</b><br>
+     * <br>
+     * The key consists of the canonical path and content hash of the image file, and of the downsampling factor, so
+     * images with the same key are the same in any document.<br>
+     * <br>
+     * @param imageObject   The stream of the image.
+     * @return              The key, or <code>null</code> if the image hasn't been embedded by this cache.
+     */
+    String getKeyFor(COSBase imageObject) {
+        return keys.get(imageObject);
+    }
+
+    /**
+     * <b>Returns the image that has been embedded with the given key, or <code>null</code>.</b>
+     */
+    PDImageXObject getCachedImage(String key) {
+        CompletableFuture<PDImageXObject> future = images.get(key);
+        return future != null && future.isDone() && !future.isCompletedExceptionally() ? future.join() : null;
+    }
+
+    /**
+     * <b>Adds an image that has been embedded into the document in another way, e.g. copied from another
+     * document.</b>
+     */
+    void addImage(String key, PDImageXObject image) {
+        images.put(key, CompletableFuture.completedFuture(image));
+        keys.put(image.getCOSObject(), key);
+    }
+
+    /**
+     * <b>Sets the resolution that images drawn with a given size are downsampled to.</b><br>
+     * <br>
+     * @param resolution    The resolution in dots per inch, or 0 if images shall be embedded in their full size.
+     */
+    void setResolution(float resolution) {
+        this.resolution = Math.max(0, resolution);
+    }
+
+    void setMetrics(PdfMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * <b>Reads the image and embeds it into the document.</b><br>
+     * <br>
+     * Reading and decoding the file is done without a lock. Only creating the pdfbox objects is synchronized on the
+     * document, which isn't thread-safe.
+     */
+    private PDImageXObject createImage(File file, boolean jpeg, int subsampling) throws IOException {
+
+        // JPEG images are embedded as they are, with the DCT filter, whatever the file is named.
+        if (jpeg) {
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                ByteBuffer content = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                synchronized (document) {
+                    return JPEGFactory.createFromStream(document, new ByteBufferInputStream(content));
+                }
+            }
+        }
+
+        if (subsampling > 1) {
+            BufferedImage image = readSubsampled(file, subsampling);
+            synchronized (document) {
+                return LosslessFactory.createFromImage(document, image);
+            }
+        }
+
+        synchronized (document) {
+            return PDImageXObject.createFromFile(file.getPath(), document);
+        }
+    }
+
+    private static boolean isJpeg(ByteBuffer content) {
+        return content.limit() >= 3 && (content.getShort(0) & 0xFFFF) == 0xFFD8 && (content.get(2) & 0xFF) == 0xFF;
+    }
+
+    /**
+     * <b>Returns by which factor the image may be downsampled, if it is drawn with the given size.</b><br>
+     * <br>
+     * The factor is chosen so that the downsampled image still has at least the resolution that has been set. Only
+     * the header of the file is read for that, once per file.
+     */
+    private int getSubsampling(File file, ImageFile imageFile, float width, float height) throws IOException {
+
+        float resolution = this.resolution;
+        if (resolution <= 0 || width <= 0 || height <= 0) {
+            return 1;
+        }
+
+        int[] dimensions = imageFile.dimensions;
+        if (dimensions == null) {
+            dimensions = readDimensions(file);
+            imageFile.dimensions = dimensions;
+        }
+
+        // There are 72 points per inch.
+        float neededWidth = width / 72 * resolution;
+        float neededHeight = height / 72 * resolution;
+        int factor = (int) Math.min(dimensions[0] / neededWidth, dimensions[1] / neededHeight);
+        return Math.max(1, factor);
+    }
+
+    /**
+     * <b>Returns the width and height of the image in pixels, read from the header of the file.</b>
+     */
+    private int[] readDimensions(File file) throws IOException {
+
+        ImageReader reader = createReader(file);
+        try {
+            return new int[] { reader.getWidth(0), reader.getHeight(0) };
+        }
+        finally {
+            closeReader(reader);
+        }
+    }
+
+    /**
+     * <b>Decodes only every n-th pixel of every n-th row of the image.</b>
+     */
+    private BufferedImage readSubsampled(File file, int subsampling) throws IOException {
+
+        ImageReader reader = createReader(file);
+        try {
+            ImageReadParam param = reader.getDefaultReadParam();
+            param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+            return reader.read(0, param);
+        }
+        finally {
+            closeReader(reader);
+        }
+    }
+
+    /**
+     * <b>Creates a reader for the image that streams the file instead of loading it.</b>
+     */
+    private ImageReader createReader(File file) throws IOException {
+
+        ImageInputStream inputStream = ImageIO.createImageInputStream(file);
+        if (inputStream == null) {
+            throw new IOException("Could not open the image " + file + ".");
+        }
+
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(inputStream);
+        if (!readers.hasNext()) {
+            inputStream.close();
+            throw new IOException("Unsupported image format: " + file + ".");
+        }
+
+        ImageReader reader = readers.next();
+        reader.setInput(inputStream, true, true);
+        return reader;
+    }
+
+    private void closeReader(ImageReader reader) throws IOException {
+        try {
+            ((ImageInputStream) reader.getInput()).close();
+        }
+        finally {
+            reader.dispose();
+        }
+    }
+
+    private String hashContent(ByteBuffer content) {
+
+        MessageDigest digest = createDigest();
+        digest.update(content.duplicate());
+        return new BigInteger(1, digest.digest()).toString(16);
+    }
+
+    private MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 isn't supported by the Java runtime.", e);
+        }
+    }
+
+    /**
+     * <b>Returns how often an image has been taken from the cache.</b>
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * <b>Returns how often an image has been embedded into the document.</b>
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * <b>Returns the number of distinct images embedded into the document.</b>
+     */
+    public int size() {
+        return images.size();
+    }
+
+    /**
+     * What has been read from an image file, valid as long as the file's size and modification time don't change.
+     */
+    private static final class ImageFile {
+
+        // The canonical path and the content hash of the file.
+        private final String key;
+        private final boolean jpeg;
+
+        private final long size;
+        private final long lastModified;
+
+        // The width and height in pixels, or null until they are needed for downsampling.
+        private volatile int[] dimensions;
+
+        private ImageFile(String key, boolean jpeg, long size, long lastModified) {
+            this.key = key;
+            this.jpeg = jpeg;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+    }
+}
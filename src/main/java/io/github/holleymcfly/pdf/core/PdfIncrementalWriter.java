@@ -0,0 +1,507 @@
+package io.github.holleymcfly.pdf.core;
+
+import org.apache.pdfbox.cos.COSArray;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSBoolean;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSFloat;
+import org.apache.pdfbox.cos.COSInteger;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSNull;
+import org.apache.pdfbox.cos.COSObject;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.cos.COSString;
+import org.apache.pdfbox.pdfwriter.COSWriter;
+import org.apache.pdfbox.pdmodel.PDPage;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Writes the pages of a document to the output one after another, while the document is still being created.<br>
+ * <br>
+ * Each page is written with its content streams as soon as it is finished, so the page can be dropped from the
+ * document. Objects shared by several pages (images, forms) are written once, when they're first referenced. Fonts
+ * are deferred to the end, as embedded fonts contain the glyphs of all pages. Objects that are only complete at the
+ * end, like forms printing the page count, can be reserved: they get a number when a page refers to them, and are
+ * written by the caller later on. The page tree, the catalog, the cross-reference table and the trailer are written
+ * last.<br>
+ * <br>
+ * Only the numbers of fonts, reserved objects and the objects the caller declares as shared are kept. Everything else
+ * a page refers to is taken to belong to that page only, and is forgotten as soon as the page has been written, so
+ * the memory used doesn't grow with the number of pages.
+ */
+class PdfIncrementalWriter {
+
+    // The page tree and the catalog get the first numbers, so the pages can refer to their parent.
+    private static final int PAGES_NUMBER = 1;
+    private static final int CATALOG_NUMBER = 2;
+
+    private static final byte[] SPACE = { ' ' };
+    private static final byte[] NEW_LINE = { '\n' };
+
+    private final PositionOutputStream output;
+    private final float version;
+
+    // Whether an object may be referenced by later pages, besides the fonts and the reserved objects.
+    private final Predicate<COSBase> shared;
+
+    // The numbers of the objects that may be referenced again by later pages.
+    private final Map<COSBase, Integer> objectNumbers = new IdentityHashMap<>();
+    // The numbers of the objects that only belong to the page being written.
+    private final Map<COSBase, Integer> pageObjectNumbers = new IdentityHashMap<>();
+    // Objects that have been referenced, but not written yet.
+    private final Deque<IndirectObject> pending = new ArrayDeque<>();
+    private final List<IndirectObject> deferred = new ArrayList<>();
+    private final Map<COSBase, Boolean> reserved = new IdentityHashMap<>();
+
+    // The position of each object in the output, by object number.
+    private long[] offsets = new long[1024];
+    private int nextNumber = CATALOG_NUMBER + 1;
+
+    private int[] pageNumbers = new int[1024];
+    private int numberOfPages;
+
+    private boolean started;
+    private boolean finished;
+
+    /**
+     * @param outputStream  The stream the document is written to. It isn't closed when the document is finished.
+     * @param version       The pdf version of the document.
+     * @param shared        Tells whether an object may be referenced by later pages, e.g. an image. It is asked once
+     *                      per object and page, when the object is written.
+     */
+    PdfIncrementalWriter(OutputStream outputStream, float version, Predicate<COSBase> shared) {
+        this.output = new PositionOutputStream(new BufferedOutputStream(outputStream));
+        this.version = version;
+        this.shared = shared;
+    }
+
+    /**
+     * <b>Makes the given object only get a number when it is referenced, without writing it.</b><br>
+     * <br>
+     * Once the pages referring to the object have been written, its number is taken with {@link #release}, and the
+     * object is written with {@link #writeObject} before the document is finished.
+     */
+    void reserve(COSBase object) {
+        reserved.put(object, Boolean.TRUE);
+    }
+
+    /**
+     * <b>Forgets the given reserved or shared object, so it may be garbage collected.</b><br>
+     * <br>
+     * A shared object may be released once all pages referring to it have been written.<br>
+     * <br>
+     * @return  The number of the object, or <code>null</code> if it hasn't been referenced by any page.
+     */
+    Integer release(COSBase object) {
+        reserved.remove(object);
+        return objectNumbers.remove(object);
+    }
+
+    /**
+     * <b>Writes an object with the number it has been given when it was reserved.</b>
+     */
+    void writeObject(int number, COSBase object) throws IOException {
+
+        checkNotFinished();
+        pending.add(new IndirectObject(object, number));
+        writePending();
+        pageObjectNumbers.clear();
+    }
+
+    /**
+     * <b>Writes the page and everything it refers to, except for the fonts and the reserved objects.</b><br>
+     * <br>
+     * The content streams of the page are closed afterwards, so they must not be used by any other page.
+     */
+    void writePage(PDPage page) throws IOException {
+
+        checkNotFinished();
+        writeHeader();
+
+        int number = nextNumber++;
+        addPageNumber(number);
+
+        COSDictionary dictionary = page.getCOSObject();
+        List<COSStream> contents = new ArrayList<>();
+        COSBase pageContents = dictionary.getDictionaryObject(COSName.CONTENTS);
+        if (pageContents instanceof COSStream) {
+            contents.add((COSStream) pageContents);
+        }
+        else if (pageContents instanceof COSArray) {
+            for (int i=0; i<((COSArray) pageContents).size(); i++) {
+                COSBase content = ((COSArray) pageContents).getObject(i);
+                if (content instanceof COSStream) {
+                    contents.add((COSStream) content);
+                }
+            }
+        }
+
+        // The content streams only belong to this page, so their numbers aren't kept.
+        int[] contentNumbers = new int[contents.size()];
+        for (int i=0; i<contents.size(); i++) {
+            contentNumbers[i] = nextNumber++;
+            pending.add(new IndirectObject(contents.get(i), contentNumbers[i]));
+        }
+
+        startObject(number);
+        output.write(COSWriter.DICT_OPEN);
+        for (Map.Entry<COSName, COSBase> entry : dictionary.entrySet()) {
+
+            COSName key = entry.getKey();
+            if (COSName.PARENT.equals(key) || COSName.CONTENTS.equals(key)) {
+                continue;
+            }
+            writeEntry(key, entry.getValue());
+        }
+        writeName(COSName.PARENT);
+        writeReference(PAGES_NUMBER);
+        if (contentNumbers.length > 0) {
+            writeName(COSName.CONTENTS);
+            output.write(COSWriter.ARRAY_OPEN);
+            for (int contentNumber : contentNumbers) {
+                writeReference(contentNumber);
+            }
+            output.write(COSWriter.ARRAY_CLOSE);
+        }
+        output.write(COSWriter.DICT_CLOSE);
+        endObject();
+
+        writePending();
+        pageObjectNumbers.clear();
+
+        for (COSStream content : contents) {
+            content.close();
+        }
+    }
+
+    /**
+     * <b>Writes the deferred objects, the page tree, the catalog, the cross-reference table and the trailer.</b><br>
+     * <br>
+     * Embedded fonts must have been subset before, and all reserved objects must have been written.<br>
+     * <br>
+     * @return  The number of bytes written for the whole document.
+     */
+    long finish() throws IOException {
+
+        checkNotFinished();
+        writeHeader();
+        finished = true;
+
+        while (!deferred.isEmpty()) {
+            List<IndirectObject> objects = new ArrayList<>(deferred);
+            deferred.clear();
+            pending.addAll(objects);
+            writePending();
+        }
+
+        startObject(PAGES_NUMBER);
+        output.write(COSWriter.DICT_OPEN);
+        writeEntry(COSName.TYPE, COSName.PAGES);
+        writeName(COSName.KIDS);
+        output.write(COSWriter.ARRAY_OPEN);
+        for (int i=0; i<numberOfPages; i++) {
+            writeReference(pageNumbers[i]);
+            if (i % 10 == 9) {
+                output.write(NEW_LINE);
+            }
+        }
+        output.write(COSWriter.ARRAY_CLOSE);
+        writeEntry(COSName.COUNT, COSInteger.get(numberOfPages));
+        output.write(COSWriter.DICT_CLOSE);
+        endObject();
+
+        startObject(CATALOG_NUMBER);
+        output.write(COSWriter.DICT_OPEN);
+        writeEntry(COSName.TYPE, COSName.CATALOG);
+        writeName(COSName.PAGES);
+        writeReference(PAGES_NUMBER);
+        output.write(COSWriter.DICT_CLOSE);
+        endObject();
+
+        writeCrossReferences();
+        output.flush();
+        return output.position;
+    }
+
+    int getNumberOfPages() {
+        return numberOfPages;
+    }
+
+    /**
+     * <b>Returns the number of objects whose numbers are kept for later pages.</b>
+     */
+    int getNumberOfKeptObjects() {
+        return objectNumbers.size();
+    }
+
+    private void checkNotFinished() {
+        if (finished) {
+            throw new IllegalStateException("The document has already been finished.");
+        }
+    }
+
+    private void writeHeader() throws IOException {
+
+        if (started) {
+            return;
+        }
+        started = true;
+
+        write("%PDF-" + version + "\n");
+        // A comment with bytes above 127 marks the file as binary.
+        output.write(new byte[] { '%', (byte) 0xE2, (byte) 0xE3, (byte) 0xCF, (byte) 0xD3, '\n' });
+    }
+
+    private void writePending() throws IOException {
+
+        while (!pending.isEmpty()) {
+            IndirectObject object = pending.poll();
+            startObject(object.number);
+            if (object.object instanceof COSStream) {
+                writeStream((COSStream) object.object);
+            }
+            else {
+                writeDictionary((COSDictionary) object.object);
+            }
+            endObject();
+        }
+    }
+
+    private void writeStream(COSStream stream) throws IOException {
+
+        byte[] data;
+        try (InputStream inputStream = stream.createRawInputStream()) {
+            data = inputStream.readAllBytes();
+        }
+
+        output.write(COSWriter.DICT_OPEN);
+        for (Map.Entry<COSName, COSBase> entry : stream.entrySet()) {
+            if (!COSName.LENGTH.equals(entry.getKey())) {
+                writeEntry(entry.getKey(), entry.getValue());
+            }
+        }
+        writeEntry(COSName.LENGTH, COSInteger.get(data.length));
+        output.write(COSWriter.DICT_CLOSE);
+
+        output.write(NEW_LINE);
+        output.write(COSWriter.STREAM);
+        write("\r\n");
+        output.write(data);
+        output.write(NEW_LINE);
+        output.write(COSWriter.ENDSTREAM);
+    }
+
+    private void writeDictionary(COSDictionary dictionary) throws IOException {
+
+        output.write(COSWriter.DICT_OPEN);
+        for (Map.Entry<COSName, COSBase> entry : dictionary.entrySet()) {
+            writeEntry(entry.getKey(), entry.getValue());
+        }
+        output.write(COSWriter.DICT_CLOSE);
+    }
+
+    private void writeEntry(COSName key, COSBase value) throws IOException {
+        writeName(key);
+        writeValue(value);
+    }
+
+    private void writeName(COSName name) throws IOException {
+        name.writePDF(output);
+        output.write(SPACE);
+    }
+
+    private void writeValue(COSBase value) throws IOException {
+
+        if (value instanceof COSObject) {
+            value = ((COSObject) value).getObject();
+        }
+
+        if (value == null || value instanceof COSNull) {
+            write("null");
+        }
+        else if (isIndirect(value)) {
+            writeReference(reference(value));
+            return;
+        }
+        else if (value instanceof COSDictionary) {
+            writeDictionary((COSDictionary) value);
+        }
+        else if (value instanceof COSArray) {
+            output.write(COSWriter.ARRAY_OPEN);
+            for (COSBase item : (COSArray) value) {
+                writeValue(item);
+            }
+            output.write(COSWriter.ARRAY_CLOSE);
+        }
+        else if (value instanceof COSString) {
+            COSWriter.writeString((COSString) value, output);
+        }
+        else if (value instanceof COSName) {
+            ((COSName) value).writePDF(output);
+        }
+        else if (value instanceof COSInteger) {
+            ((COSInteger) value).writePDF(output);
+        }
+        else if (value instanceof COSFloat) {
+            ((COSFloat) value).writePDF(output);
+        }
+        else if (value instanceof COSBoolean) {
+            ((COSBoolean) value).writePDF(output);
+        }
+        else {
+            throw new IOException("Can't write the object " + value.getClass().getName());
+        }
+
+        output.write(SPACE);
+    }
+
+    /**
+     * <b>Streams and typed dictionaries like fonts are written as objects of their own, so they can be shared.</b>
+     */
+    private boolean isIndirect(COSBase value) {
+        return value instanceof COSStream
+                || value instanceof COSDictionary && ((COSDictionary) value).containsKey(COSName.TYPE);
+    }
+
+    /**
+     * <b>Returns the number of the given object, which is written after the current object, or deferred.</b>
+     */
+    private int reference(COSBase object) {
+
+        Integer number = objectNumbers.get(object);
+        if (number == null) {
+            number = pageObjectNumbers.get(object);
+        }
+        if (number != null) {
+            return number;
+        }
+
+        number = nextNumber++;
+        if (reserved.containsKey(object) || isFont(object) || shared.test(object)) {
+            objectNumbers.put(object, number);
+        }
+        else {
+            pageObjectNumbers.put(object, number);
+        }
+
+        if (reserved.containsKey(object)) {
+            return number;
+        }
+
+        IndirectObject indirectObject = new IndirectObject(object, number);
+        if (!finished && isFont(object)) {
+            deferred.add(indirectObject);
+        }
+        else {
+            pending.add(indirectObject);
+        }
+
+        return number;
+    }
+
+    private boolean isFont(COSBase object) {
+        return object instanceof COSDictionary
+                && COSName.FONT.equals(((COSDictionary) object).getCOSName(COSName.TYPE));
+    }
+
+    private void writeReference(int number) throws IOException {
+        write(number + " 0 R ");
+    }
+
+    private void startObject(int number) throws IOException {
+
+        if (number >= offsets.length) {
+            offsets = Arrays.copyOf(offsets, Math.max(offsets.length * 2, number + 1));
+        }
+        offsets[number] = output.position;
+
+        write(number + " 0 ");
+        output.write(COSWriter.OBJ);
+        output.write(NEW_LINE);
+    }
+
+    private void endObject() throws IOException {
+        output.write(NEW_LINE);
+        output.write(COSWriter.ENDOBJ);
+        output.write(NEW_LINE);
+    }
+
+    private void addPageNumber(int number) {
+
+        if (numberOfPages == pageNumbers.length) {
+            pageNumbers = Arrays.copyOf(pageNumbers, pageNumbers.length * 2);
+        }
+        pageNumbers[numberOfPages++] = number;
+    }
+
+    private void writeCrossReferences() throws IOException {
+
+        long start = output.position;
+        write("xref\n0 " + nextNumber + "\n");
+        write("0000000000 65535 f\r\n");
+        for (int i=1; i<nextNumber; i++) {
+            write(String.format("%010d 00000 n\r\n", offsets[i]));
+        }
+
+        write("trailer\n");
+        output.write(COSWriter.DICT_OPEN);
+        writeEntry(COSName.SIZE, COSInteger.get(nextNumber));
+        writeName(COSName.ROOT);
+        writeReference(CATALOG_NUMBER);
+        output.write(COSWriter.DICT_CLOSE);
+        write("\nstartxref\n" + start + "\n%%EOF\n");
+    }
+
+    private void write(String text) throws IOException {
+        output.write(text.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    private static final class IndirectObject {
+
+        private final COSBase object;
+        private final int number;
+
+        private IndirectObject(COSBase object, int number) {
+            this.object = object;
+            this.number = number;
+        }
+    }
+
+    /**
+     * An output stream that knows the position it writes to, for the cross-reference table.
+     */
+    private static final class PositionOutputStream extends FilterOutputStream {
+
+        private long position;
+
+        private PositionOutputStream(OutputStream outputStream) {
+            super(outputStream);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            position++;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            out.write(bytes, offset, length);
+            position += length;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package io.github.holleymcfly.pdf.core;
+
+import io.github.holleymcfly.pdf.metrics.PdfCounter;
+import io.github.holleymcfly.pdf.metrics.PdfMetricsListener;
+import io.github.holleymcfly.pdf.metrics.PdfPhase;
+import io.github.holleymcfly.pdf.model.PdfFormattedText;
+import io.github.holleymcfly.pdf.util.LineBreaker;
+
+/**
+ * Times the phases of creating a document and passes them to a listener.<br>
+ * <br>
+ * Without a listener, the clock isn't even read, so the metrics cost nothing.
+ */
+final class PdfMetrics {
+
+    static final PdfMetrics NONE = new PdfMetrics(PdfMetricsListener.NONE);
+
+    private final PdfMetricsListener listener;
+    private final boolean enabled;
+
+    PdfMetrics(PdfMetricsListener listener) {
+        this.listener = listener;
+        this.enabled = listener != PdfMetricsListener.NONE;
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * <b>Returns the start time of a phase, to be passed to {@link #end(PdfPhase, long)}.</b>
+     */
+    long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    void end(PdfPhase phase, long start) {
+        if (enabled) {
+            listener.phaseCompleted(phase, System.nanoTime() - start);
+        }
+    }
+
+    void count(PdfCounter counter, long amount) {
+        if (enabled) {
+            listener.counted(counter, amount);
+        }
+    }
+
+    /**
+     * <b>Returns a line breaker that times the given one, or the given one itself if nothing is timed.</b>
+     */
+    LineBreaker timed(LineBreaker lineBreaker) {
+
+        if (!enabled) {
+            return lineBreaker;
+        }
+
+        return new LineBreaker() {
+
+            @Override
+            public int[] breakLines(float[] wordWidths, float[] spaceWidths, float lineWidth) {
+                long start = System.nanoTime();
+                try {
+                    return lineBreaker.breakLines(wordWidths, spaceWidths, lineWidth);
+                }
+                finally {
+                    listener.phaseCompleted(PdfPhase.LINE_BREAKING, System.nanoTime() - start);
+                }
+            }
+
+            @Override
+            public int[] breakLines(PdfFormattedText[] text, Words words, float lineWidth) {
+                long start = System.nanoTime();
+                try {
+                    return lineBreaker.breakLines(text, words, lineWidth);
+                }
+                finally {
+                    listener.phaseCompleted(PdfPhase.LINE_BREAKING, System.nanoTime() - start);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,84 @@
+package io.github.holleymcfly.pdf.core;
+
+import io.github.holleymcfly.pdf.layout.PdfGraphicsState;
+import io.github.holleymcfly.pdf.layout.PdfPaintContext;
+import io.github.holleymcfly.pdf.model.font.PdfFont;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+
+import java.io.IOException;
+
+/**
+ * Paints onto the content stream of a single page.<br>
+ * <br>
+ * Pages that are painted at the same time must not share their fonts, as the pdfbox fonts aren't thread-safe.
+ */
+class PdfPagePainter implements PdfPaintContext {
+
+    private final PdfGraphicsState graphicsState;
+    private final PDResources resources;
+    private final float left;
+    private final PdfDocumentFonts fonts;
+    private final PdfImageCache imageCache;
+    private final PdfEncodedForms encodedForms;
+
+    /**
+     * @param graphicsState The graphics state of the content stream of the page.
+     * @param resources     The resources the content stream refers to.
+     * @param left          The x position of the left border of the page content.
+     * @param fonts         The fonts for drawing text, only used by this painter at a time.
+     * @param imageCache    The images embedded into the document.
+     * @param encodedForms  The forms of the encoded content drawn into the document.
+     */
+    PdfPagePainter(PdfGraphicsState graphicsState, PDResources resources, float left, PdfDocumentFonts fonts,
+                   PdfImageCache imageCache, PdfEncodedForms encodedForms) {
+        this.graphicsState = graphicsState;
+        this.resources = resources;
+        this.left = left;
+        this.fonts = fonts;
+        this.imageCache = imageCache;
+        this.encodedForms = encodedForms;
+    }
+
+    @Override
+    public PDPageContentStream getContentStream() {
+        graphicsState.reset();
+        return graphicsState.getContentStream();
+    }
+
+    @Override
+    public PdfGraphicsState getGraphicsState() {
+        return graphicsState;
+    }
+
+    @Override
+    public PDResources getResources() {
+        return resources;
+    }
+
+    @Override
+    public float getLeft() {
+        return left;
+    }
+
+    @Override
+    public PDFont getFont(PdfFont font) {
+        return fonts.getFont(font);
+    }
+
+    @Override
+    public PDImageXObject getImage(String fullQualifiedFilename, float width, float height) throws IOException {
+        return imageCache.getImage(fullQualifiedFilename, width, height);
+    }
+
+    /**
+     * <b>Returns the form the given encoded content is drawn with in this document.</b>
+     */
+    PDFormXObject getEncodedForm(PdfEncodedContent content, PDRectangle pageSize) throws IOException {
+        return encodedForms.getForm(content, pageSize, fonts::getFont);
+    }
+}
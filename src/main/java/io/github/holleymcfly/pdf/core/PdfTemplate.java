@@ -0,0 +1,360 @@
+package io.github.holleymcfly.pdf.core;
+
+import io.github.holleymcfly.pdf.layout.PdfBlock;
+import io.github.holleymcfly.pdf.layout.PdfBox;
+import io.github.holleymcfly.pdf.layout.PdfGraphicsState;
+import io.github.holleymcfly.pdf.layout.PdfLayout;
+import io.github.holleymcfly.pdf.layout.PdfMeasuredBlock;
+import io.github.holleymcfly.pdf.layout.PdfParagraphBuilder;
+import io.github.holleymcfly.pdf.layout.PdfTableBlock;
+import io.github.holleymcfly.pdf.layout.PdfTableRowBox;
+import io.github.holleymcfly.pdf.model.font.PdfFont;
+import io.github.holleymcfly.pdf.model.table.PdfTable;
+import io.github.holleymcfly.pdf.model.table.PdfTableCell;
+import io.github.holleymcfly.pdf.util.LineBreaker;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.interactive.annotation.PDAppearanceStream;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * <b>A document structure that is compiled once and filled with the data of many documents.</b><br>
+ * <br>
+ * A template is created with the {@link PdfTemplateBuilder}. When it is built, everything that is the same in every
+ * document is done once: the static texts and the fixed rows of the tables are measured and split into lines, and
+ * their drawing operations are encoded and compressed, just like the static parts of the header and footer. Filling
+ * the template then only measures the texts with placeholders and the rows of the tables. The encoded operations are
+ * drawn as forms, each written once per document with the operations compressed in advance.<br>
+ * <br>
+ * Content that uses embedded fonts or images is measured only once, too, but painted for each document.<br>
+ * <br>
+ * A template is immutable, so it may be filled by several threads at the same time.
+ */
+public final class PdfTemplate {
+
+    /**
+     * A placeholder in a text, e.g. <code>{customer}</code>.
+     */
+    static final Pattern PLACEHOLDER = Pattern.compile("\\{([A-Za-z0-9_.-]+)}");
+
+    private final PdfCreatorBuilder creatorBuilder;
+    private final List<Part> parts;
+    private final PdfEncodedContent encodedHeader;
+    private final PdfEncodedContent encodedFooter;
+
+    PdfTemplate(PdfCreatorBuilder creatorBuilder, List<Part> parts) {
+
+        this.creatorBuilder = creatorBuilder;
+        this.parts = new ArrayList<>(parts);
+
+        PdfCreator prototype = creatorBuilder.build();
+        try {
+            Compiler compiler = new Compiler(prototype);
+            for (Part part : this.parts) {
+                part.compile(compiler);
+            }
+
+            encodedHeader = prototype.encodeHeader();
+            encodedFooter = prototype.encodeFooter();
+        }
+        catch (IOException e) {
+            throw new RuntimeException("Failed to compile the template.", e);
+        }
+        finally {
+            prototype.closeDocument();
+        }
+    }
+
+    /**
+     * <b>Creates a document from the template.</b><br>
+     * <br>
+     * The returned pdf-creator already contains the content of the template. Further content may be added to it
+     * before it is saved.<br>
+     * <br>
+     * @param values    The values of the placeholders and the rows of the tables.
+     * @return          The pdf-creator of the new document.
+     */
+    public PdfCreator fill(PdfTemplateValues values) {
+
+        PdfCreator pdfCreator = creatorBuilder.create();
+        pdfCreator.setEncodedHeaderFooter(encodedHeader, encodedFooter);
+        pdfCreator.init();
+
+        PdfLayout layout = new PdfLayout();
+        for (Part part : parts) {
+            layout.add(part.fill(values));
+        }
+        pdfCreator.addLayout(layout);
+
+        return pdfCreator;
+    }
+
+    /**
+     * A part of a template, e.g. a static text or a table.
+     */
+    abstract static class Part {
+
+        /**
+         * <b>Measures and encodes everything of the part that is the same in every document.</b>
+         */
+        abstract void compile(Compiler compiler) throws IOException;
+
+        /**
+         * <b>Returns the block of the part for a single document.</b>
+         */
+        abstract PdfBlock fill(PdfTemplateValues values);
+    }
+
+    /**
+     * A block that is the same in every document.
+     */
+    static final class StaticPart extends Part {
+
+        private final PdfBlock block;
+        private PdfBlock compiled;
+
+        StaticPart(PdfBlock block) {
+            this.block = block;
+        }
+
+        @Override
+        void compile(Compiler compiler) throws IOException {
+            compiled = new MeasuredBlock(compiler.compile(block));
+        }
+
+        @Override
+        PdfBlock fill(PdfTemplateValues values) {
+            return compiled;
+        }
+    }
+
+    /**
+     * A paragraph with placeholders, measured for each document.
+     */
+    static final class TextPart extends Part {
+
+        // The text between the placeholders, and the names of the placeholders in between.
+        private final List<String> fragments = new ArrayList<>();
+        private final List<String> names = new ArrayList<>();
+        private final PdfFont font;
+
+        TextPart(String text, PdfFont font) {
+
+            this.font = font;
+
+            Matcher matcher = PLACEHOLDER.matcher(text);
+            int start = 0;
+            while (matcher.find()) {
+                fragments.add(text.substring(start, matcher.start()));
+                names.add(matcher.group(1));
+                start = matcher.end();
+            }
+            fragments.add(text.substring(start));
+        }
+
+        @Override
+        void compile(Compiler compiler) {
+        }
+
+        @Override
+        PdfBlock fill(PdfTemplateValues values) {
+
+            StringBuilder text = new StringBuilder(fragments.get(0));
+            for (int i=0; i<names.size(); i++) {
+                text.append(values.getValue(names.get(i))).append(fragments.get(i+1));
+            }
+
+            return new PdfParagraphBuilder().withText(text.toString(), font).build();
+        }
+    }
+
+    /**
+     * A table with fixed cells measured once, and rows measured for each document.
+     */
+    static final class TablePart extends Part {
+
+        private final String name;
+        private final PdfTable table;
+        private PdfMeasuredBlock compiled;
+
+        TablePart(String name, PdfTable table) {
+            this.name = name;
+            this.table = table;
+        }
+
+        @Override
+        void compile(Compiler compiler) throws IOException {
+            compiled = compiler.compile(new PdfTableBlock(table));
+        }
+
+        @Override
+        PdfBlock fill(PdfTemplateValues values) {
+
+            List<PdfBox> boxes = new ArrayList<>(compiled.getBoxes());
+            for (Collection<PdfTableCell> row : values.getRows(name)) {
+
+                List<PdfTableCell> cells = table.initRow(row);
+                if (!cells.isEmpty()) {
+                    boxes.add(new PdfTableRowBox(table, cells, table.getRowHeight(cells)));
+                }
+            }
+
+            return new MeasuredBlock(new PdfMeasuredBlock(boxes, compiled.getRepeatedBoxes(),
+                    compiled.isKeepTogether(), compiled.getOrphans(), compiled.getWidows()));
+        }
+    }
+
+    /**
+     * A block that has been measured in advance.
+     */
+    private static final class MeasuredBlock implements PdfBlock {
+
+        private final PdfMeasuredBlock measured;
+
+        private MeasuredBlock(PdfMeasuredBlock measured) {
+            this.measured = measured;
+        }
+
+        @Override
+        public PdfMeasuredBlock measure(float contentWidth, LineBreaker lineBreaker) {
+            return measured;
+        }
+    }
+
+    /**
+     * Measures blocks with the settings of the template's documents and encodes their boxes.
+     */
+    static final class Compiler {
+
+        private final PdfCreator prototype;
+        private final PdfDocumentFonts fonts;
+
+        // The names the encoded operations refer to the fonts with. They differ from the names pdfbox gives the
+        // fonts of a page, so both may be used on the same page.
+        private final Map<COSName, PdfFont> fontNames = new LinkedHashMap<>();
+
+        private Compiler(PdfCreator prototype) {
+            this.prototype = prototype;
+            this.fonts = prototype.getDocumentFonts();
+        }
+
+        /**
+         * <b>Measures the block and encodes its boxes, as far as possible.</b>
+         */
+        PdfMeasuredBlock compile(PdfBlock block) throws IOException {
+
+            PdfMeasuredBlock measured = block.measure(prototype.getPageContentWidth(), prototype.getLineBreaker());
+
+            Map<PdfBox, PdfBox> encoded = new IdentityHashMap<>();
+            List<PdfBox> boxes = new ArrayList<>();
+            for (PdfBox box : measured.getBoxes()) {
+                PdfBox encodedBox = encode(box);
+                encoded.put(box, encodedBox);
+                boxes.add(encodedBox);
+            }
+
+            List<PdfBox> repeatedBoxes = new ArrayList<>();
+            for (PdfBox box : measured.getRepeatedBoxes()) {
+                repeatedBoxes.add(encoded.containsKey(box) ? encoded.get(box) : encode(box));
+            }
+
+            return new PdfMeasuredBlock(boxes, repeatedBoxes, measured.isKeepTogether(), measured.getOrphans(),
+                    measured.getWidows());
+        }
+
+        /**
+         * <b>Paints the box with its upper border at y = 0 and keeps the operations.</b><br>
+         * <br>
+         * The resources are filled with the fonts named so far, as pdfbox keeps the name of a font that is already
+         * in the resources. If the box uses a new font, it gets a name and the box is painted again.<br>
+         * <br>
+         * @return  The encoded box, or the box itself if it can't be encoded or doesn't paint anything.
+         */
+        private PdfBox encode(PdfBox box) throws IOException {
+
+            while (true) {
+
+                PDResources resources = new PDResources();
+                for (Map.Entry<COSName, PdfFont> entry : fontNames.entrySet()) {
+                    resources.put(entry.getKey(), fonts.getFont(entry.getValue()));
+                }
+
+                byte[] operations = paint(box, resources);
+                if (operations.length == 0 || !resources.getCOSObject().keySet().equals(Set.of(COSName.FONT))) {
+                    return box;
+                }
+
+                boolean newFonts = false;
+                COSDictionary fontDictionary = resources.getCOSObject().getCOSDictionary(COSName.FONT);
+                for (COSName name : fontDictionary.keySet()) {
+
+                    if (fontNames.containsKey(name)) {
+                        continue;
+                    }
+
+                    PdfFont font = fonts.getFontFor(fontDictionary.getDictionaryObject(name));
+                    if (font == null || font.getMetrics().isEmbedded()) {
+                        return box;
+                    }
+
+                    fontNames.put(COSName.getPDFName("TF" + (fontNames.size() + 1)), font);
+                    newFonts = true;
+                }
+
+                if (!newFonts) {
+                    PdfEncodedContent content = new PdfEncodedContent(operations, getUsedFonts(operations));
+                    return new PdfEncodedBox(box.getHeight(), prototype.getPageSize(), content);
+                }
+            }
+        }
+
+        private byte[] paint(PdfBox box, PDResources resources) throws IOException {
+
+            PDAppearanceStream resourceHolder = new PDAppearanceStream(new COSStream());
+            resourceHolder.setResources(resources);
+
+            ByteArrayOutputStream operations = new ByteArrayOutputStream();
+            try (PDPageContentStream contentStream = new PDPageContentStream(prototype.getDocument(),
+                    resourceHolder, operations)) {
+                box.paint(new PdfPagePainter(new PdfGraphicsState(contentStream), resources,
+                        prototype.getPageMarginLeft(), fonts, prototype.getImageCache(), new PdfEncodedForms()), 0);
+            }
+
+            if (operations.size() > 0) {
+                operations.write('\n');
+            }
+            return operations.toByteArray();
+        }
+
+        /**
+         * <b>Returns the fonts the operations refer to, so only these are added to the pages.</b>
+         */
+        private Map<COSName, PdfFont> getUsedFonts(byte[] operations) {
+
+            String text = new String(operations, StandardCharsets.ISO_8859_1);
+            Map<COSName, PdfFont> usedFonts = new LinkedHashMap<>();
+            for (Map.Entry<COSName, PdfFont> entry : fontNames.entrySet()) {
+                if (text.contains("/" + entry.getKey().getName() + " ")) {
+                    usedFonts.put(entry.getKey(), entry.getValue());
+                }
+            }
+
+            return usedFonts;
+        }
+    }
+}
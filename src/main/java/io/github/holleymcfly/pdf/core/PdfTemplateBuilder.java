@@ -0,0 +1,85 @@
+package io.github.holleymcfly.pdf.core;
+
+import io.github.holleymcfly.pdf.layout.PdfBlock;
+import io.github.holleymcfly.pdf.layout.PdfParagraphBuilder;
+import io.github.holleymcfly.pdf.model.font.PdfFont;
+import io.github.holleymcfly.pdf.model.table.PdfTable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class PdfTemplateBuilder {
+
+    private PdfCreatorBuilder creatorBuilder = new PdfCreatorBuilder();
+    private final List<PdfTemplate.Part> parts = new ArrayList<>();
+
+    /**
+     * <b>Sets the page format, margins, header, footer and further settings of the documents.</b><br>
+     * <br>
+     * The builder must not be changed anymore after the template has been built.<br>
+     * <br>
+     * @param creatorBuilder    The builder of the pdf-creators the documents are created with.
+     * @return                  The builder.
+     */
+    public PdfTemplateBuilder withCreator(PdfCreatorBuilder creatorBuilder) {
+        this.creatorBuilder = creatorBuilder;
+        return this;
+    }
+
+    /**
+     * <b>Adds a paragraph of text.</b><br>
+     * <br>
+     * The text may contain placeholders like <code>{customer}</code>, which are replaced by the values of each
+     * document. A text without placeholders is measured and encoded only once, when the template is built.<br>
+     * <br>
+     * @param text  The text, optionally with placeholders.
+     * @param font  The font of the text.
+     * @return      The builder.
+     */
+    public PdfTemplateBuilder addText(String text, PdfFont font) {
+
+        if (PdfTemplate.PLACEHOLDER.matcher(text).find()) {
+            parts.add(new PdfTemplate.TextPart(text, font));
+        }
+        else {
+            parts.add(new PdfTemplate.StaticPart(new PdfParagraphBuilder().withText(text, font).build()));
+        }
+
+        return this;
+    }
+
+    /**
+     * <b>Adds a block that is the same in every document, e.g. a paragraph with further settings.</b><br>
+     * <br>
+     * @param block The block, which is measured only once, when the template is built.
+     * @return      The builder.
+     */
+    public PdfTemplateBuilder addBlock(PdfBlock block) {
+        parts.add(new PdfTemplate.StaticPart(block));
+        return this;
+    }
+
+    /**
+     * <b>Adds a table whose rows are given for each document.</b><br>
+     * <br>
+     * The table defines the font and columns, and it may contain fixed cells, e.g. a header row. These are measured
+     * only once, when the template is built. The rows of each document are initialized like the rows of a table
+     * printed with <code>PdfCreator.addTable(PdfTable, Iterator)</code>. The table must not be changed anymore after
+     * the template has been built.<br>
+     * <br>
+     * @param name  The name of the table, for passing its rows with {@link PdfTemplateValues#withRows}.
+     * @param table The fully configured table.
+     * @return      The builder.
+     */
+    public PdfTemplateBuilder addTable(String name, PdfTable table) {
+        parts.add(new PdfTemplate.TablePart(name, table));
+        return this;
+    }
+
+    /**
+     * <b>Builds the template, measuring and encoding everything that is the same in every document.</b>
+     */
+    public PdfTemplate build() {
+        return new PdfTemplate(creatorBuilder, parts);
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.holleymcfly.pdf.core;
+
+import io.github.holleymcfly.pdf.model.table.PdfTableCell;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * <b>The variable data of a single document that is filled from a {@link PdfTemplate}.</b>
+ */
+public class PdfTemplateValues {
+
+    private final Map<String, String> values = new HashMap<>();
+    private final Map<String, Iterable<? extends Collection<PdfTableCell>>> rows = new HashMap<>();
+
+    /**
+     * <b>Sets the value of a placeholder.</b><br>
+     * <br>
+     * @param name  The name of the placeholder, e.g. <code>customer</code> for <code>{customer}</code>.
+     * @param value The text that replaces the placeholder.
+     * @return      The values.
+     */
+    public PdfTemplateValues withValue(String name, String value) {
+        values.put(name, value);
+        return this;
+    }
+
+    /**
+     * <b>Sets the rows of a table of the template.</b><br>
+     * <br>
+     * The cells are initialized when the document is filled, so they must not be shared with other documents that
+     * are filled at the same time. The row numbers of the cells' positions are ignored.<br>
+     * <br>
+     * @param name  The name of the table.
+     * @param rows  The rows, each consisting of the cells of that row.
+     * @return      The values.
+     */
+    public PdfTemplateValues withRows(String name, Iterable<? extends Collection<PdfTableCell>> rows) {
+        this.rows.put(name, rows);
+        return this;
+    }
+
+    String getValue(String name) {
+
+        String value = values.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("No value for the placeholder {" + name + "}.");
+        }
+
+        return value;
+    }
+
+    Iterable<? extends Collection<PdfTableCell>> getRows(String name) {
+        return rows.getOrDefault(name, Collections.emptyList());
+    }
+}
@@ -0,0 +1,22 @@
+package io.github.holleymcfly.pdf.layout;
+
+import io.github.holleymcfly.pdf.util.LineBreaker;
+
+/**
+ * <b>A node of a layout, e.g. a paragraph, a table or an image.</b><br>
+ * <br>
+ * Measuring a block splits it up into boxes that are placed onto the pages one after another. Measuring must not
+ * depend on anything else than the given width and line breaker, so the result can be reused for every page format
+ * with the same content width.
+ */
+public interface PdfBlock {
+
+    /**
+     * <b>Splits up the block into boxes.</b><br>
+     * <br>
+     * @param contentWidth  The width that is available for the content of a page.
+     * @param lineBreaker   The line breaker to use for texts.
+     * @return              The measured block.
+     */
+    PdfMeasuredBlock measure(float contentWidth, LineBreaker lineBreaker);
+}
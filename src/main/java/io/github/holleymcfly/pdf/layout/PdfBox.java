@@ -0,0 +1,22 @@
+package io.github.holleymcfly.pdf.layout;
+
+import java.io.IOException;
+
+/**
+ * <b>A measured piece of content that is never broken across pages, e.g. a single line of text or a table row.</b><br>
+ * <br>
+ * Boxes are created when a block is measured. They are placed onto the pages before anything is painted, so the
+ * height of a box must not change after it has been created.
+ */
+public interface PdfBox {
+
+    float getHeight();
+
+    /**
+     * <b>Paints the box onto a page.</b><br>
+     * <br>
+     * @param context   The page to paint on.
+     * @param y         The y position of the upper border of the box.
+     */
+    void paint(PdfPaintContext context, float y) throws IOException;
+}
@@ -0,0 +1,123 @@
+package io.github.holleymcfly.pdf.layout;
+
+import io.github.holleymcfly.pdf.model.color.PdfColor;
+import io.github.holleymcfly.pdf.model.font.PdfFont;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+
+import java.io.IOException;
+
+/**
+ * <b>Writes to a content stream, leaving out operators that wouldn't change the graphics state.</b><br>
+ * <br>
+ * The state remembers the font, font size and fill color that have been set last. Setting them again to the same
+ * values doesn't write anything. Texts of the same font that are shown one after another, e.g. the words of a line,
+ * are shown as a single text.<br>
+ * <br>
+ * A new state doesn't know anything about the content stream, so the first font and color are always set. Operations
+ * that are written directly to the content stream must not change the font or fill color, unless the state is reset
+ * afterwards.
+ */
+public final class PdfGraphicsState {
+
+    private final PDPageContentStream contentStream;
+
+    // The font, font size and fill color of the content stream, or null if unknown.
+    private PDFont font;
+    private float fontSize;
+    private PdfColor fillColor;
+
+    // The text that hasn't been shown yet, and its fonts.
+    private final StringBuilder pendingText = new StringBuilder();
+    private PDFont pendingFont;
+    private PdfFont pendingStyle;
+
+    public PdfGraphicsState(PDPageContentStream contentStream) {
+        this.contentStream = contentStream;
+    }
+
+    /**
+     * <b>Returns the content stream, e.g. for drawing lines or images.</b><br>
+     * <br>
+     * It must not be used between <code>beginText()</code> and <code>endText()</code>.
+     */
+    public PDPageContentStream getContentStream() {
+        return contentStream;
+    }
+
+    /**
+     * <b>Forgets the state, e.g. after the font or color have been set directly at the content stream.</b>
+     */
+    public void reset() {
+        font = null;
+        fillColor = null;
+    }
+
+    public void setFont(PDFont font, float fontSize) throws IOException {
+
+        if (font == this.font && fontSize == this.fontSize) {
+            return;
+        }
+
+        contentStream.setFont(font, fontSize);
+        this.font = font;
+        this.fontSize = fontSize;
+    }
+
+    public void setNonStrokingColor(PdfColor color) throws IOException {
+
+        if (color.equals(fillColor)) {
+            return;
+        }
+
+        color.setNonStrokingToContentStream(contentStream);
+        this.fillColor = color;
+    }
+
+    public void beginText() throws IOException {
+        contentStream.beginText();
+    }
+
+    public void newLineAtOffset(float tx, float ty) throws IOException {
+        showPendingText();
+        contentStream.newLineAtOffset(tx, ty);
+    }
+
+    /**
+     * <b>Shows a text with the given font, size and color.</b><br>
+     * <br>
+     * The text is joined with the texts of the same font shown right before it, and shown together with them
+     * when the font changes, the line moves or the text ends.<br>
+     * <br>
+     * @param text      The text to be shown.
+     * @param font      The font, with the size and color of the text.
+     * @param pdFont    The pdfbox font of the font, for this content stream.
+     */
+    public void showText(String text, PdfFont font, PDFont pdFont) throws IOException {
+
+        if (pdFont != pendingFont || !font.equals(pendingStyle)) {
+            showPendingText();
+            pendingFont = pdFont;
+            pendingStyle = font;
+        }
+
+        pendingText.append(text);
+    }
+
+    public void endText() throws IOException {
+        showPendingText();
+        contentStream.endText();
+    }
+
+    private void showPendingText() throws IOException {
+
+        if (pendingText.length() == 0) {
+            return;
+        }
+
+        setFont(pendingFont, pendingStyle.getSize());
+        setNonStrokingColor(pendingStyle.getColor());
+        contentStream.showText(pendingText.toString());
+        pendingText.setLength(0);
+    }
+}
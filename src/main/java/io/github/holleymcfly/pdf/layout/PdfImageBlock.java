@@ -0,0 +1,74 @@
+package io.github.holleymcfly.pdf.layout;
+
+import io.github.holleymcfly.pdf.util.LineBreaker;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Iterator;
+
+/**
+ * <b>An image, printed at the left border of the page content.</b>
+ */
+public class PdfImageBlock implements PdfBlock {
+
+    private final String fullQualifiedFilename;
+
+    // The size of the image. Read from the file when the block is measured, if it isn't given.
+    private float width;
+    private float height;
+
+    /**
+     * <b>An image that is printed with one point per pixel.</b>
+     */
+    public PdfImageBlock(String fullQualifiedFilename) {
+        this(fullQualifiedFilename, -1, -1);
+    }
+
+    public PdfImageBlock(String fullQualifiedFilename, float width, float height) {
+        this.fullQualifiedFilename = fullQualifiedFilename;
+        this.width = width;
+        this.height = height;
+    }
+
+    @Override
+    public PdfMeasuredBlock measure(float contentWidth, LineBreaker lineBreaker) {
+
+        if (width < 0 || height < 0) {
+            readImageSize();
+        }
+
+        return new PdfMeasuredBlock(Collections.singletonList(new PdfImageBox(fullQualifiedFilename, width, height)));
+    }
+
+    /**
+     * <b>Reads the size of the image from the header of the file, without decoding the image itself.</b>
+     */
+    private void readImageSize() {
+
+        try (ImageInputStream inputStream = ImageIO.createImageInputStream(new File(fullQualifiedFilename))) {
+
+            Iterator<ImageReader> readers = inputStream != null ? ImageIO.getImageReaders(inputStream)
+                    : Collections.emptyIterator();
+            if (!readers.hasNext()) {
+                throw new IOException("Unsupported image format.");
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(inputStream);
+                width = reader.getWidth(0);
+                height = reader.getHeight(0);
+            }
+            finally {
+                reader.dispose();
+            }
+        }
+        catch (IOException e) {
+            throw new RuntimeException("Failed to read the size of the image " + fullQualifiedFilename + ".", e);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package io.github.holleymcfly.pdf.layout;
+
+import java.io.IOException;
+
+/**
+ * An image, drawn with the given size.
+ */
+class PdfImageBox implements PdfBox {
+
+    private final String fullQualifiedFilename;
+    private final float width;
+    private final float height;
+
+    PdfImageBox(String fullQualifiedFilename, float width, float height) {
+        this.fullQualifiedFilename = fullQualifiedFilename;
+        this.width = width;
+        this.height = height;
+    }
+
+    @Override
+    public float getHeight() {
+        return height;
+    }
+
+    @Override
+    public void paint(PdfPaintContext context, float y) throws IOException {
+        context.getGraphicsState().getContentStream().drawImage(context.getImage(fullQualifiedFilename, width, height),
+                context.getLeft(), y - height, width, height);
+    }
+}
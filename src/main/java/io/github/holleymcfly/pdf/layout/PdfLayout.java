@@ -0,0 +1,109 @@
+package io.github.holleymcfly.pdf.layout;
+
+import io.github.holleymcfly.pdf.model.font.PdfFont;
+import io.github.holleymcfly.pdf.model.table.PdfTable;
+import io.github.holleymcfly.pdf.util.LineBreaker;
+import io.github.holleymcfly.pdf.util.LruCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * <b>A tree of blocks (paragraphs, tables, images) that is laid out in two passes.</b><br>
+ * <br>
+ * The first pass measures the blocks into boxes and places them onto the pages. The second pass paints the pages.
+ * As everything is measured before anything is painted, page breaks can take the following content into account,
+ * e.g. for keeping a block together or avoiding single lines at the top or bottom of a page.<br>
+ * <br>
+ * The result of the first pass is cached per content width, so a layout that is printed into several documents or
+ * page formats is only measured once.
+ */
+public class PdfLayout {
+
+    // Few entries are enough, as a layout is usually printed in a few formats only.
+    private static final int MEASURE_CACHE_SIZE = 8;
+
+    private final List<PdfBlock> blocks = new ArrayList<>();
+    private final LruCache<MeasureKey, PdfMeasuredLayout> measureCache = new LruCache<>(MEASURE_CACHE_SIZE);
+
+    public synchronized PdfLayout add(PdfBlock block) {
+        blocks.add(block);
+        measureCache.clear();
+        return this;
+    }
+
+    public PdfLayout addText(String text, PdfFont font) {
+        return add(new PdfParagraphBuilder().withText(text, font).build());
+    }
+
+    public PdfLayout addTable(PdfTable table) {
+        return add(new PdfTableBlock(table));
+    }
+
+    public PdfLayout addImage(String fullQualifiedFilename) {
+        return add(new PdfImageBlock(fullQualifiedFilename));
+    }
+
+    /**
+     * <b>Measures all blocks of the layout, or returns the cached result of an earlier measurement.</b><br>
+     * <br>
+     * @param contentWidth  The width that is available for the content of a page.
+     * @param lineBreaker   The line breaker to use for texts.
+     * @return              The measured layout.
+     */
+    public synchronized PdfMeasuredLayout measure(float contentWidth, LineBreaker lineBreaker) {
+
+        MeasureKey key = new MeasureKey(contentWidth, lineBreaker);
+        PdfMeasuredLayout measured = measureCache.get(key);
+        if (measured != null) {
+            return measured;
+        }
+
+        List<PdfMeasuredBlock> measuredBlocks = new ArrayList<>(blocks.size());
+        for (PdfBlock block : blocks) {
+            measuredBlocks.add(block.measure(contentWidth, lineBreaker));
+        }
+
+        measured = new PdfMeasuredLayout(measuredBlocks);
+        measureCache.put(key, measured);
+        return measured;
+    }
+
+    /**
+     * <b>Returns the cache of measured layouts, e.g. for monitoring its hit rate.</b>
+     */
+    public LruCache<?, ?> getMeasureCache() {
+        return measureCache;
+    }
+
+    private static final class MeasureKey {
+
+        private final float contentWidth;
+        private final LineBreaker lineBreaker;
+
+        private MeasureKey(float contentWidth, LineBreaker lineBreaker) {
+            this.contentWidth = contentWidth;
+            this.lineBreaker = lineBreaker;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof MeasureKey)) {
+                return false;
+            }
+
+            MeasureKey other = (MeasureKey) o;
+            return Float.compare(contentWidth, other.contentWidth) == 0 && lineBreaker == other.lineBreaker;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(contentWidth, System.identityHashCode(lineBreaker));
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package io.github.holleymcfly.pdf.layout;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <b>A block split up into boxes, together with the rules for breaking it across pages.</b>
+ */
+public final class PdfMeasuredBlock {
+
+    private final List<PdfBox> boxes;
+    private final List<PdfBox> repeatedBoxes;
+    private final boolean keepTogether;
+    private final int orphans;
+    private final int widows;
+    private final float height;
+
+    public PdfMeasuredBlock(List<PdfBox> boxes) {
+        this(boxes, false, 1, 1);
+    }
+
+    /**
+     * @param boxes         The boxes of the block, from top to bottom.
+     * @param keepTogether  Whether the block shall be moved to the next page instead of being broken.
+     * @param orphans       The minimum number of boxes left at the bottom of a page when the block is broken.
+     * @param widows        The minimum number of boxes carried over to the next page when the block is broken.
+     */
+    public PdfMeasuredBlock(List<PdfBox> boxes, boolean keepTogether, int orphans, int widows) {
+        this(boxes, Collections.emptyList(), keepTogether, orphans, widows);
+    }
+
+    /**
+     * @param boxes         The boxes of the block, from top to bottom.
+     * @param repeatedBoxes The boxes painted again at the top of each page the block is continued on, e.g. the
+     *                      header rows of a table. They usually are among the boxes of the block, too.
+     * @param keepTogether  Whether the block shall be moved to the next page instead of being broken.
+     * @param orphans       The minimum number of boxes left at the bottom of a page when the block is broken.
+     * @param widows        The minimum number of boxes carried over to the next page when the block is broken.
+     */
+    public PdfMeasuredBlock(List<PdfBox> boxes, List<PdfBox> repeatedBoxes, boolean keepTogether, int orphans,
+                            int widows) {
+        this.boxes = Collections.unmodifiableList(new ArrayList<>(boxes));
+        this.repeatedBoxes = Collections.unmodifiableList(new ArrayList<>(repeatedBoxes));
+        this.keepTogether = keepTogether;
+        this.orphans = Math.max(1, orphans);
+        this.widows = Math.max(1, widows);
+
+        float h = 0;
+        for (PdfBox box : boxes) {
+            h += box.getHeight();
+        }
+        this.height = h;
+    }
+
+    public List<PdfBox> getBoxes() {
+        return boxes;
+    }
+
+    public List<PdfBox> getRepeatedBoxes() {
+        return repeatedBoxes;
+    }
+
+    public boolean isKeepTogether() {
+        return keepTogether;
+    }
+
+    public int getOrphans() {
+        return orphans;
+    }
+
+    public int getWidows() {
+        return widows;
+    }
+
+    public float getHeight() {
+        return height;
+    }
+}
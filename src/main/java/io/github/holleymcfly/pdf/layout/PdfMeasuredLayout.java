@@ -0,0 +1,129 @@
+package io.github.holleymcfly.pdf.layout;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <b>The result of measuring a layout: its blocks split up into boxes.</b><br>
+ * <br>
+ * A measured layout doesn't depend on the height of the pages, so it can be paginated several times, e.g. for
+ * different page formats with the same content width.
+ */
+public final class PdfMeasuredLayout {
+
+    private final List<PdfMeasuredBlock> blocks;
+
+    PdfMeasuredLayout(List<PdfMeasuredBlock> blocks) {
+        this.blocks = Collections.unmodifiableList(new ArrayList<>(blocks));
+    }
+
+    public List<PdfMeasuredBlock> getBlocks() {
+        return blocks;
+    }
+
+    public float getHeight() {
+
+        float height = 0;
+        for (PdfMeasuredBlock block : blocks) {
+            height += block.getHeight();
+        }
+        return height;
+    }
+
+    /**
+     * <b>Places the boxes onto pages.</b><br>
+     * <br>
+     * A block that has to be kept together is moved to the next page if it doesn't fit on the current one. When a
+     * block is broken across pages, at least as many boxes as its orphans are left on the first page and at least as
+     * many as its widows are carried over to the next one. Both rules are given up when a block doesn't even fit on
+     * an empty page. The repeated boxes of a block (e.g. the header rows of a table) are placed at the top of each
+     * page the block is continued on.<br>
+     * <br>
+     * @param firstPageTop  The y position where the content of the first page starts.
+     * @param pageTop       The y position where the content of any further page starts.
+     * @param pageBottom    The y position where the content of a page has to end.
+     * @return              The pages, at least one.
+     */
+    public List<PdfPageLayout> paginate(float firstPageTop, float pageTop, float pageBottom) {
+
+        List<PdfPageLayout> pages = new ArrayList<>();
+        PdfPageLayout page = new PdfPageLayout(firstPageTop);
+        boolean emptyPage = firstPageTop >= pageTop;
+
+        for (PdfMeasuredBlock block : blocks) {
+
+            if (block.isKeepTogether() && !emptyPage && page.getEndY() - block.getHeight() < pageBottom
+                    && pageTop - block.getHeight() >= pageBottom) {
+                pages.add(page);
+                page = new PdfPageLayout(pageTop);
+                emptyPage = true;
+            }
+
+            List<PdfBox> boxes = block.getBoxes();
+            int next = 0;
+            while (next < boxes.size()) {
+
+                int fitting = countFittingBoxes(boxes, next, page.getEndY(), pageBottom);
+                int placed = fitting;
+                if (fitting < boxes.size() - next) {
+                    placed = applyOrphansAndWidows(block, next, fitting);
+                    if (placed == 0 && emptyPage) {
+                        // The rules can't be met. Place as much as fits, but at least a single box.
+                        placed = Math.max(fitting, 1);
+                    }
+                }
+
+                for (int i=next; i<next+placed; i++) {
+                    page.add(boxes.get(i));
+                }
+                next += placed;
+                if (placed > 0) {
+                    emptyPage = false;
+                }
+
+                if (next < boxes.size()) {
+                    pages.add(page);
+                    page = new PdfPageLayout(pageTop);
+                    for (PdfBox box : block.getRepeatedBoxes()) {
+                        page.add(box);
+                    }
+                    emptyPage = true;
+                }
+            }
+        }
+
+        pages.add(page);
+        return pages;
+    }
+
+    private int countFittingBoxes(List<PdfBox> boxes, int first, float y, float pageBottom) {
+
+        int count = 0;
+        for (int i=first; i<boxes.size(); i++) {
+            y -= boxes.get(i).getHeight();
+            if (y < pageBottom) {
+                break;
+            }
+            count++;
+        }
+
+        return count;
+    }
+
+    /**
+     * <b>Returns how many of the fitting boxes may be placed on the current page.</b>
+     */
+    private int applyOrphansAndWidows(PdfMeasuredBlock block, int next, int fitting) {
+
+        int remaining = block.getBoxes().size() - next;
+        int placed = Math.min(fitting, remaining - block.getWidows());
+
+        // Orphans only matter on the page where the block starts.
+        if (next == 0 && placed < block.getOrphans()) {
+            return 0;
+        }
+
+        return Math.max(placed, 0);
+    }
+}
@@ -0,0 +1,70 @@
+package io.github.holleymcfly.pdf.layout;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <b>The boxes placed onto a single page.</b><br>
+ * <br>
+ * Painting a page only depends on its own boxes, so the pages of a layout can be painted independently of each
+ * other.
+ */
+public final class PdfPageLayout {
+
+    private final List<PdfBox> boxes = new ArrayList<>();
+    private final List<Float> positions = new ArrayList<>();
+
+    private final float startY;
+    private float endY;
+
+    PdfPageLayout(float startY) {
+        this.startY = startY;
+        this.endY = startY;
+    }
+
+    void add(PdfBox box) {
+        boxes.add(box);
+        positions.add(endY);
+        endY -= box.getHeight();
+    }
+
+    /**
+     * <b>Paints all boxes of the page.</b>
+     */
+    public void paint(PdfPaintContext context) throws IOException {
+        for (int i=0; i<boxes.size(); i++) {
+            boxes.get(i).paint(context, positions.get(i));
+        }
+    }
+
+    public List<PdfBox> getBoxes() {
+        return Collections.unmodifiableList(boxes);
+    }
+
+    /**
+     * <b>Returns the y position of the upper border of the box with the given index.</b>
+     */
+    public float getY(int box) {
+        return positions.get(box);
+    }
+
+    public boolean isEmpty() {
+        return boxes.isEmpty();
+    }
+
+    /**
+     * <b>Returns the y position where the first box of the page starts.</b>
+     */
+    public float getStartY() {
+        return startY;
+    }
+
+    /**
+     * <b>Returns the y position where the last box of the page ends.</b>
+     */
+    public float getEndY() {
+        return endY;
+    }
+}
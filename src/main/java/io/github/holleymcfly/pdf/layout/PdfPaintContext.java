@@ -0,0 +1,53 @@
+package io.github.holleymcfly.pdf.layout;
+
+import io.github.holleymcfly.pdf.model.font.PdfFont;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+
+import java.io.IOException;
+
+/**
+ * <b>The page a box is painted on.</b><br>
+ * <br>
+ * Each page gets its own context, so the pages of a layout can be painted at the same time.
+ */
+public interface PdfPaintContext {
+
+    /**
+     * <b>Returns the content stream of the page.</b><br>
+     * <br>
+     * Operations written to it may change the font or fill color, so the graphics state of the page is reset.
+     */
+    PDPageContentStream getContentStream();
+
+    /**
+     * <b>Returns the graphics state of the page, which leaves out operators that wouldn't change anything.</b>
+     */
+    default PdfGraphicsState getGraphicsState() {
+        return new PdfGraphicsState(getContentStream());
+    }
+
+    /**
+     * <b>Returns the resources the content stream refers to, e.g. for content that has been encoded in advance.</b>
+     */
+    PDResources getResources();
+
+    /**
+     * <b>Returns the x position of the left border of the page content, i.e. the left margin.</b>
+     */
+    float getLeft();
+
+    /**
+     * <b>Returns the pdfbox font of the given font that may be used on this page.</b>
+     */
+    PDFont getFont(PdfFont font);
+
+    /**
+     * <b>Returns the image of the given file, embedded into the document.</b><br>
+     * <br>
+     * The size the image is drawn with lets the document downsample images with a higher resolution than needed.
+     */
+    PDImageXObject getImage(String fullQualifiedFilename, float width, float height) throws IOException;
+}
@@ -0,0 +1,65 @@
+package io.github.holleymcfly.pdf.layout;
+
+import io.github.holleymcfly.pdf.model.PdfFormattedText;
+import io.github.holleymcfly.pdf.util.LineBreaker;
+import io.github.holleymcfly.pdf.util.TextHelper;
+import io.github.holleymcfly.pdf.util.TextSplitter;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * <b>A paragraph of text, wrapped into lines that fit into the content width of a page.</b><br>
+ * <br>
+ * A paragraph is created with the {@link PdfParagraphBuilder}.
+ */
+public class PdfParagraph implements PdfBlock {
+
+    private final LinkedList<PdfFormattedText> formattedText;
+    private final boolean centered;
+    private final boolean keepTogether;
+    private final int orphans;
+    private final int widows;
+
+    PdfParagraph(LinkedList<PdfFormattedText> formattedText, boolean centered, boolean keepTogether, int orphans,
+            int widows) {
+        this.formattedText = formattedText;
+        this.centered = centered;
+        this.keepTogether = keepTogether;
+        this.orphans = orphans;
+        this.widows = widows;
+    }
+
+    @Override
+    public PdfMeasuredBlock measure(float contentWidth, LineBreaker lineBreaker) {
+
+        List<PdfBox> boxes = new ArrayList<>();
+        for (LinkedList<PdfFormattedText> line : splitUpText(contentWidth, lineBreaker)) {
+            float x = centered ? (contentWidth - TextHelper.getTotalWidth(line)) / 2 : 0;
+            boxes.add(new PdfTextLineBox(line, x, TextHelper.getLineHeight(line)));
+        }
+
+        return new PdfMeasuredBlock(boxes, keepTogether, orphans, widows);
+    }
+
+    private List<LinkedList<PdfFormattedText>> splitUpText(float contentWidth, LineBreaker lineBreaker) {
+
+        if (formattedText.size() != 1) {
+            return new TextSplitter(formattedText, contentWidth, lineBreaker).splitUpTextWithWords();
+        }
+
+        // With a single font, each line is printed as a whole instead of word by word.
+        PdfFormattedText text = formattedText.getFirst();
+        String[] lines = new TextSplitter(text, contentWidth, lineBreaker).splitUpText();
+
+        List<LinkedList<PdfFormattedText>> result = new ArrayList<>(lines.length);
+        for (String line : lines) {
+            LinkedList<PdfFormattedText> words = new LinkedList<>();
+            words.add(new PdfFormattedText(line, text.getFont()));
+            result.add(words);
+        }
+
+        return result;
+    }
+}
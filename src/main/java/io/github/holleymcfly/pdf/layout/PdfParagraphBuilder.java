@@ -0,0 +1,69 @@
+package io.github.holleymcfly.pdf.layout;
+
+import io.github.holleymcfly.pdf.model.PdfFormattedText;
+import io.github.holleymcfly.pdf.model.font.PdfFont;
+
+import java.util.LinkedList;
+
+public class PdfParagraphBuilder {
+
+    private final LinkedList<PdfFormattedText> formattedText = new LinkedList<>();
+    private boolean centered = false;
+    private boolean keepTogether = false;
+    private int orphans = 2; // Set some suitable default.
+    private int widows = 2; // Set some suitable default.
+
+    public PdfParagraphBuilder withText(String text, PdfFont font) {
+        this.formattedText.add(new PdfFormattedText(text, font));
+        return this;
+    }
+
+    public PdfParagraphBuilder withFormattedText(LinkedList<PdfFormattedText> formattedText) {
+        this.formattedText.addAll(formattedText);
+        return this;
+    }
+
+    public PdfParagraphBuilder withCentered(boolean centered) {
+        this.centered = centered;
+        return this;
+    }
+
+    /**
+     * <b>Moves the whole paragraph to the next page if it doesn't fit on the current one.</b><br>
+     * <br>
+     * Paragraphs that don't even fit on an empty page are broken anyway.<br>
+     * <br>
+     * @param keepTogether  Whether the paragraph shall be kept on a single page.
+     * @return              The builder.
+     */
+    public PdfParagraphBuilder withKeepTogether(boolean keepTogether) {
+        this.keepTogether = keepTogether;
+        return this;
+    }
+
+    /**
+     * <b>Sets the minimum number of lines that are left at the bottom of a page when the paragraph is broken.</b><br>
+     * <br>
+     * @param orphans   The minimum number of lines. Defaults to 2.
+     * @return          The builder.
+     */
+    public PdfParagraphBuilder withOrphans(int orphans) {
+        this.orphans = orphans;
+        return this;
+    }
+
+    /**
+     * <b>Sets the minimum number of lines that are carried over to the next page when the paragraph is broken.</b><br>
+     * <br>
+     * @param widows    The minimum number of lines. Defaults to 2.
+     * @return          The builder.
+     */
+    public PdfParagraphBuilder withWidows(int widows) {
+        this.widows = widows;
+        return this;
+    }
+
+    public PdfParagraph build() {
+        return new PdfParagraph(new LinkedList<>(formattedText), centered, keepTogether, orphans, widows);
+    }
+}
@@ -0,0 +1,23 @@
+package io.github.holleymcfly.pdf.layout;
+
+/**
+ * Some vertical space without any content.
+ */
+class PdfSpaceBox implements PdfBox {
+
+    private final float height;
+
+    PdfSpaceBox(float height) {
+        this.height = height;
+    }
+
+    @Override
+    public float getHeight() {
+        return height;
+    }
+
+    @Override
+    public void paint(PdfPaintContext context, float y) {
+        // Nothing to paint.
+    }
+}
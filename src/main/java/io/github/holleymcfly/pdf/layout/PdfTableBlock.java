@@ -0,0 +1,63 @@
+package io.github.holleymcfly.pdf.layout;
+
+import io.github.holleymcfly.pdf.model.table.PdfTable;
+import io.github.holleymcfly.pdf.model.table.PdfTableCell;
+import io.github.holleymcfly.pdf.util.LineBreaker;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <b>A table, broken across pages between its rows.</b><br>
+ * <br>
+ * The table has to be fully configured, as it is initialized when it is measured. The header rows of the table are
+ * measured only once, too, and painted again at the top of each page the table is continued on.
+ */
+public class PdfTableBlock implements PdfBlock {
+
+    private final PdfTable table;
+    private final boolean keepTogether;
+
+    public PdfTableBlock(PdfTable table) {
+        this(table, false);
+    }
+
+    /**
+     * @param table         The fully configured table.
+     * @param keepTogether  Whether the whole table shall be moved to the next page if it doesn't fit on the current
+     *                      one.
+     */
+    public PdfTableBlock(PdfTable table, boolean keepTogether) {
+        this.table = table;
+        this.keepTogether = keepTogether;
+    }
+
+    @Override
+    public PdfMeasuredBlock measure(float contentWidth, LineBreaker lineBreaker) {
+
+        table.init();
+
+        List<PdfBox> boxes = new ArrayList<>();
+        List<PdfBox> headerRows = new ArrayList<>();
+        // Some space between the table and the content above.
+        boxes.add(new PdfSpaceBox(table.getFont().getSize()));
+
+        for (int i=0; i<table.getNumberOfRows(); i++) {
+
+            List<PdfTableCell> cells = table.getCellsForRow(i+1);
+            if (cells.isEmpty()) {
+                continue;
+            }
+
+            PdfTableRowBox row = new PdfTableRowBox(table, cells, table.getRowHeight(i+1));
+            boxes.add(row);
+            if (i < table.getNumberOfHeaderRows()) {
+                headerRows.add(row);
+            }
+        }
+
+        // The header rows aren't left at the bottom of a page without a row below them.
+        int orphans = headerRows.isEmpty() ? 1 : headerRows.size() + 2;
+        return new PdfMeasuredBlock(boxes, headerRows, keepTogether, orphans, 1);
+    }
+}
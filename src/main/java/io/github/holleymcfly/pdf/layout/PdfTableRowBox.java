@@ -0,0 +1,198 @@
+package io.github.holleymcfly.pdf.layout;
+
+import io.github.holleymcfly.pdf.model.font.PdfFont;
+import io.github.holleymcfly.pdf.model.table.PdfTable;
+import io.github.holleymcfly.pdf.model.table.PdfTableCell;
+import io.github.holleymcfly.pdf.util.TextHelper;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * <b>A single row of a table, including its borders, backgrounds and texts.</b><br>
+ * <br>
+ * A row that doesn't fit onto a page can be split between the lines of its cells. Each part shows a range of the
+ * lines the cells have been split up into when the table was initialized, so splitting a row never measures any text.
+ */
+public class PdfTableRowBox implements PdfBox {
+
+    private final PdfTable table;
+    private final List<PdfTableCell> cells;
+    private final float height;
+
+    // The range of lines of each cell shown by this row, in the order of the cells. Null if all lines are shown.
+    private final int[] firstLines;
+    private final int[] endLines;
+
+    /**
+     * @param table     The table the row belongs to.
+     * @param cells     The initialized cells of the row, ordered by the column index.
+     * @param height    The height of the row.
+     */
+    public PdfTableRowBox(PdfTable table, List<PdfTableCell> cells, float height) {
+        this.table = table;
+        this.cells = cells;
+        this.height = height;
+        this.firstLines = null;
+        this.endLines = null;
+    }
+
+    private PdfTableRowBox(PdfTable table, List<PdfTableCell> cells, int[] firstLines, int[] endLines) {
+        this.table = table;
+        this.cells = cells;
+        this.firstLines = firstLines;
+        this.endLines = endLines;
+        this.height = calculateHeight();
+    }
+
+    private float calculateHeight() {
+
+        float maxHeight = 0;
+        for (int i=0; i<cells.size(); i++) {
+            PdfTableCell cell = cells.get(i);
+            float linesHeight = (endLines[i] - firstLines[i]) * TextHelper.getLineHeight(cell.getFont());
+            float cellHeight = cell.getMarginTop() + linesHeight + cell.getMarginBottom();
+            if (cellHeight > maxHeight) {
+                maxHeight = cellHeight;
+            }
+        }
+
+        return maxHeight;
+    }
+
+    /**
+     * <b>Splits the row, so that the first part fits into the given height.</b><br>
+     * <br>
+     * Each cell keeps as many of its lines in the first part as fit into the height, the other lines are moved to the
+     * second part. The cells of both parts keep their backgrounds and borders.<br>
+     * <br>
+     * @param availableHeight   The height available for the first part, e.g. the space left on the page.
+     * @return                  The first and the second part of the row. Null if not a single line fits into the
+     *                          height. The second part is null if the whole row fits.
+     */
+    public PdfTableRowBox[] split(float availableHeight) {
+
+        int[] splitLines = new int[cells.size()];
+        boolean progress = false;
+        boolean remainder = false;
+
+        for (int i=0; i<cells.size(); i++) {
+
+            PdfTableCell cell = cells.get(i);
+            int firstLine = getFirstLine(i);
+            int endLine = getEndLine(i);
+
+            float linesHeight = availableHeight - cell.getMarginTop() - cell.getMarginBottom();
+            int fittingLines = Math.max(0, (int) (linesHeight / TextHelper.getLineHeight(cell.getFont())));
+
+            splitLines[i] = Math.min(endLine, firstLine + fittingLines);
+            progress |= splitLines[i] > firstLine;
+            remainder |= splitLines[i] < endLine;
+        }
+
+        if (!progress) {
+            return null;
+        }
+
+        int[] firstLinesOfCells = new int[cells.size()];
+        int[] endLinesOfCells = new int[cells.size()];
+        for (int i=0; i<cells.size(); i++) {
+            firstLinesOfCells[i] = getFirstLine(i);
+            endLinesOfCells[i] = getEndLine(i);
+        }
+
+        PdfTableRowBox first = new PdfTableRowBox(table, cells, firstLinesOfCells, splitLines);
+        PdfTableRowBox second = remainder ? new PdfTableRowBox(table, cells, splitLines, endLinesOfCells) : null;
+        return new PdfTableRowBox[] { first, second };
+    }
+
+    private int getFirstLine(int cell) {
+        return firstLines != null ? firstLines[cell] : 0;
+    }
+
+    private int getEndLine(int cell) {
+        return endLines != null ? endLines[cell] : cells.get(cell).getNumberOfLines();
+    }
+
+    @Override
+    public float getHeight() {
+        return height;
+    }
+
+    @Override
+    public void paint(PdfPaintContext context, float y) throws IOException {
+
+        PdfGraphicsState graphicsState = context.getGraphicsState();
+        float tableStartX = context.getLeft();
+        float rowWidth = tableStartX + table.getTableWidth();
+
+        drawLines(graphicsState.getContentStream(), tableStartX, rowWidth, y);
+        fillBackgrounds(graphicsState, tableStartX, y);
+        fillTexts(context, tableStartX, y);
+    }
+
+    private void drawLines(PDPageContentStream contentStream, float tableStartX, float rowWidth, float y)
+            throws IOException {
+
+        line(contentStream, tableStartX, y, rowWidth, y);
+        line(contentStream, tableStartX, y, tableStartX, y - height);
+        line(contentStream, rowWidth, y, rowWidth, y - height);
+        line(contentStream, tableStartX, y - height, rowWidth, y - height);
+
+        for (PdfTableCell cell : cells) {
+            float x = table.getXofTableCell(cell, tableStartX);
+            line(contentStream, x, y, x, y - height);
+        }
+    }
+
+    private void line(PDPageContentStream contentStream, float fromX, float fromY, float toX, float toY)
+            throws IOException {
+
+        contentStream.moveTo(fromX, fromY);
+        contentStream.lineTo(toX, toY);
+        contentStream.stroke();
+    }
+
+    private void fillBackgrounds(PdfGraphicsState graphicsState, float tableStartX, float y) throws IOException {
+
+        PDPageContentStream contentStream = graphicsState.getContentStream();
+        for (PdfTableCell cell : cells) {
+            if (cell.getBackgroundColor() == null) {
+                continue;
+            }
+
+            float borderWidth = 1;
+            float xStart = table.getXofTableCell(cell, tableStartX + borderWidth/2);
+            float yStart = y - height;
+            float width = cell.getWidth() - borderWidth;
+            float cellHeight = height - borderWidth/2;
+
+            graphicsState.setNonStrokingColor(cell.getBackgroundColor());
+            contentStream.addRect(xStart, yStart, width, cellHeight);
+            contentStream.fill();
+        }
+    }
+
+    private void fillTexts(PdfPaintContext context, float tableStartX, float y) throws IOException {
+
+        PdfGraphicsState graphicsState = context.getGraphicsState();
+        for (int i=0; i<cells.size(); i++) {
+
+            PdfTableCell cell = cells.get(i);
+            PdfFont font = cell.getFont();
+            float x = table.getXofTableCell(cell, cell.getMarginLeft()) + tableStartX;
+            float textHeight = TextHelper.getLineHeight(font);
+
+            float textY = y;
+            for (int line=getFirstLine(i); line<getEndLine(i); line++) {
+                textY -= textHeight;
+
+                graphicsState.beginText();
+                graphicsState.newLineAtOffset(x, textY);
+                graphicsState.showText(cell.getLine(line), font, context.getFont(font));
+                graphicsState.endText();
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package io.github.holleymcfly.pdf.layout;
+
+import io.github.holleymcfly.pdf.model.PdfFormattedText;
+import io.github.holleymcfly.pdf.model.font.PdfFont;
+
+import java.io.IOException;
+import java.util.LinkedList;
+
+/**
+ * A single line of text, consisting of words that may have different fonts.
+ */
+class PdfTextLineBox implements PdfBox {
+
+    private final LinkedList<PdfFormattedText> words;
+    private final float x;
+    private final float height;
+
+    /**
+     * @param words     The words of the line.
+     * @param x         The x position of the line, relative to the left border of the page content.
+     * @param height    The height of the line.
+     */
+    PdfTextLineBox(LinkedList<PdfFormattedText> words, float x, float height) {
+        this.words = words;
+        this.x = x;
+        this.height = height;
+    }
+
+    @Override
+    public float getHeight() {
+        return height;
+    }
+
+    @Override
+    public void paint(PdfPaintContext context, float y) throws IOException {
+
+        PdfGraphicsState graphicsState = context.getGraphicsState();
+        graphicsState.beginText();
+        graphicsState.newLineAtOffset(context.getLeft() + x, y - height);
+
+        for (PdfFormattedText word : words) {
+            PdfFont font = word.getFont();
+            graphicsState.showText(word.getText(), font, context.getFont(font));
+        }
+
+        graphicsState.endText();
+    }
+}
@@ -0,0 +1,22 @@
+package io.github.holleymcfly.pdf.metrics;
+
+/**
+ * <b>The amounts that are counted while a document is created.</b>
+ */
+public enum PdfCounter {
+
+    /**
+     * A page has been added to the document.
+     */
+    PAGES,
+
+    /**
+     * An image has been embedded into the document. Images that are drawn again aren't counted.
+     */
+    IMAGES_EMBEDDED,
+
+    /**
+     * The number of bytes of a saved document.
+     */
+    BYTES_WRITTEN
+}
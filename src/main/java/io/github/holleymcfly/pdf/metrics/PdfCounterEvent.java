@@ -0,0 +1,25 @@
+package io.github.holleymcfly.pdf.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * An amount counted while creating a document, as a JFR event.
+ */
+@Name("io.github.holleymcfly.pdf.Counter")
+@Label("PDF Counter")
+@Category("pdf-creator")
+@Description("An amount counted while creating a PDF document, e.g. pages or bytes written")
+@StackTrace(false)
+class PdfCounterEvent extends Event {
+
+    @Label("Counter")
+    String counter;
+
+    @Label("Amount")
+    long amount;
+}
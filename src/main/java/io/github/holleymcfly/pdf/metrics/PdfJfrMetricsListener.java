@@ -0,0 +1,37 @@
+package io.github.holleymcfly.pdf.metrics;
+
+/**
+ * <b>Records the timings and counters of creating documents as Java Flight Recorder events.</b><br>
+ * <br>
+ * Each completed phase is recorded as an <code>io.github.holleymcfly.pdf.Phase</code> event, and each count as an
+ * <code>io.github.holleymcfly.pdf.Counter</code> event. The events are only created if they are enabled in the
+ * running recording, so the listener costs next to nothing while nothing is recorded.
+ */
+public class PdfJfrMetricsListener implements PdfMetricsListener {
+
+    @Override
+    public void phaseCompleted(PdfPhase phase, long durationNanos) {
+
+        PdfPhaseEvent event = new PdfPhaseEvent();
+        if (!event.isEnabled()) {
+            return;
+        }
+
+        event.phase = phase.name();
+        event.phaseDuration = durationNanos;
+        event.commit();
+    }
+
+    @Override
+    public void counted(PdfCounter counter, long amount) {
+
+        PdfCounterEvent event = new PdfCounterEvent();
+        if (!event.isEnabled()) {
+            return;
+        }
+
+        event.counter = counter.name();
+        event.amount = amount;
+        event.commit();
+    }
+}
@@ -0,0 +1,36 @@
+package io.github.holleymcfly.pdf.metrics;
+
+/**
+ * <b>Receives timings and counters of creating documents, e.g. for exporting them to a monitoring system.</b><br>
+ * <br>
+ * A listener is registered at the <code>PdfCreatorBuilder</code>. It may be shared by many documents, and it may be
+ * called from several threads at the same time, e.g. when pages are painted in parallel, so it must be thread-safe.
+ * The calls are made on the thread doing the work, so they should return quickly.<br>
+ * <br>
+ * Without a listener, {@link #NONE} is used, and nothing is timed at all.
+ */
+public interface PdfMetricsListener {
+
+    /**
+     * The listener used by default, ignoring everything.
+     */
+    PdfMetricsListener NONE = new PdfMetricsListener() {};
+
+    /**
+     * <b>Called when a phase has been completed.</b><br>
+     * <br>
+     * @param phase             The phase.
+     * @param durationNanos     How long the phase took, in nanoseconds.
+     */
+    default void phaseCompleted(PdfPhase phase, long durationNanos) {
+    }
+
+    /**
+     * <b>Called when something has been counted.</b><br>
+     * <br>
+     * @param counter   What has been counted.
+     * @param amount    The amount to add to the counter.
+     */
+    default void counted(PdfCounter counter, long amount) {
+    }
+}
@@ -0,0 +1,45 @@
+package io.github.holleymcfly.pdf.metrics;
+
+/**
+ * <b>The phases of creating a document that are timed.</b><br>
+ * <br>
+ * Phases may be nested, e.g. breaking a text into lines is part of measuring it, and starting a new page writes the
+ * content of the previous one.
+ */
+public enum PdfPhase {
+
+    /**
+     * Measuring texts and splitting them into lines, including the measuring pass of layouts.
+     */
+    TEXT_MEASUREMENT,
+
+    /**
+     * Deciding where the lines of a text are broken, including measuring its words if the breaks aren't cached.
+     */
+    LINE_BREAKING,
+
+    /**
+     * Initializing a table or a row of a streamed table, i.e. sizing its columns and splitting its cells into lines.
+     */
+    TABLE_INIT,
+
+    /**
+     * Adding a page to the document and decorating it with the header and footer.
+     */
+    PAGE_CREATION,
+
+    /**
+     * Compressing the drawing operations of pages and writing them into their content streams.
+     */
+    CONTENT_STREAM_WRITE,
+
+    /**
+     * Looking up an image and embedding it into the document, if it hasn't been embedded yet.
+     */
+    IMAGE_EMBEDDING,
+
+    /**
+     * Saving the document, including writing the buffered pages.
+     */
+    SAVE
+}
@@ -0,0 +1,28 @@
+package io.github.holleymcfly.pdf.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A completed phase of creating a document, as a JFR event.
+ */
+@Name("io.github.holleymcfly.pdf.Phase")
+@Label("PDF Phase")
+@Category("pdf-creator")
+@Description("A completed phase of creating a PDF document")
+@StackTrace(false)
+class PdfPhaseEvent extends Event {
+
+    @Label("Phase")
+    String phase;
+
+    // The phase has already been completed when the event is created, so its duration is a field of its own.
+    @Label("Phase Duration")
+    @Timespan(Timespan.NANOSECONDS)
+    long phaseDuration;
+}
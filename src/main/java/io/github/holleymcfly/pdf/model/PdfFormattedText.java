@@ -2,10 +2,14 @@ package io.github.holleymcfly.pdf.model;
 
 import io.github.holleymcfly.pdf.model.font.PdfFont;
 
+import java.util.Objects;
+
 /**
- * Encapsulates a text with a font assigned to it.
+ * Encapsulates a text with a font assigned to it.<br>
+ * <br>
+ * Formatted texts are immutable and equal if their texts and fonts are equal.
  */
-public class PdfFormattedText {
+public final class PdfFormattedText {
 
     private final String text;
     private final PdfFont font;
@@ -22,4 +26,23 @@ public class PdfFormattedText {
     public PdfFont getFont() {
         return font;
     }
+
+    @Override
+    public boolean equals(Object o) {
+
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PdfFormattedText)) {
+            return false;
+        }
+
+        PdfFormattedText other = (PdfFormattedText) o;
+        return Objects.equals(text, other.text) && Objects.equals(font, other.font);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(text, font);
+    }
 }
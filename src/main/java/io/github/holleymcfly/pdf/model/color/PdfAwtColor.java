@@ -1,20 +1,39 @@
 package io.github.holleymcfly.pdf.model.color;
 
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.graphics.color.PDColor;
+import org.apache.pdfbox.pdmodel.graphics.color.PDDeviceRGB;
 
 import java.awt.*;
 import java.io.IOException;
 
-public class PdfAwtColor implements PdfColor {
+public final class PdfAwtColor implements PdfColor {
 
     private final Color color;
 
     PdfAwtColor(Color color) {
-        this.color = color;
+        // A copy, as subclasses like SystemColor may change their value.
+        this.color = new Color(color.getRGB(), true);
     }
 
     @Override
     public void setNonStrokingToContentStream(PDPageContentStream contentStream) throws IOException {
         contentStream.setNonStrokingColor(color);
     }
+
+    @Override
+    public PDColor toPDColor() {
+        float[] components = new float[] { color.getRed() / 255f, color.getGreen() / 255f, color.getBlue() / 255f };
+        return new PDColor(components, PDDeviceRGB.INSTANCE);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof PdfAwtColor && color.getRGB() == ((PdfAwtColor) o).color.getRGB();
+    }
+
+    @Override
+    public int hashCode() {
+        return color.getRGB();
+    }
 }
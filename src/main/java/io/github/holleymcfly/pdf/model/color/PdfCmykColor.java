@@ -1,10 +1,13 @@
 package io.github.holleymcfly.pdf.model.color;
 
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.graphics.color.PDColor;
+import org.apache.pdfbox.pdmodel.graphics.color.PDDeviceCMYK;
 
 import java.io.IOException;
+import java.util.Objects;
 
-public class PdfCmykColor implements PdfColor {
+public final class PdfCmykColor implements PdfColor {
 
     private final float c;
     private final float m;
@@ -22,4 +25,26 @@ public class PdfCmykColor implements PdfColor {
     public void setNonStrokingToContentStream(PDPageContentStream contentStream) throws IOException {
         contentStream.setNonStrokingColor(c, m, y, k);
     }
+
+    @Override
+    public PDColor toPDColor() {
+        return new PDColor(new float[] { c, m, y, k }, PDDeviceCMYK.INSTANCE);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+
+        if (!(o instanceof PdfCmykColor)) {
+            return false;
+        }
+
+        PdfCmykColor other = (PdfCmykColor) o;
+        return Float.compare(c, other.c) == 0 && Float.compare(m, other.m) == 0
+                && Float.compare(y, other.y) == 0 && Float.compare(k, other.k) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(c, m, y, k);
+    }
 }
@@ -1,10 +1,22 @@
 package io.github.holleymcfly.pdf.model.color;
 
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.graphics.color.PDColor;
 
 import java.io.IOException;
 
+/**
+ * <b>An immutable color.</b><br>
+ * <br>
+ * Colors are equal if they have the same type and components. The colors created by <code>PdfColorBuilder</code>
+ * are interned and can be shared by all threads.
+ */
 public interface PdfColor {
 
     void setNonStrokingToContentStream(PDPageContentStream contentStream) throws IOException;
+
+    /**
+     * <b>Returns the color as pdfbox color, e.g. for content streams other than page content streams.</b>
+     */
+    PDColor toPDColor();
 }
@@ -1,18 +1,26 @@
 package io.github.holleymcfly.pdf.model.color;
 
+import io.github.holleymcfly.pdf.util.WeakInterner;
+
 import java.awt.*;
 
 public class PdfColorBuilder {
 
+    private static final WeakInterner<PdfColor> COLORS = new WeakInterner<>();
+
     public static PdfColor createPdfColor(Color color) {
-        return new PdfAwtColor(color);
+        return intern(new PdfAwtColor(color));
     }
 
     public static PdfColor createPdfColor(int r, int g, int b) {
-        return new PdfRgbColor(r, g, b);
+        return intern(new PdfRgbColor(r, g, b));
     }
 
     public static PdfColor createPdfColor(float c, float m, float y, float k) {
-        return new PdfCmykColor(c, m, y, k);
+        return intern(new PdfCmykColor(c, m, y, k));
+    }
+
+    private static PdfColor intern(PdfColor color) {
+        return COLORS.intern(color);
     }
 }
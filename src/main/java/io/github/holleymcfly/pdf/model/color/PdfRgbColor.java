@@ -1,10 +1,13 @@
 package io.github.holleymcfly.pdf.model.color;
 
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.graphics.color.PDColor;
+import org.apache.pdfbox.pdmodel.graphics.color.PDDeviceRGB;
 
 import java.io.IOException;
+import java.util.Objects;
 
-public class PdfRgbColor implements PdfColor {
+public final class PdfRgbColor implements PdfColor {
 
     private final float r;
     private final float g;
@@ -20,4 +23,25 @@ public class PdfRgbColor implements PdfColor {
     public void setNonStrokingToContentStream(PDPageContentStream contentStream) throws IOException {
         contentStream.setNonStrokingColor(r, g, b);
     }
+
+    @Override
+    public PDColor toPDColor() {
+        return new PDColor(new float[] { r, g, b }, PDDeviceRGB.INSTANCE);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+
+        if (!(o instanceof PdfRgbColor)) {
+            return false;
+        }
+
+        PdfRgbColor other = (PdfRgbColor) o;
+        return Float.compare(r, other.r) == 0 && Float.compare(g, other.g) == 0 && Float.compare(b, other.b) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(r, g, b);
+    }
 }
@@ -1,30 +1,63 @@
 package io.github.holleymcfly.pdf.model.font;
 
 import io.github.holleymcfly.pdf.model.color.PdfColor;
+import io.github.holleymcfly.pdf.util.WeakInterner;
 import org.apache.pdfbox.pdmodel.font.PDType1Font;
 import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
 
-public class PdfFont {
+import java.util.Objects;
 
-    private Standard14Fonts.FontName font;
-    private int size;
+/**
+ * <b>An immutable font: the font type or file, its size and its color.</b><br>
+ * <br>
+ * Fonts are interned, so building a font with the same parameters again returns the same instance as long as that
+ * font is still in use. Fonts that aren't used anymore are garbage collected. They can be kept as constants, shared
+ * by all threads and used as keys of caches. Each document draws with pdfbox fonts of its own.
+ */
+public final class PdfFont {
 
-    private PdfColor color;
+    private static final WeakInterner<PdfFont> FONTS = new WeakInterner<>();
 
-    void setFont(Standard14Fonts.FontName font) {
-        this.font = font;
-    }
+    // The shared metrics of the standard 14 font or the font file.
+    private final PdfFontMetrics metrics;
+    private final int size;
+
+    private final PdfColor color;
 
-    void setSize(int size) {
+    private PdfFont(PdfFontMetrics metrics, int size, PdfColor color) {
+        this.metrics = metrics;
         this.size = size;
+        this.color = color;
     }
 
-    void setColor(PdfColor color) {
-        this.color = color;
+    /**
+     * <b>Returns the one font with the given metrics, size and color.</b>
+     */
+    static PdfFont of(PdfFontMetrics metrics, int size, PdfColor color) {
+        return FONTS.intern(new PdfFont(Objects.requireNonNull(metrics), size, Objects.requireNonNull(color)));
     }
 
+    /**
+     * <b>Returns the standard 14 font, or null if the font is loaded from a file.</b>
+     */
+    public Standard14Fonts.FontName getFontName() {
+        return metrics.getFontName();
+    }
+
+    /**
+     * <b>Returns a new pdfbox font of a standard 14 font, or null if the font is loaded from a file.</b><br>
+     * <br>
+     * pdfbox fonts aren't thread-safe, so each call returns an instance of its own.
+     */
     public PDType1Font getFont() {
-        return new PDType1Font(font);
+        return metrics.isEmbedded() ? null : new PDType1Font(metrics.getFontName());
+    }
+
+    /**
+     * <b>Returns the glyph metrics of the font, shared by all fonts of the same type or file.</b>
+     */
+    public PdfFontMetrics getMetrics() {
+        return metrics;
     }
 
     public int getSize() {
@@ -34,4 +67,29 @@ public class PdfFont {
     public PdfColor getColor() {
         return color;
     }
+
+    @Override
+    public boolean equals(Object o) {
+
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PdfFont)) {
+            return false;
+        }
+
+        // There is one instance of the metrics per standard 14 font or font file.
+        PdfFont other = (PdfFont) o;
+        return metrics == other.metrics && size == other.size && color.equals(other.color);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(metrics, size, color);
+    }
+
+    @Override
+    public String toString() {
+        return metrics.getName() + " " + size;
+    }
 }
@@ -5,11 +5,14 @@ import io.github.holleymcfly.pdf.model.color.PdfColorBuilder;
 import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
 
 import java.awt.*;
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.Objects;
 
 public class PdfFontBuilder {
 
     private Standard14Fonts.FontName font;
+    private String fontFile;
     private int size = -1;
 
     private PdfColor color;
@@ -19,6 +22,19 @@ public class PdfFontBuilder {
         return this;
     }
 
+    /**
+     * <b>Uses a TrueType or OpenType font file instead of a standard 14 font.</b><br>
+     * <br>
+     * Unlike the standard 14 fonts, such a font can show any character it contains, e.g. non-latin characters.
+     * The file is parsed only once, and every document embeds just the glyphs it uses.<br>
+     * <br>
+     * @param fullQualifiedFilename The path of the <code>.ttf</code> or <code>.otf</code> file.
+     */
+    public PdfFontBuilder withFontFile(String fullQualifiedFilename) {
+        this.fontFile = fullQualifiedFilename;
+        return this;
+    }
+
     public PdfFontBuilder withSize(int size) {
         this.size = size;
         return this;
@@ -29,19 +45,29 @@ public class PdfFontBuilder {
         return this;
     }
 
+    /**
+     * <b>Returns the font with the given parameters.</b><br>
+     * <br>
+     * Fonts are interned, so the same parameters return the same font.
+     */
     public PdfFont build() {
-        PdfFont pdfFont = new PdfFont();
-        pdfFont.setFont(Objects.requireNonNullElse(font, Standard14Fonts.FontName.TIMES_ROMAN));
 
-        if (size != -1) {
-            pdfFont.setSize(size);
+        PdfFontMetrics metrics = fontFile != null
+                ? loadFontFile()
+                : PdfFontMetrics.of(Objects.requireNonNullElse(font, Standard14Fonts.FontName.TIMES_ROMAN));
+
+        return PdfFont.of(metrics, size != -1 ? size : 12,
+                Objects.requireNonNullElseGet(color, () -> PdfColorBuilder.createPdfColor(Color.BLACK)));
+    }
+
+    private PdfFontMetrics loadFontFile() {
+
+        try {
+            return PdfFontMetrics.of(Paths.get(fontFile));
         }
-        else {
-            pdfFont.setSize(12);
+        catch (IOException e) {
+            throw new RuntimeException("Could not load the font " + fontFile, e);
         }
-
-        pdfFont.setColor(Objects.requireNonNullElseGet(color, () -> PdfColorBuilder.createPdfColor(Color.BLACK)));
-        return pdfFont;
     }
 
 }
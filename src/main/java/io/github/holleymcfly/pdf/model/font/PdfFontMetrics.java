@@ -0,0 +1,370 @@
+package io.github.holleymcfly.pdf.model.font;
+
+import org.apache.fontbox.ttf.CmapLookup;
+import org.apache.fontbox.ttf.HeaderTable;
+import org.apache.fontbox.ttf.OTFParser;
+import org.apache.fontbox.ttf.OpenTypeFont;
+import org.apache.fontbox.ttf.TTFParser;
+import org.apache.fontbox.ttf.TrueTypeFont;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <b>Immutable glyph metrics of a standard 14 font or a TrueType/OpenType font file.</b><br>
+ * <br>
+ * The metrics are read once per font and JVM and shared by every <code>PdfFont</code> using that font.
+ * They hold the pdfbox font (or the parsed font file) itself, the advance widths of all characters the font can
+ * encode and the height of the font's bounding box, so measuring text doesn't need any AFM or font table lookups
+ * anymore.<br>
+ * <br>
+ * A font file is parsed once and shared by all documents, which embed only the glyphs they use. The parsed font is
+ * thread-safe, as fontbox synchronizes reading its tables and glyphs.
+ */
+public final class PdfFontMetrics {
+
+    // Keyed by the standard 14 font name or the normalized path of the font file.
+    private static final Map<Object, PdfFontMetrics> METRICS = new ConcurrentHashMap<>();
+
+    // Characters below this value are looked up directly in an array, all others by a binary search.
+    private static final int DIRECT_RANGE = 256;
+
+    // The standard 14 font and its pdfbox font, or null if the font is loaded from a file.
+    private final Standard14Fonts.FontName fontName;
+    private final PDType1Font font;
+
+    // The parsed font file and its unicode mapping, or null for standard 14 fonts.
+    private final TrueTypeFont trueTypeFont;
+    private final CmapLookup cmap;
+    // Converts font units of the font file into glyph space units.
+    private final float unitsToGlyphSpace;
+
+    private final String name;
+
+    // The height of the font's bounding box, in glyph space units (1/1000 of the font size).
+    private final float boundingBoxHeight;
+
+    // The advance widths in glyph space units, indexed by the character. NaN if the font can't encode it.
+    private final float[] directWidths = new float[DIRECT_RANGE];
+
+    // The characters beyond the direct range that the font can encode (sorted) and their advance widths.
+    private final char[] extendedChars;
+    private final float[] extendedWidths;
+
+    private PdfFontMetrics(Standard14Fonts.FontName fontName) {
+
+        this.fontName = fontName;
+        this.font = new PDType1Font(fontName);
+        this.trueTypeFont = null;
+        this.cmap = null;
+        this.unitsToGlyphSpace = 1;
+        this.name = fontName.getName();
+        this.boundingBoxHeight = font.getFontDescriptor().getFontBoundingBox().getHeight();
+
+        Arrays.fill(directWidths, Float.NaN);
+        TreeMap<Character, Float> extended = new TreeMap<>();
+
+        for (int code=0; code<DIRECT_RANGE; code++) {
+            if (!font.getEncoding().contains(code)) {
+                continue;
+            }
+
+            String unicode = font.toUnicode(code);
+            if (unicode == null || unicode.length() != 1) {
+                continue;
+            }
+
+            char c = unicode.charAt(0);
+            float width = measureCharacter(c);
+            if (!Float.isNaN(width)) {
+                addWidth(c, width, extended);
+            }
+        }
+
+        extendedChars = new char[extended.size()];
+        extendedWidths = new float[extended.size()];
+        fillExtendedWidths(extended);
+    }
+
+    private PdfFontMetrics(TrueTypeFont trueTypeFont) throws IOException {
+
+        this.fontName = null;
+        this.font = null;
+        this.trueTypeFont = trueTypeFont;
+        this.cmap = trueTypeFont.getUnicodeCmapLookup();
+        this.name = trueTypeFont.getName();
+
+        HeaderTable header = trueTypeFont.getHeader();
+        this.unitsToGlyphSpace = 1000f / header.getUnitsPerEm();
+        this.boundingBoxHeight = (header.getYMax() - header.getYMin()) * unitsToGlyphSpace;
+
+        Arrays.fill(directWidths, Float.NaN);
+        TreeMap<Character, Float> extended = new TreeMap<>();
+
+        // Glyph 0 is the .notdef glyph, shown for characters the font doesn't contain.
+        for (int gid=1; gid<trueTypeFont.getNumberOfGlyphs(); gid++) {
+
+            List<Integer> codes = cmap.getCharCodes(gid);
+            if (codes == null) {
+                continue;
+            }
+
+            float width = getGlyphWidth(gid);
+            for (int code : codes) {
+                // Characters outside the basic multilingual plane are measured by their code points.
+                if (code <= Character.MAX_VALUE && !Character.isSurrogate((char) code)) {
+                    addWidth((char) code, width, extended);
+                }
+            }
+        }
+
+        extendedChars = new char[extended.size()];
+        extendedWidths = new float[extended.size()];
+        fillExtendedWidths(extended);
+    }
+
+    private void addWidth(char c, float width, TreeMap<Character, Float> extended) {
+
+        if (c < DIRECT_RANGE) {
+            directWidths[c] = width;
+        }
+        else {
+            extended.put(c, width);
+        }
+    }
+
+    private void fillExtendedWidths(TreeMap<Character, Float> extended) {
+
+        int i = 0;
+        for (Map.Entry<Character, Float> entry : extended.entrySet()) {
+            extendedChars[i] = entry.getKey();
+            extendedWidths[i] = entry.getValue();
+            i++;
+        }
+    }
+
+    private float measureCharacter(char c) {
+
+        try {
+            return font.getStringWidth(String.valueOf(c));
+        }
+        catch (IOException | IllegalArgumentException e) {
+            // The font can't encode the character.
+            return Float.NaN;
+        }
+    }
+
+    /**
+     * <b>Returns the shared metrics of the given font.</b><br>
+     * <br>
+     * @param fontName  The standard 14 font.
+     * @return          The metrics, created on first use.
+     */
+    public static PdfFontMetrics of(Standard14Fonts.FontName fontName) {
+        return METRICS.computeIfAbsent(fontName, name -> new PdfFontMetrics((Standard14Fonts.FontName) name));
+    }
+
+    /**
+     * <b>Returns the shared metrics of the given TrueType or OpenType font file.</b><br>
+     * <br>
+     * The file is parsed on first use only. OpenType fonts need to have TrueType outlines, as pdfbox can't embed fonts
+     * with CFF outlines.<br>
+     * <br>
+     * @param fontFile  The font file (<code>.ttf</code> or <code>.otf</code>).
+     * @return          The metrics, created on first use.
+     * @throws IOException If the file can't be read or isn't a supported font.
+     */
+    public static PdfFontMetrics of(Path fontFile) throws IOException {
+
+        try {
+            return METRICS.computeIfAbsent(fontFile.toAbsolutePath().normalize(), path -> {
+                try {
+                    return new PdfFontMetrics(parse((Path) path));
+                }
+                catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static TrueTypeFont parse(Path fontFile) throws IOException {
+
+        // The font is read into memory, as pdfbox closes it after subsetting. A font reading its tables from the file
+        // couldn't be used by any other document afterwards.
+        TrueTypeFont trueTypeFont;
+        try (InputStream inputStream = Files.newInputStream(fontFile)) {
+            trueTypeFont = isOpenType(fontFile) ? new OTFParser().parse(inputStream)
+                    : new TTFParser().parse(inputStream);
+        }
+
+        if (trueTypeFont instanceof OpenTypeFont && ((OpenTypeFont) trueTypeFont).isPostScript()) {
+            trueTypeFont.close();
+            throw new IOException("OpenType fonts with CFF outlines are not supported: " + fontFile);
+        }
+
+        return trueTypeFont;
+    }
+
+    private static boolean isOpenType(Path fontFile) throws IOException {
+
+        try (DataInputStream inputStream = new DataInputStream(Files.newInputStream(fontFile))) {
+            return inputStream.readInt() == 0x4F54544F; // "OTTO"
+        }
+        catch (EOFException e) {
+            return false;
+        }
+    }
+
+    /**
+     * <b>Returns the shared pdfbox font of a standard 14 font.</b><br>
+     * <br>
+     * The font may be used for measuring text. Documents that are written concurrently should each use their own
+     * pdfbox font instance for drawing text, as pdfbox fonts aren't thread-safe.<br>
+     * <br>
+     * @return  The font, or null if the font is loaded from a file.
+     */
+    public PDType1Font getFont() {
+        return font;
+    }
+
+    /**
+     * <b>Returns the standard 14 font, or null if the font is loaded from a file.</b>
+     */
+    public Standard14Fonts.FontName getFontName() {
+        return fontName;
+    }
+
+    /**
+     * <b>Returns the parsed font file, or null for standard 14 fonts.</b><br>
+     * <br>
+     * The parsed font is shared by all documents. Each document embeds it with its own pdfbox font, which collects
+     * the glyphs used in that document.
+     */
+    public TrueTypeFont getTrueTypeFont() {
+        return trueTypeFont;
+    }
+
+    /**
+     * <b>Returns whether the font is embedded into the documents, i.e. loaded from a font file.</b>
+     */
+    public boolean isEmbedded() {
+        return trueTypeFont != null;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * <b>Returns the height of a single line of text in the given font size.</b>
+     */
+    public float getLineHeight(float fontSize) {
+        return boundingBoxHeight / 1000 * fontSize;
+    }
+
+    /**
+     * <b>Calculates the width of the given text in the given font size.</b><br>
+     * <br>
+     * @param text      The text to measure.
+     * @param fontSize  The font size.
+     * @return          The width of the text.
+     * @throws IOException If the text contains characters the font can't encode.
+     */
+    public float getTextWidth(CharSequence text, float fontSize) throws IOException {
+        return getTextWidth(text, 0, text.length(), fontSize);
+    }
+
+    /**
+     * <b>Calculates the width of a part of the given text in the given font size.</b><br>
+     * <br>
+     * @param text      The text to measure.
+     * @param start     The index of the first character to measure.
+     * @param end       The index after the last character to measure.
+     * @param fontSize  The font size.
+     * @return          The width of the characters from <code>start</code> to <code>end</code>.
+     * @throws IOException If the text contains characters the font can't encode.
+     */
+    public float getTextWidth(CharSequence text, int start, int end, float fontSize) throws IOException {
+
+        float width = 0;
+        for (int i=start; i<end; i++) {
+            float charWidth = getCharWidth(text.charAt(i));
+            if (Float.isNaN(charWidth)) {
+                // Let pdfbox handle (and report) characters the font can't encode.
+                return getStringWidth(text.subSequence(start, end).toString()) / 1000 * fontSize;
+            }
+            width += charWidth;
+        }
+
+        return width / 1000 * fontSize;
+    }
+
+    private float getStringWidth(String text) throws IOException {
+
+        if (trueTypeFont != null) {
+            return getCodePointsWidth(text);
+        }
+
+        // The pdfbox font caches its encoding internally and isn't thread-safe by itself.
+        synchronized (font) {
+            return font.getStringWidth(text);
+        }
+    }
+
+    /**
+     * <b>Returns the width of the glyph in glyph space units, rounded like the widths of the embedded font.</b>
+     */
+    private float getGlyphWidth(int gid) throws IOException {
+        return Math.round(trueTypeFont.getAdvanceWidth(gid) * unitsToGlyphSpace);
+    }
+
+    private float getCodePointsWidth(String text) throws IOException {
+
+        float width = 0;
+        for (int i=0; i<text.length(); ) {
+
+            int codePoint = text.codePointAt(i);
+            int gid = cmap.getGlyphId(codePoint);
+            if (gid == 0) {
+                throw new IllegalArgumentException(String.format("No glyph for U+%04X in font %s", codePoint, name));
+            }
+
+            width += getGlyphWidth(gid);
+            i += Character.charCount(codePoint);
+        }
+
+        return width;
+    }
+
+    /**
+     * <b>Returns the advance width of the given character in glyph space units.</b><br>
+     * <br>
+     * @param c The character.
+     * @return  The width, or NaN if the font can't encode the character.
+     */
+    public float getCharWidth(char c) {
+
+        if (c < DIRECT_RANGE) {
+            return directWidths[c];
+        }
+
+        int index = Arrays.binarySearch(extendedChars, c);
+        return index >= 0 ? extendedWidths[index] : Float.NaN;
+    }
+}
@@ -12,9 +12,31 @@ public class PdfTable {
     private final int numberOfColumns;
     private final LinkedList<Float> columnWidths = new LinkedList<>();
 
+    // The cache the cells take their lines and heights from. The shared cache, unless another one is set.
+    private PdfTableCellLayoutCache layoutCache;
+
+    // Whether rows that don't fit onto the rest of a page are split between the lines of their cells.
+    private boolean splitRows;
+    // The number of rows at the top of the table that are printed again on each page the table is continued on.
+    private int numberOfHeaderRows;
+
+    // Whether the column widths are calculated from the contents when the table is initialized.
+    private boolean autoColumnWidths;
+    // The rows measured for the column widths: the first rows and a random sample of the others.
+    private int autoColumnWidthsMeasuredRows = Integer.MAX_VALUE;
+    private int autoColumnWidthsSampledRows;
+
     // Calculated when the table is initialized.
     private int numberOfRows;
 
+    // The index of the table, built when the table is initialized (or on first access).
+    // The cells of each row, ordered by the column index. Row 1 is at index 0.
+    private List<List<PdfTableCell>> rowIndex;
+    // The height of each row. Row 1 is at index 0.
+    private float[] rowHeights;
+    // The x offset of each column relative to the table's left border. Column 1 is at index 0.
+    private float[] columnOffsets;
+
     public PdfTable(PdfFont font, float tableWidth, int numberOfColumns) {
         this.font = font;
         this.tableWidth = tableWidth;
@@ -48,25 +70,137 @@ public class PdfTable {
         }	
     }
     
+    /**
+     * <b>Sets the cache the cells of this table take their lines and heights from.</b><br>
+     * <br>
+     * By default, the cache shared by all tables is used.
+     */
+    public void setLayoutCache(PdfTableCellLayoutCache layoutCache) {
+        this.layoutCache = layoutCache;
+    }
+
+    /**
+     * <b>Sets whether rows that don't fit onto the rest of a page are split.</b><br>
+     * <br>
+     * If set, such a row is filled with as many lines of its cells as fit onto the page, and continued on the next
+     * page. Otherwise, the whole row is moved to the next page. Rows that are higher than a whole page are always
+     * split, as they would be cut off otherwise.
+     */
+    public void setSplitRows(boolean splitRows) {
+        this.splitRows = splitRows;
+    }
+
+    public boolean isSplitRows() {
+        return splitRows;
+    }
+
+    /**
+     * <b>Sets the number of header rows, i.e. the rows at the top of the table that are printed again on each page
+     * the table is continued on.</b><br>
+     * <br>
+     * The header rows are measured once when the table is initialized. On each further page, they are only painted
+     * again.
+     */
+    public void setNumberOfHeaderRows(int numberOfHeaderRows) {
+        this.numberOfHeaderRows = Math.max(0, numberOfHeaderRows);
+    }
+
+    /**
+     * <b>Returns the number of header rows, limited to the number of rows of the table.</b>
+     */
+    public int getNumberOfHeaderRows() {
+        getRowIndex();
+        return Math.min(numberOfHeaderRows, numberOfRows);
+    }
+
+    /**
+     * <b>Returns the height of all header rows together.</b>
+     */
+    public float getHeaderHeight() {
+
+        float height = 0;
+        for (int i=1; i<=getNumberOfHeaderRows(); i++) {
+            height += getRowHeight(i);
+        }
+        return height;
+    }
+
+    /**
+     * <b>Sets whether the column widths are calculated from the contents of the cells.</b><br>
+     * <br>
+     * When the table is initialized, the minimum and maximum width of the contents of each column are measured, and
+     * the width of the table is distributed to the columns accordingly. All rows are measured.
+     */
+    public void setAutoColumnWidths(boolean autoColumnWidths) {
+        this.autoColumnWidths = autoColumnWidths;
+        this.autoColumnWidthsMeasuredRows = Integer.MAX_VALUE;
+        this.autoColumnWidthsSampledRows = 0;
+    }
+
+    /**
+     * <b>Calculates the column widths from the contents of some of the rows only.</b><br>
+     * <br>
+     * Same as <code>setAutoColumnWidths(true)</code>, but only the given number of rows at the top of the table and
+     * a random sample of the other rows are measured. This keeps sizing the columns of a very large table cheap. The
+     * sample is always the same for the same number of rows, so the table looks the same each time it is printed.<br>
+     * <br>
+     * @param measuredRows  The number of rows at the top of the table that are measured.
+     * @param sampledRows   The number of randomly chosen other rows that are measured.
+     */
+    public void setAutoColumnWidths(int measuredRows, int sampledRows) {
+        this.autoColumnWidths = true;
+        this.autoColumnWidthsMeasuredRows = measuredRows;
+        this.autoColumnWidthsSampledRows = sampledRows;
+    }
+
+    public boolean isAutoColumnWidths() {
+        return autoColumnWidths;
+    }
+
+    private void calculateAutoColumnWidths() {
+
+        calculateNumberOfRows();
+
+        PdfTableColumnSizer sizer = new PdfTableColumnSizer(font, numberOfColumns, autoColumnWidthsMeasuredRows,
+                autoColumnWidthsSampledRows);
+        LinkedList<Float> widths = sizer.calculateColumnWidths(cells, numberOfRows, tableWidth);
+
+        columnWidths.clear();
+        columnWidths.addAll(widths);
+    }
+
+    private PdfTableCellLayoutCache getLayoutCache() {
+        return layoutCache != null ? layoutCache : PdfTableCellLayoutCache.getShared();
+    }
+
     public void addCell(PdfTableCell cell) {
         cells.add(cell);
+        rowIndex = null;
     }
 
     /**
      * <b>Initializes each table cell:</b><br>
      * <ul>
      *     <li>Sets the font to the cell if it doesn't have a specific one.</li>
+     *     <li>Calculates the column widths from the contents, if set to do so.</li>
      *     <li>Calculates the width of the cell depending on the number of columns.</li>
-     *     <li>Calculates the height of the cell depending on the column width, font and containing text.</li>
+     *     <li>Calculates the height of the cell depending on the column width, font and containing text, or takes it
+     *     from the layout cache.</li>
+     *     <li>Builds the index of the cells per row, the row heights and the column positions.</li>
      * </ul>
      *
      */
     public void init() {
+        if (autoColumnWidths) {
+            calculateAutoColumnWidths();
+        }
+
+        PdfTableCellLayoutCache cache = getLayoutCache();
         for (PdfTableCell cell : cells) {
-            cell.init(font, columnWidths);
+            cell.init(font, columnWidths, cache);
         }
 
-        calculateNumberOfRows();
+        buildIndex();
     }
 
     private void calculateNumberOfRows() {
@@ -78,10 +212,98 @@ public class PdfTable {
         }
     }
 
+    /**
+     * <b>Initializes the cells of a single row that is not part of the table.</b><br>
+     * <br>
+     * The cells are initialized like the cells of the table itself, but they aren't stored in the table. This allows
+     * printing rows one after another without keeping all of them in memory.<br>
+     * <br>
+     * @param row   The cells of the row.
+     * @return      The initialized cells, ordered by the column index.
+     */
+    public List<PdfTableCell> initRow(Collection<PdfTableCell> row) {
+
+        List<PdfTableCell> cellsOfRow = new ArrayList<>(row);
+        PdfTableCellLayoutCache cache = getLayoutCache();
+        for (PdfTableCell cell : cellsOfRow) {
+            cell.init(font, columnWidths, cache);
+        }
+
+        cellsOfRow.sort(Comparator.comparingInt(o -> o.getPosition().getColumn()));
+        return cellsOfRow;
+    }
+
+    /**
+     * <b>Builds the row index, the row heights and the column positions.</b><br>
+     * <br>
+     * The cells are grouped by their row and ordered by their column, so that the cells of a row, its height and the
+     * x position of a cell can be looked up without going through all the cells of the table.
+     */
+    private void buildIndex() {
+
+        calculateNumberOfRows();
+
+        List<List<PdfTableCell>> index = new ArrayList<>(numberOfRows);
+        for (int i=0; i<numberOfRows; i++) {
+            index.add(new ArrayList<>());
+        }
+
+        for (PdfTableCell cell : cells) {
+            int row = cell.getPosition().getRow();
+            if (row >= 1) {
+                index.get(row-1).add(cell);
+            }
+        }
+
+        rowHeights = new float[numberOfRows];
+        for (int i=0; i<numberOfRows; i++) {
+            List<PdfTableCell> cellsOfRow = index.get(i);
+            cellsOfRow.sort(Comparator.comparingInt(o -> o.getPosition().getColumn()));
+
+            rowHeights[i] = getRowHeight(cellsOfRow);
+            index.set(i, Collections.unmodifiableList(cellsOfRow));
+        }
+
+        columnOffsets = new float[numberOfColumns];
+        float x = 0;
+        int column = 0;
+        for (Float columnWidth : columnWidths) {
+            columnOffsets[column++] = x;
+            x += columnWidth;
+        }
+
+        rowIndex = index;
+    }
+
+    private List<List<PdfTableCell>> getRowIndex() {
+
+        if (rowIndex == null) {
+            buildIndex();
+        }
+
+        return rowIndex;
+    }
+
     public float getRowHeight(int row) {
 
+        getRowIndex();
+        if (row < 1 || row > rowHeights.length) {
+            return 0;
+        }
+
+        return rowHeights[row-1];
+    }
+
+    /**
+     * <b>Returns the height of the row that consists of the given cells.</b><br>
+     * <br>
+     * @param cells The initialized cells of the row.
+     * @return      The height of the highest cell.
+     */
+    public float getRowHeight(Collection<PdfTableCell> cells) {
+
         float maxHeight = 0;
-        for (PdfTableCell cell : getCellsForRowOrdered(row)) {
+        for (PdfTableCell cell : cells) {
             if (cell.getHeight() > maxHeight) {
                 maxHeight = cell.getHeight();
             }
@@ -94,20 +316,26 @@ public class PdfTable {
      * <b>Returns all cells for a single table row, ordered by the column index.</b><br>
      * <br>
      * @param row   The number of the row for which the cells shall be returned (starting at 1).
-     * @return      The linked list of all cells in the requested row.
+     * @return      The unmodifiable list of all cells in the requested row.
      */
-    public LinkedList<PdfTableCell> getCellsForRowOrdered(int row) {
+    public List<PdfTableCell> getCellsForRow(int row) {
 
-        LinkedList<PdfTableCell> cellsForRow = new LinkedList<>();
-
-        for (PdfTableCell cell : cells) {
-            if (cell.getPosition().getRow() == row) {
-                cellsForRow.add(cell);
-            }
+        List<List<PdfTableCell>> index = getRowIndex();
+        if (row < 1 || row > index.size()) {
+            return Collections.emptyList();
         }
 
-        cellsForRow.sort(Comparator.comparingInt(o -> o.getPosition().getColumn()));
-        return cellsForRow;
+        return index.get(row-1);
+    }
+
+    /**
+     * <b>Returns all cells for a single table row, ordered by the column index.</b><br>
+     * <br>
+     * @param row   The number of the row for which the cells shall be returned (starting at 1).
+     * @return      The linked list of all cells in the requested row.
+     */
+    public LinkedList<PdfTableCell> getCellsForRowOrdered(int row) {
+        return new LinkedList<>(getCellsForRow(row));
     }
 
     public int getNumberOfRows() {
@@ -118,6 +346,14 @@ public class PdfTable {
         return font;
     }
 
+    /**
+     * <b>Returns the width of each column. Calculated columns widths are available after the table is
+     * initialized.</b>
+     */
+    public List<Float> getColumnWidths() {
+        return Collections.unmodifiableList(columnWidths);
+    }
+
     public float getTableWidth() {
         return tableWidth;
     }
@@ -134,14 +370,10 @@ public class PdfTable {
      */
     public float getXofTableCell(int row, int column, float offset) {
 
-        LinkedList<PdfTableCell> cellsOfRow = getCellsForRowOrdered(row);
-        float x = 0;
-        for (PdfTableCell cell : cellsOfRow) {
-            if (cell.getPosition().getRow() == row && cell.getPosition().getColumn() == column) {
-                return x + offset;
+        for (PdfTableCell cell : getCellsForRow(row)) {
+            if (cell.getPosition().getColumn() == column) {
+                return getXofTableCell(cell, offset);
             }
-
-            x += cell.getWidth();
         }
 
         return -1;
@@ -157,6 +389,13 @@ public class PdfTable {
      * @return  The x value of the cell, including the offset. -1 if there is no cell at that position.
      */
     public float getXofTableCell(PdfTableCell cell, float offset) {
-        return getXofTableCell(cell.getPosition().getRow(), cell.getPosition().getColumn(), offset);
+
+        getRowIndex();
+        int column = cell.getPosition().getColumn();
+        if (column < 1 || column > columnOffsets.length) {
+            return -1;
+        }
+
+        return columnOffsets[column-1] + offset;
     }
 }
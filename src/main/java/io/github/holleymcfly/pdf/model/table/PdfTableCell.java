@@ -2,8 +2,6 @@ package io.github.holleymcfly.pdf.model.table;
 
 import io.github.holleymcfly.pdf.model.color.PdfColor;
 import io.github.holleymcfly.pdf.model.font.PdfFont;
-import io.github.holleymcfly.pdf.model.PdfFormattedText;
-import io.github.holleymcfly.pdf.util.TextSplitter;
 
 import java.util.LinkedList;
 
@@ -34,7 +32,8 @@ public class PdfTableCell {
     // The height of the cell, calculated with regarding the text, the font and the cell width.
     private float height;
 
-    // The text split up into single lines that fit into the cell.
+    // The text split up into single lines that fit into the cell. Shared with other cells of the same layout through
+    // the layout cache, so it must not be changed or handed out.
     String[] splitUpLines;
 
     PdfTableCell(PdfTableCellPosition position, String content) {
@@ -67,31 +66,40 @@ public class PdfTableCell {
     }
 
     public void init(PdfFont font, LinkedList<Float> columnWidths) {
+        init(font, columnWidths, PdfTableCellLayoutCache.getShared());
+    }
+
+    /**
+     * <b>Initializes the cell, taking its lines and height from the given cache if possible.</b><br>
+     * <br>
+     * The text is split up with the font of the cell, which is also used for drawing it.<br>
+     * <br>
+     * @param font          The font of the table, used if the cell doesn't have a font of its own.
+     * @param columnWidths  The widths of all columns of the table.
+     * @param layoutCache   The cache of cell layouts.
+     */
+    public void init(PdfFont font, LinkedList<Float> columnWidths, PdfTableCellLayoutCache layoutCache) {
 
         if (this.font == null) {
             this.font = font;
         }
 
         calculateCellWidth(columnWidths);
-        splitUpLines = new TextSplitter(new PdfFormattedText(content, font), contentWidth).splitUpText();
-        calculateCellHeight();
+
+        PdfTableCellLayoutCache.Layout layout = layoutCache.getLayout(content, this.font, contentWidth);
+        splitUpLines = layout.getLines();
+        height = MARGIN_TOP + layout.getHeight() + MARGIN_BOTTOM;
     }
 
     private void calculateCellWidth(LinkedList<Float> columnWidths) {
 
+        width = 0;
         for (int i=0; i<position.getColspan(); i++) {
             width += columnWidths.get(position.getColumn()-1+i);
         }
         contentWidth = width - MARGIN_LEFT - MARGIN_RIGHT;
     }
 
-    private void calculateCellHeight() {
-        float oneLineHeight = font.getFont().getFontDescriptor().getFontBoundingBox().getHeight() / 1000 * font.getSize();
-        int numberOfLines = splitUpLines.length;
-
-        height = MARGIN_TOP + (oneLineHeight * numberOfLines) + MARGIN_BOTTOM;
-    }
-
     public float getWidth() {
         return width;
     }
@@ -104,8 +112,24 @@ public class PdfTableCell {
         return height;
     }
 
+    /**
+     * <b>Returns a copy of the lines the text has been split up into.</b>
+     */
     public String[] getSplitUpLines() {
-        return splitUpLines;
+        return splitUpLines.clone();
+    }
+
+    public int getNumberOfLines() {
+        return splitUpLines.length;
+    }
+
+    /**
+     * <b>Returns a single line of the text, without copying all lines.</b><br>
+     * <br>
+     * @param index The index of the line, starting with 0.
+     */
+    public String getLine(int index) {
+        return splitUpLines[index];
     }
 
     public float getMarginLeft() {
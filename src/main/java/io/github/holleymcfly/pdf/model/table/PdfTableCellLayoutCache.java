@@ -0,0 +1,178 @@
+package io.github.holleymcfly.pdf.model.table;
+
+import io.github.holleymcfly.pdf.model.PdfFormattedText;
+import io.github.holleymcfly.pdf.model.font.PdfFont;
+import io.github.holleymcfly.pdf.model.font.PdfFontMetrics;
+import io.github.holleymcfly.pdf.util.LruCache;
+import io.github.holleymcfly.pdf.util.TextHelper;
+import io.github.holleymcfly.pdf.util.TextSplitter;
+
+import java.util.Objects;
+
+/**
+ * <b>Caches the lines and heights of table cells.</b><br>
+ * <br>
+ * Tables often repeat the same short values (currencies, states, dates) in thousands of cells. Cells with the same
+ * content, font and width are split up only once; all others take the lines and height from the cache. The least
+ * recently used entries are evicted when the cache is full.<br>
+ * <br>
+ * By default, all tables of all documents share a single cache. The cache is thread-safe. Large caches are split up
+ * into segments with a lock of their own, so that tables laid out at the same time, e.g. by the
+ * <code>PdfBatchGenerator</code>, rarely wait for each other. The least recently used layout is then evicted from the
+ * segment of the new layout.
+ */
+public final class PdfTableCellLayoutCache {
+
+    private static final int DEFAULT_SIZE = 10000;
+
+    // At most this many segments, each holding at least MIN_SEGMENT_SIZE layouts.
+    private static final int MAX_SEGMENTS = 16;
+    private static final int MIN_SEGMENT_SIZE = 64;
+
+    private static volatile PdfTableCellLayoutCache shared = new PdfTableCellLayoutCache(DEFAULT_SIZE);
+
+    private final LruCache<Key, Layout> cache;
+
+    /**
+     * @param maxSize   The maximum number of cached cell layouts. 0 disables the cache.
+     */
+    public PdfTableCellLayoutCache(int maxSize) {
+        this.cache = new LruCache<>(maxSize, Math.max(1, Math.min(MAX_SEGMENTS, maxSize / MIN_SEGMENT_SIZE)));
+    }
+
+    /**
+     * <b>Returns the cache that is used by all tables that don't have a cache of their own.</b>
+     */
+    public static PdfTableCellLayoutCache getShared() {
+        return shared;
+    }
+
+    /**
+     * <b>Replaces the cache that is used by all tables that don't have a cache of their own.</b><br>
+     * <br>
+     * This allows changing the size of the shared cache, e.g. <code>setShared(new PdfTableCellLayoutCache(0))</code>
+     * disables caching.
+     */
+    public static void setShared(PdfTableCellLayoutCache cache) {
+        shared = Objects.requireNonNull(cache);
+    }
+
+    /**
+     * <b>Returns the layout of a cell with the given content, font and width.</b><br>
+     * <br>
+     * @param content       The content of the cell.
+     * @param font          The font of the cell.
+     * @param contentWidth  The width that is available for the content.
+     * @return              The layout, taken from the cache if possible.
+     */
+    Layout getLayout(String content, PdfFont font, float contentWidth) {
+
+        Key key = new Key(content, font.getMetrics(), font.getSize(), contentWidth);
+        Layout layout = cache.get(key);
+        if (layout == null) {
+            String[] lines = new TextSplitter(new PdfFormattedText(content, font), contentWidth).splitUpText();
+            layout = new Layout(lines, TextHelper.getLineHeight(font) * lines.length);
+            cache.put(key, layout);
+        }
+
+        return layout;
+    }
+
+    public long getHits() {
+        return cache.getHits();
+    }
+
+    public long getMisses() {
+        return cache.getMisses();
+    }
+
+    public long getEvictions() {
+        return cache.getEvictions();
+    }
+
+    /**
+     * <b>Returns the share of cells whose layout was taken from the cache, between 0 and 1.</b>
+     */
+    public double getHitRate() {
+        return cache.getHitRate();
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public int getMaxSize() {
+        return cache.getMaxSize();
+    }
+
+    public int getSegmentCount() {
+        return cache.getSegmentCount();
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    /**
+     * The lines of a cell and the height of its text, without the margins of the cell.<br>
+     * The lines are shared by all cells with the same layout.
+     */
+    static final class Layout {
+
+        private final String[] lines;
+        private final float height;
+
+        private Layout(String[] lines, float height) {
+            this.lines = lines;
+            this.height = height;
+        }
+
+        String[] getLines() {
+            return lines;
+        }
+
+        float getHeight() {
+            return height;
+        }
+    }
+
+    private static final class Key {
+
+        private final String content;
+        private final PdfFontMetrics fontMetrics;
+        private final float fontSize;
+        private final float contentWidth;
+        private final int hashCode;
+
+        private Key(String content, PdfFontMetrics fontMetrics, float fontSize, float contentWidth) {
+            this.content = content;
+            this.fontMetrics = fontMetrics;
+            this.fontSize = fontSize;
+            this.contentWidth = contentWidth;
+            this.hashCode = Objects.hash(content, fontMetrics, fontSize, contentWidth);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+
+            Key other = (Key) o;
+            return hashCode == other.hashCode
+                    && fontMetrics == other.fontMetrics
+                    && Float.compare(fontSize, other.fontSize) == 0
+                    && Float.compare(contentWidth, other.contentWidth) == 0
+                    && Objects.equals(content, other.content);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package io.github.holleymcfly.pdf.model.table;
+
+import io.github.holleymcfly.pdf.model.font.PdfFont;
+import io.github.holleymcfly.pdf.util.TextHelper;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.Random;
+
+/**
+ * <b>Calculates the column widths of a table from the widths of the cells' contents.</b><br>
+ * <br>
+ * For each column, the minimum width (the widest single word) and the maximum width (the whole content in a single
+ * line) of its cells are measured. The width of the table is then distributed like this:
+ * <ul>
+ *     <li>If all columns fit with their maximum widths, each column gets its maximum width, and the space left is
+ *     distributed in proportion to these widths.</li>
+ *     <li>If all columns fit with their minimum widths, each column gets its minimum width, and the space left is
+ *     shared equally by the columns that would like to be wider. Columns needing less than their share get just
+ *     what they need, so short contents stay in a single line and long texts get the rest.</li>
+ *     <li>Otherwise, the minimum widths are shrunk in proportion, so words may be cut off.</li>
+ * </ul>
+ * Cells spanning several columns are not measured. A column without any measured cell, e.g. because all its cells
+ * span several columns or aren't in the measured rows, gets the average minimum and maximum widths of the other
+ * columns, so it is never collapsed.<br>
+ * <br>
+ * For large tables, only the first rows and a random sample of the other rows can be measured. The sample is taken
+ * with a fixed seed, so the same table always gets the same column widths.
+ */
+final class PdfTableColumnSizer {
+
+    private static final long SAMPLE_SEED = 42;
+
+    // Some space left between the text and the cell border, as a line only fits if it's narrower than the cell.
+    private static final float SLACK = 1;
+
+    private final PdfFont font;
+    private final int numberOfColumns;
+    private final int measuredRows;
+    private final int sampledRows;
+
+    /**
+     * @param font              The font of the table, used for cells without a font of their own.
+     * @param numberOfColumns   The number of columns of the table.
+     * @param measuredRows      The number of rows at the top of the table that are always measured.
+     * @param sampledRows       The number of randomly chosen rows below those that are measured, too.
+     */
+    PdfTableColumnSizer(PdfFont font, int numberOfColumns, int measuredRows, int sampledRows) {
+        this.font = font;
+        this.numberOfColumns = numberOfColumns;
+        this.measuredRows = Math.max(0, measuredRows);
+        this.sampledRows = Math.max(0, sampledRows);
+    }
+
+    /**
+     * <b>Calculates the column widths for the given cells.</b><br>
+     * <br>
+     * @param cells             The cells of the table.
+     * @param numberOfRows      The number of rows of the table.
+     * @param tableWidth        The width to distribute to the columns.
+     * @return                  The width of each column.
+     */
+    LinkedList<Float> calculateColumnWidths(Collection<PdfTableCell> cells, int numberOfRows, float tableWidth) {
+
+        float[] minWidths = new float[numberOfColumns];
+        float[] maxWidths = new float[numberOfColumns];
+        boolean[] measured = new boolean[numberOfColumns];
+
+        BitSet rows = chooseRows(numberOfRows);
+        for (PdfTableCell cell : cells) {
+
+            PdfTableCellPosition position = cell.getPosition();
+            int column = position.getColumn();
+            if (position.getColspan() > 1 || column < 1 || column > numberOfColumns || !rows.get(position.getRow())) {
+                continue;
+            }
+
+            measure(cell, column-1, minWidths, maxWidths);
+            measured[column-1] = true;
+        }
+
+        fillUnmeasuredColumns(measured, minWidths, maxWidths);
+        return distribute(minWidths, maxWidths, tableWidth);
+    }
+
+    /**
+     * <b>Gives the columns without any measured cell the average widths of the measured columns.</b><br>
+     * <br>
+     * If no column has been measured at all, the widths stay 0, and the columns are equally wide.
+     */
+    private void fillUnmeasuredColumns(boolean[] measured, float[] minWidths, float[] maxWidths) {
+
+        int measuredColumns = 0;
+        float minSum = 0;
+        float maxSum = 0;
+        for (int i=0; i<numberOfColumns; i++) {
+            if (measured[i]) {
+                measuredColumns++;
+                minSum += minWidths[i];
+                maxSum += maxWidths[i];
+            }
+        }
+
+        if (measuredColumns == 0 || measuredColumns == numberOfColumns) {
+            return;
+        }
+
+        for (int i=0; i<numberOfColumns; i++) {
+            if (!measured[i]) {
+                minWidths[i] = minSum / measuredColumns;
+                maxWidths[i] = maxSum / measuredColumns;
+            }
+        }
+    }
+
+    /**
+     * <b>Chooses the rows to measure: the first rows and a reservoir sample of the other rows.</b>
+     */
+    private BitSet chooseRows(int numberOfRows) {
+
+        int firstRows = Math.min(measuredRows, numberOfRows);
+        BitSet rows = new BitSet(numberOfRows + 1);
+        rows.set(1, firstRows + 1);
+        if (sampledRows == 0) {
+            return rows;
+        }
+
+        int[] reservoir = new int[sampledRows];
+        int seen = 0;
+        Random random = new Random(SAMPLE_SEED);
+        for (int row=firstRows+1; row<=numberOfRows; row++) {
+
+            if (seen < sampledRows) {
+                reservoir[seen] = row;
+            }
+            else {
+                int slot = random.nextInt(seen + 1);
+                if (slot < sampledRows) {
+                    reservoir[slot] = row;
+                }
+            }
+            seen++;
+        }
+
+        for (int i=0; i<Math.min(seen, sampledRows); i++) {
+            rows.set(reservoir[i]);
+        }
+
+        return rows;
+    }
+
+    /**
+     * <b>Measures the content of the cell the same way it is split up into lines.</b><br>
+     * <br>
+     * Each word takes its own width and the width of the space following it.
+     */
+    private void measure(PdfTableCell cell, int column, float[] minWidths, float[] maxWidths) {
+
+        PdfFont cellFont = cell.getFont() != null ? cell.getFont() : font;
+        String content = cell.getContent();
+        float spaceWidth = TextHelper.getTextWidth(" ", cellFont);
+
+        float widestWord = 0;
+        float lineWidth = 0;
+        int start = 0;
+        while (start <= content.length()) {
+
+            int end = content.indexOf(' ', start);
+            if (end == -1) {
+                end = content.length();
+            }
+
+            float wordWidth = TextHelper.getTextWidth(content, start, end, cellFont) + spaceWidth;
+            widestWord = Math.max(widestWord, wordWidth);
+            lineWidth += wordWidth;
+            start = end + 1;
+        }
+
+        float margins = cell.getMarginLeft() + cell.getMarginRight() + SLACK;
+        minWidths[column] = Math.max(minWidths[column], widestWord + margins);
+        maxWidths[column] = Math.max(maxWidths[column], lineWidth + margins);
+    }
+
+    private LinkedList<Float> distribute(float[] minWidths, float[] maxWidths, float tableWidth) {
+
+        float minSum = 0;
+        float maxSum = 0;
+        for (int i=0; i<numberOfColumns; i++) {
+            minSum += minWidths[i];
+            maxSum += maxWidths[i];
+        }
+
+        float[] widths = new float[numberOfColumns];
+        for (int i=0; i<numberOfColumns; i++) {
+
+            if (maxSum == 0) {
+                widths[i] = tableWidth / numberOfColumns;
+            }
+            else if (maxSum <= tableWidth) {
+                widths[i] = maxWidths[i] + (tableWidth - maxSum) * maxWidths[i] / maxSum;
+            }
+            else if (minSum <= tableWidth) {
+                widths[i] = minWidths[i];
+            }
+            else {
+                widths[i] = minWidths[i] * tableWidth / minSum;
+            }
+        }
+
+        if (maxSum > tableWidth && minSum <= tableWidth) {
+            shareSpaceLeft(widths, maxWidths, tableWidth - minSum);
+        }
+
+        LinkedList<Float> columnWidths = new LinkedList<>();
+        for (float width : widths) {
+            columnWidths.add(width);
+        }
+        return columnWidths;
+    }
+
+    /**
+     * <b>Shares the space left equally by the columns, starting with the columns that need the least.</b><br>
+     * <br>
+     * A column needing less than its share gets just what it needs, which leaves more for the other columns.
+     */
+    private void shareSpaceLeft(float[] widths, float[] maxWidths, float spaceLeft) {
+
+        Integer[] columns = new Integer[numberOfColumns];
+        for (int i=0; i<numberOfColumns; i++) {
+            columns[i] = i;
+        }
+        Arrays.sort(columns, Comparator.comparingDouble(i -> maxWidths[i] - widths[i]));
+
+        int remainingColumns = numberOfColumns;
+        for (int column : columns) {
+
+            float added = Math.min(maxWidths[column] - widths[column], spaceLeft / remainingColumns);
+            widths[column] += added;
+            spaceLeft -= added;
+            remainingColumns--;
+        }
+    }
+}
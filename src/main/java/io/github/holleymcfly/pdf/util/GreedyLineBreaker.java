@@ -0,0 +1,30 @@
+package io.github.holleymcfly.pdf.util;
+
+/**
+ * <b>First-fit line breaking.</b><br>
+ * <br>
+ * The words are put into the current line as long as they fit; a word that doesn't fit starts a new line.
+ * This is fast, but may leave lines much shorter than others.
+ */
+public class GreedyLineBreaker implements LineBreaker {
+
+    @Override
+    public int[] breakLines(float[] wordWidths, float[] spaceWidths, float lineWidth) {
+
+        IntArray lineStarts = new IntArray();
+        lineStarts.add(0);
+
+        float textWidth = 0;
+        for (int word=0; word<wordWidths.length; word++) {
+
+            textWidth += wordWidths[word];
+            textWidth += spaceWidths[word];
+            if (textWidth >= lineWidth) {
+                lineStarts.add(word);
+                textWidth = wordWidths[word];
+            }
+        }
+
+        return lineStarts.toArray();
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.holleymcfly.pdf.util;
+
+import java.util.Arrays;
+
+/**
+ * A growable array of primitive ints, avoiding the boxing of a <code>List&lt;Integer&gt;</code>.
+ */
+final class IntArray {
+
+    private int[] values;
+    private int size;
+
+    IntArray() {
+        this(16);
+    }
+
+    IntArray(int initialCapacity) {
+        values = new int[Math.max(1, initialCapacity)];
+    }
+
+    void add(int value) {
+
+        if (size == values.length) {
+            values = Arrays.copyOf(values, values.length * 2);
+        }
+
+        values[size++] = value;
+    }
+
+    int get(int index) {
+
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+
+        return values[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+    /**
+     * Drops all values from the given index on.
+     */
+    void truncate(int size) {
+
+        if (size < 0 || size > this.size) {
+            throw new IndexOutOfBoundsException("Size " + size + " out of bounds for size " + this.size);
+        }
+
+        this.size = size;
+    }
+}
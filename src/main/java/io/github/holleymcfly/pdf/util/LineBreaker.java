@@ -0,0 +1,62 @@
+package io.github.holleymcfly.pdf.util;
+
+import io.github.holleymcfly.pdf.model.PdfFormattedText;
+
+/**
+ * <b>Decides where the lines of a paragraph are broken.</b><br>
+ * <br>
+ * A line breaker decides by the widths of the words. It's also given the text with its fonts, so it may cache its
+ * results by text and skip measuring the words of paragraphs it has already broken.
+ * Implementations must be thread-safe, as a single instance may be shared by several documents.
+ */
+public interface LineBreaker {
+
+    /**
+     * The default line breaker, putting as many words into a line as possible.
+     */
+    LineBreaker GREEDY = new GreedyLineBreaker();
+
+    /**
+     * <b>Breaks the given words into lines.</b><br>
+     * <br>
+     * Every word of a line takes its own width plus the width of the space following it. A line fits if that sum is
+     * less than the line width. A single word that is wider than the line still gets a line on its own.<br>
+     * <br>
+     * @param wordWidths    The width of each word.
+     * @param spaceWidths   The width of the space following each word.
+     * @param lineWidth     The available width of a line.
+     * @return              The index of the first word of each line. There is always at least one line.
+     */
+    int[] breakLines(float[] wordWidths, float[] spaceWidths, float lineWidth);
+
+    /**
+     * <b>Breaks the words of the given text into lines.</b><br>
+     * <br>
+     * The words are only measured when their widths are requested. By default, they are always measured and broken
+     * by {@link #breakLines(float[], float[], float)}.<br>
+     * <br>
+     * @param text          The texts of the paragraph, each with its font.
+     * @param words         Measures the words of the text.
+     * @param lineWidth     The available width of a line.
+     * @return              The index of the first word of each line. There is always at least one line.
+     */
+    default int[] breakLines(PdfFormattedText[] text, Words words, float lineWidth) {
+        return breakLines(words.getWordWidths(), words.getSpaceWidths(), lineWidth);
+    }
+
+    /**
+     * <b>The measured words of a text, split up at its spaces.</b>
+     */
+    interface Words {
+
+        /**
+         * <b>Returns the width of each word.</b>
+         */
+        float[] getWordWidths();
+
+        /**
+         * <b>Returns the width of the space following each word.</b>
+         */
+        float[] getSpaceWidths();
+    }
+}
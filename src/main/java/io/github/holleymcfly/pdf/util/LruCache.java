@@ -0,0 +1,202 @@
+package io.github.holleymcfly.pdf.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * <b>A thread-safe cache with a maximum size that evicts the least recently used entries.</b><br>
+ * <br>
+ * The cache can be split up into segments, each holding its share of the entries under its own lock, so that threads
+ * looking up different keys don't wait for each other. The least recently used entry is then evicted from the
+ * segment of the new entry, not from the whole cache.<br>
+ * <br>
+ * The cache counts its hits, misses and evictions, so its effectiveness can be monitored.
+ *
+ * @param <K>   The type of the keys.
+ * @param <V>   The type of the cached values.
+ */
+public final class LruCache<K, V> {
+
+    private final int maxSize;
+    private final Segment<K, V>[] segments;
+
+    /**
+     * @param maxSize   The maximum number of entries. If it is 0, nothing is cached at all.
+     */
+    public LruCache(int maxSize) {
+        this(maxSize, 1);
+    }
+
+    /**
+     * @param maxSize       The maximum number of entries. If it is 0, nothing is cached at all.
+     * @param segmentCount  The number of segments, at most <code>maxSize</code> unless that is 0.
+     */
+    @SuppressWarnings("unchecked")
+    public LruCache(int maxSize, int segmentCount) {
+
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("The size of a cache must not be negative.");
+        }
+        if (segmentCount < 1 || (maxSize > 0 && segmentCount > maxSize)) {
+            throw new IllegalArgumentException("A cache must have between 1 and maxSize segments.");
+        }
+
+        this.maxSize = maxSize;
+        this.segments = new Segment[segmentCount];
+        for (int i=0; i<segmentCount; i++) {
+            segments[i] = new Segment<>(maxSize / segmentCount + (i < maxSize % segmentCount ? 1 : 0));
+        }
+    }
+
+    /**
+     * <b>Returns the cached value of the given key, or <code>null</code> if there is none.</b>
+     */
+    public V get(K key) {
+        return getSegment(key).get(key);
+    }
+
+    public void put(K key, V value) {
+        if (maxSize > 0) {
+            getSegment(key).put(key, value);
+        }
+    }
+
+    public void clear() {
+        for (Segment<K, V> segment : segments) {
+            segment.clear();
+        }
+    }
+
+    public int size() {
+
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getSegmentCount() {
+        return segments.length;
+    }
+
+    public long getHits() {
+
+        long hits = 0;
+        for (Segment<K, V> segment : segments) {
+            hits += segment.getHits();
+        }
+        return hits;
+    }
+
+    public long getMisses() {
+
+        long misses = 0;
+        for (Segment<K, V> segment : segments) {
+            misses += segment.getMisses();
+        }
+        return misses;
+    }
+
+    /**
+     * <b>Returns how many entries have been removed to make room for new ones.</b>
+     */
+    public long getEvictions() {
+
+        long evictions = 0;
+        for (Segment<K, V> segment : segments) {
+            evictions += segment.getEvictions();
+        }
+        return evictions;
+    }
+
+    /**
+     * <b>Returns the share of lookups that found a cached value, between 0 and 1.</b><br>
+     * <br>
+     * While other threads use the cache, the rate may be off by the lookups made while it is computed.
+     */
+    public double getHitRate() {
+
+        long hits = getHits();
+        long lookups = hits + getMisses();
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    private Segment<K, V> getSegment(K key) {
+
+        if (segments.length == 1) {
+            return segments[0];
+        }
+
+        // Spreads the high bits, so that keys differing only there don't end up in the same segment.
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return segments[Math.floorMod(hash, segments.length)];
+    }
+
+    private static final class Segment<K, V> {
+
+        private final int maxSize;
+        private final Map<K, V> entries;
+
+        private long hits;
+        private long misses;
+        private long evictions;
+
+        private Segment(int maxSize) {
+
+            this.maxSize = maxSize;
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                    if (size() > Segment.this.maxSize) {
+                        evictions++;
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        private synchronized V get(K key) {
+
+            V value = entries.get(key);
+            if (value != null) {
+                hits++;
+            }
+            else {
+                misses++;
+            }
+
+            return value;
+        }
+
+        private synchronized void put(K key, V value) {
+            entries.put(key, value);
+        }
+
+        private synchronized void clear() {
+            entries.clear();
+        }
+
+        private synchronized int size() {
+            return entries.size();
+        }
+
+        private synchronized long getHits() {
+            return hits;
+        }
+
+        private synchronized long getMisses() {
+            return misses;
+        }
+
+        private synchronized long getEvictions() {
+            return evictions;
+        }
+    }
+}
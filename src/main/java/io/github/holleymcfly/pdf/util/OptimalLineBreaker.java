@@ -0,0 +1,157 @@
+package io.github.holleymcfly.pdf.util;
+
+import io.github.holleymcfly.pdf.model.PdfFormattedText;
+
+import java.util.Arrays;
+
+/**
+ * <b>Total-fit line breaking, in the style of Knuth and Plass.</b><br>
+ * <br>
+ * The breaks are chosen for the whole paragraph at once, so that the sum of the squared free space at the end of
+ * each line (except the last one) is as small as possible. This gives evenly filled lines, where the greedy line
+ * breaker may leave single lines much shorter than the others.<br>
+ * <br>
+ * Only breaks whose line still fits are considered, so the number of active breaks for each word is bounded by the
+ * number of words fitting into a line, and the running time is linear in the number of words.<br>
+ * <br>
+ * The results are cached, as the same paragraphs (e.g. legal texts) are often printed in every document.
+ * Paragraphs are identified by their texts, fonts and the line width, so the words of a cached paragraph aren't even
+ * measured. Breaking lines by the widths of the words alone isn't cached.
+ */
+public class OptimalLineBreaker implements LineBreaker {
+
+    private static final int DEFAULT_CACHE_SIZE = 1000;
+
+    private final LruCache<Paragraph, int[]> cache;
+
+    public OptimalLineBreaker() {
+        this(DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * @param cacheSize The maximum number of paragraphs whose breaks are cached. 0 disables the cache.
+     */
+    public OptimalLineBreaker(int cacheSize) {
+        this.cache = new LruCache<>(cacheSize);
+    }
+
+    @Override
+    public int[] breakLines(float[] wordWidths, float[] spaceWidths, float lineWidth) {
+        return calculateBreaks(wordWidths, spaceWidths, lineWidth);
+    }
+
+    @Override
+    public int[] breakLines(PdfFormattedText[] text, Words words, float lineWidth) {
+
+        Paragraph paragraph = new Paragraph(text.clone(), lineWidth);
+        int[] lineStarts = cache.get(paragraph);
+        if (lineStarts == null) {
+            lineStarts = calculateBreaks(words.getWordWidths(), words.getSpaceWidths(), lineWidth);
+            cache.put(paragraph, lineStarts);
+        }
+
+        return lineStarts.clone();
+    }
+
+    private int[] calculateBreaks(float[] wordWidths, float[] spaceWidths, float lineWidth) {
+
+        int numberOfWords = wordWidths.length;
+        if (numberOfWords == 0) {
+            return new int[] { 0 };
+        }
+
+        // widths[k] is the width of the first k words, each including the space following it.
+        double[] widths = new double[numberOfWords + 1];
+        for (int k=0; k<numberOfWords; k++) {
+            widths[k+1] = widths[k] + wordWidths[k] + spaceWidths[k];
+        }
+
+        // costs[j] is the minimal cost of breaking the first j words into lines,
+        // lineStarts[j] the index of the first word of the last of those lines.
+        double[] costs = new double[numberOfWords + 1];
+        int[] lineStarts = new int[numberOfWords + 1];
+
+        for (int end=1; end<=numberOfWords; end++) {
+
+            costs[end] = Double.POSITIVE_INFINITY;
+            for (int start=end-1; start>=0; start--) {
+
+                double width = widths[end] - widths[start];
+                boolean fits = width < lineWidth;
+                if (!fits && start < end-1) {
+                    // The line doesn't fit anymore, and it only gets wider when starting further in front.
+                    break;
+                }
+
+                double cost = costs[start] + getLineCost(width - spaceWidths[end-1], lineWidth, end == numberOfWords);
+                if (cost < costs[end]) {
+                    costs[end] = cost;
+                    lineStarts[end] = start;
+                }
+            }
+        }
+
+        IntArray reversed = new IntArray();
+        for (int end=numberOfWords; end>0; end=lineStarts[end]) {
+            reversed.add(lineStarts[end]);
+        }
+
+        int[] result = new int[reversed.size()];
+        for (int i=0; i<result.length; i++) {
+            result[i] = reversed.get(result.length-1-i);
+        }
+        return result;
+    }
+
+    private double getLineCost(double contentWidth, float lineWidth, boolean lastLine) {
+
+        double freeSpace = lineWidth - contentWidth;
+        if (lastLine || freeSpace < 0) {
+            // The last line may be as short as it is, and a single word too wide for a line can't be avoided.
+            return 0;
+        }
+
+        return freeSpace * freeSpace;
+    }
+
+    /**
+     * <b>Returns the cache of calculated breaks, e.g. for monitoring its hit rate.</b>
+     */
+    public LruCache<?, ?> getCache() {
+        return cache;
+    }
+
+    private static final class Paragraph {
+
+        private final PdfFormattedText[] text;
+        private final float lineWidth;
+        private final int hashCode;
+
+        private Paragraph(PdfFormattedText[] text, float lineWidth) {
+            this.text = text;
+            this.lineWidth = lineWidth;
+            this.hashCode = 31 * Arrays.hashCode(text) + Float.hashCode(lineWidth);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Paragraph)) {
+                return false;
+            }
+
+            Paragraph other = (Paragraph) o;
+            return hashCode == other.hashCode
+                    && Float.compare(lineWidth, other.lineWidth) == 0
+                    && Arrays.equals(text, other.text);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -17,13 +17,40 @@ public class TextHelper {
     public static float getTextWidth(String text, PdfFont font) {
 
         try {
-            return font.getFont().getStringWidth(text) / 1000 * font.getSize();
+            return font.getMetrics().getTextWidth(text, font.getSize());
         }
         catch (IOException e) {
             throw new RuntimeException("Could not calculate the width of " + text, e);
         }
     }
 
+    /**
+     * <b>Calculates the width of a part of the given text and font.</b>
+     * @param text The text containing the part for which the width shall be calculated.
+     * @param start The index of the first character of the part.
+     * @param end The index after the last character of the part.
+     * @param font The font that is used for calculating the text width.
+     * @return The width of the part of the text.
+     */
+    public static float getTextWidth(CharSequence text, int start, int end, PdfFont font) {
+
+        try {
+            return font.getMetrics().getTextWidth(text, start, end, font.getSize());
+        }
+        catch (IOException e) {
+            throw new RuntimeException("Could not calculate the width of " + text.subSequence(start, end), e);
+        }
+    }
+
+    /**
+     * <b>Calculates the height of a single line of text in the given font.</b>
+     * @param font The font that is used for calculating the line height.
+     * @return The line height.
+     */
+    public static float getLineHeight(PdfFont font) {
+        return font.getMetrics().getLineHeight(font.getSize());
+    }
+
     /**
      * <b>Calculates the maximum height of the list of texts and corresponding fonts.</b>
      * @param words The list of words, including theirs fonts for calculating the line height.
@@ -35,8 +62,7 @@ public class TextHelper {
 
         for (PdfFormattedText word : words) {
 
-            float height = word.getFont().getFont().getFontDescriptor().getFontBoundingBox().getHeight() / 1000 *
-                    word.getFont().getSize();
+            float height = getLineHeight(word.getFont());
             if (height > maxHeight) {
                 maxHeight = height;
             }
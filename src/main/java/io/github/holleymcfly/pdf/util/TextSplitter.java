@@ -4,100 +4,209 @@ import io.github.holleymcfly.pdf.model.PdfFormattedText;
 
 import java.util.LinkedList;
 
+/**
+ * <b>Splits up text into lines that fit into a given width.</b><br>
+ * <br>
+ * The words are kept as index ranges over the original texts, and the lines as the indexes of their first words.
+ * Strings are only created for the resulting lines.
+ */
 public class TextSplitter {
 
-    private final LinkedList<PdfFormattedText> formattedText;
-    private LinkedList<PdfFormattedText> formattedWords;
+    private final PdfFormattedText[] formattedText;
     private final float lineWidth;
+    private final LineBreaker lineBreaker;
+
+    // The words, each one given by the index of its formatted text and its start and end index within that text.
+    private final IntArray wordTexts = new IntArray();
+    private final IntArray wordStarts = new IntArray();
+    private final IntArray wordEnds = new IntArray();
+
+    // The index of the first word of each line.
+    private int[] lineStarts;
 
     public TextSplitter(PdfFormattedText f, float lineWidth) {
+        this(f, lineWidth, LineBreaker.GREEDY);
+    }
+
+    public TextSplitter(PdfFormattedText f, float lineWidth, LineBreaker lineBreaker) {
 
-        this.formattedText = new LinkedList<>();
-        this.formattedText.add(f);
+        this.formattedText = new PdfFormattedText[] { f };
         this.lineWidth = lineWidth;
+        this.lineBreaker = lineBreaker;
 
-        convertToFormattedWords();
+        findWords();
     }
 
     public TextSplitter(LinkedList<PdfFormattedText> formattedText, float lineWidth) {
-        this.formattedText = new LinkedList<>(formattedText);
+        this(formattedText, lineWidth, LineBreaker.GREEDY);
+    }
+
+    public TextSplitter(LinkedList<PdfFormattedText> formattedText, float lineWidth, LineBreaker lineBreaker) {
+        this.formattedText = formattedText.toArray(new PdfFormattedText[0]);
         this.lineWidth = lineWidth;
+        this.lineBreaker = lineBreaker;
+
+        findWords();
+    }
+
+    /**
+     * Splits up the text information (some text with its fonts) into single words, separated by a space.
+     * Just like <code>String.split(" ")</code>, empty words at the end of a text are dropped.
+     */
+    private void findWords() {
+
+        for (int i=0; i<formattedText.length; i++) {
+
+            String text = formattedText[i].getText();
+            int firstWord = wordTexts.size();
+            int start = 0;
+            int space;
+            while ((space = text.indexOf(' ', start)) != -1) {
+                addWord(i, start, space);
+                start = space + 1;
+            }
+            addWord(i, start, text.length());
+
+            // Drop the empty words at the end, unless the text doesn't contain any space at all.
+            if (start > 0) {
+                removeTrailingEmptyWords(firstWord);
+            }
+        }
+    }
+
+    private void addWord(int text, int start, int end) {
+        wordTexts.add(text);
+        wordStarts.add(start);
+        wordEnds.add(end);
+    }
+
+    private void removeTrailingEmptyWords(int firstWord) {
+
+        int numberOfWords = wordTexts.size();
+        while (numberOfWords > firstWord && wordStarts.get(numberOfWords-1) == wordEnds.get(numberOfWords-1)) {
+            numberOfWords--;
+        }
+
+        wordTexts.truncate(numberOfWords);
+        wordStarts.truncate(numberOfWords);
+        wordEnds.truncate(numberOfWords);
+    }
 
-        convertToFormattedWords();
+    /**
+     * <b>Finds the first word of each line.</b><br>
+     * <br>
+     * The line breaker decides where the lines are broken. It measures the words, unless it knows the text already.
+     */
+    private int[] breakLines() {
+
+        if (lineStarts == null) {
+            lineStarts = lineBreaker.breakLines(formattedText, new MeasuredWords(), lineWidth);
+        }
+
+        return lineStarts;
+    }
+
+    private float getWordWidth(int word) {
+        PdfFormattedText text = formattedText[wordTexts.get(word)];
+        return TextHelper.getTextWidth(text.getText(), wordStarts.get(word), wordEnds.get(word), text.getFont());
     }
 
     /**
-     * Splits up the text information (some text with its fonts) into single word information (single words with
-     * its fonts).
+     * <b>Measures the words of the text, once their widths are requested.</b>
      */
-    private void convertToFormattedWords() {
+    private final class MeasuredWords implements LineBreaker.Words {
 
-        formattedWords = new LinkedList<>();
+        private float[] wordWidths;
+        private float[] spaceWidths;
 
-        for (PdfFormattedText text : formattedText) {
+        @Override
+        public float[] getWordWidths() {
+            measure();
+            return wordWidths;
+        }
+
+        @Override
+        public float[] getSpaceWidths() {
+            measure();
+            return spaceWidths;
+        }
+
+        private void measure() {
+
+            if (wordWidths != null) {
+                return;
+            }
 
-            String[] words = text.getText().split(" ");
-            for (String word : words) {
-                formattedWords.add(new PdfFormattedText(word, text.getFont()));
+            float[] textSpaceWidths = new float[formattedText.length];
+            for (int i=0; i<formattedText.length; i++) {
+                textSpaceWidths[i] = TextHelper.getTextWidth(" ", formattedText[i].getFont());
+            }
+
+            int numberOfWords = wordTexts.size();
+            wordWidths = new float[numberOfWords];
+            spaceWidths = new float[numberOfWords];
+            for (int word=0; word<numberOfWords; word++) {
+                wordWidths[word] = getWordWidth(word);
+                spaceWidths[word] = textSpaceWidths[wordTexts.get(word)];
             }
         }
     }
 
+    private int getLineEnd(int[] lineStarts, int line) {
+        return line + 1 < lineStarts.length ? lineStarts[line+1] : wordTexts.size();
+    }
+
     public LinkedList<LinkedList<PdfFormattedText>> splitUpTextWithWords() {
 
+        int[] lineStarts = breakLines();
         LinkedList<LinkedList<PdfFormattedText>> result = new LinkedList<>();
 
-        float textWidth = 0;
-        LinkedList<PdfFormattedText> wordsInALine = new LinkedList<>();
-        for (PdfFormattedText formattedWord : formattedWords) {
+        for (int line=0; line<lineStarts.length; line++) {
+
+            LinkedList<PdfFormattedText> wordsInALine = new LinkedList<>();
+            for (int word=lineStarts[line]; word<getLineEnd(lineStarts, line); word++) {
+
+                PdfFormattedText text = formattedText[wordTexts.get(word)];
+                int start = wordStarts.get(word);
+                int end = wordEnds.get(word);
 
-            textWidth += TextHelper.getTextWidth(formattedWord.getText(), formattedWord.getFont());
-            textWidth += TextHelper.getTextWidth(" ", formattedWord.getFont());
-            if (textWidth < lineWidth) {
-                if (wordsInALine.size() > 0) {
-                    wordsInALine.add(new PdfFormattedText(" " + formattedWord.getText(), formattedWord.getFont()));
+                if (wordsInALine.isEmpty()) {
+                    wordsInALine.add(new PdfFormattedText(text.getText().substring(start, end), text.getFont()));
+                }
+                else if (start > 0) {
+                    // The word is preceded by a space in its text, so that can be taken as well.
+                    wordsInALine.add(new PdfFormattedText(text.getText().substring(start-1, end), text.getFont()));
                 }
                 else {
-                    wordsInALine.add(new PdfFormattedText(formattedWord.getText(), formattedWord.getFont()));
+                    wordsInALine.add(new PdfFormattedText(" " + text.getText().substring(start, end), text.getFont()));
                 }
             }
-            else {
-                result.add(new LinkedList<>(wordsInALine));
-                wordsInALine.clear();
-                wordsInALine.add(new PdfFormattedText(formattedWord.getText(), formattedWord.getFont()));
-                textWidth = TextHelper.getTextWidth(formattedWord.getText(), formattedWord.getFont());
-            }
+
+            result.add(wordsInALine);
         }
 
-        result.add(wordsInALine);
         return result;
     }
 
     public String[] splitUpText() {
 
-        LinkedList<String> result = new LinkedList<>();
+        int[] lineStarts = breakLines();
+        String[] result = new String[lineStarts.length];
 
-        float textWidth = 0;
         StringBuilder line = new StringBuilder();
-        for (PdfFormattedText formattedWord : formattedWords) {
+        for (int i=0; i<lineStarts.length; i++) {
 
-            textWidth += TextHelper.getTextWidth(formattedWord.getText(), formattedWord.getFont());
-            textWidth += TextHelper.getTextWidth(" ", formattedWord.getFont());
-            if (textWidth < lineWidth) {
+            line.setLength(0);
+            for (int word=lineStarts[i]; word<getLineEnd(lineStarts, i); word++) {
                 if (line.length() > 0) {
                     line.append(" ");
                 }
-                line.append(formattedWord.getText());
-            }
-            else {
-                result.add(line.toString());
-                line.setLength(0);
-                line.append(formattedWord.getText());
-                textWidth = TextHelper.getTextWidth(formattedWord.getText(), formattedWord.getFont());
+                line.append(formattedText[wordTexts.get(word)].getText(), wordStarts.get(word), wordEnds.get(word));
             }
+
+            result[i] = line.toString();
         }
 
-        result.add(line.toString());
-        return result.toArray(new String[0]);
+        return result;
     }
 }
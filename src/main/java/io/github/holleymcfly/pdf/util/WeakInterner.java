@@ -0,0 +1,40 @@
+package io.github.holleymcfly.pdf.util;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * <b>A thread-safe intern pool of immutable values that doesn't keep them alive.</b><br>
+ * <br>
+ * Equal values are mapped to the same instance as long as that instance is used somewhere. Once it isn't used
+ * anymore, it can be garbage collected, and the next equal value becomes the interned one.
+ *
+ * @param <T>   The type of the values, which must implement <code>equals</code> and <code>hashCode</code>.
+ */
+public final class WeakInterner<T> {
+
+    private final Map<T, WeakReference<T>> values = new WeakHashMap<>();
+
+    /**
+     * <b>Returns the interned instance equal to the given value, interning the value if there is none.</b>
+     */
+    public synchronized T intern(T value) {
+
+        WeakReference<T> reference = values.get(value);
+        T interned = reference != null ? reference.get() : null;
+        if (interned == null) {
+            values.put(value, new WeakReference<>(value));
+            interned = value;
+        }
+
+        return interned;
+    }
+
+    /**
+     * <b>Returns the number of interned values that haven't been garbage collected yet.</b>
+     */
+    public synchronized int size() {
+        return values.size();
+    }
+}
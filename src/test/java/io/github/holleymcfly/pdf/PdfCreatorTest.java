@@ -2,6 +2,12 @@ package io.github.holleymcfly.pdf;
 
 import io.github.holleymcfly.pdf.core.PdfCreator;
 import io.github.holleymcfly.pdf.core.PdfCreatorBuilder;
+import io.github.holleymcfly.pdf.layout.PdfImageBlock;
+import io.github.holleymcfly.pdf.layout.PdfLayout;
+import io.github.holleymcfly.pdf.layout.PdfTableBlock;
+import io.github.holleymcfly.pdf.metrics.PdfCounter;
+import io.github.holleymcfly.pdf.metrics.PdfMetricsListener;
+import io.github.holleymcfly.pdf.metrics.PdfPhase;
 import io.github.holleymcfly.pdf.model.PdfFormattedText;
 import io.github.holleymcfly.pdf.model.color.PdfColorBuilder;
 import io.github.holleymcfly.pdf.model.font.PdfFont;
@@ -10,15 +16,50 @@ import io.github.holleymcfly.pdf.model.table.PdfTable;
 import io.github.holleymcfly.pdf.model.table.PdfTableCell;
 import io.github.holleymcfly.pdf.model.table.PdfTableCellBuilder;
 import io.github.holleymcfly.pdf.model.table.PdfTableCellPosition;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDResources;
 import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
 import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.apache.pdfbox.text.TextPosition;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import javax.imageio.ImageIO;
 import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.EnumSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static io.github.holleymcfly.pdf.model.font.PdfFontMetricsTest.copyFontFile;
 
 public class PdfCreatorTest {
 
@@ -278,6 +319,710 @@ public class PdfCreatorTest {
         return table;
     }
 
+    @Test
+    public void everyPageHasASingleContentStream(@TempDir File tempDir) throws IOException {
+
+        PdfFont font = new PdfFontBuilder().build();
+        PdfCreator pdfCreator = new PdfCreatorBuilder()
+                .withHeader("Header", font)
+                .withFooter("Footer", font)
+                .build();
+
+        pdfCreator.addTextLeftAligned(LINE3, font);
+        pdfCreator.addTable(createTable(font, 500));
+        pdfCreator.addTextLeftAligned(LINE2, font);
+
+        File file = new File(tempDir, "contentStreams.pdf");
+        pdfCreator.save(file.getAbsolutePath());
+        pdfCreator.closeDocument();
+
+        try (PDDocument document = Loader.loadPDF(file)) {
+            assertTrue(document.getNumberOfPages() > 1);
+            for (PDPage page : document.getPages()) {
+                assertEquals(1, countContentStreams(page));
+            }
+        }
+    }
+
+    private int countContentStreams(PDPage page) {
+
+        int count = 0;
+        Iterator<?> contentStreams = page.getContentStreams();
+        while (contentStreams.hasNext()) {
+            contentStreams.next();
+            count++;
+        }
+        return count;
+    }
+
+    @Test
+    public void streamedTableRowsArePrintedLikeTableRows(@TempDir File tempDir) throws IOException {
+
+        PdfFont font = new PdfFontBuilder().build();
+
+        PdfCreator pdfCreator = new PdfCreatorBuilder().build();
+        pdfCreator.addTable(createTable(font, 500));
+        File file = new File(tempDir, "table.pdf");
+        pdfCreator.save(file.getAbsolutePath());
+        pdfCreator.closeDocument();
+
+        pdfCreator = new PdfCreatorBuilder().build();
+        pdfCreator.addTable(new PdfTable(font, 400, 3),
+                IntStream.rangeClosed(1, 500).mapToObj(this::createRow));
+        File streamedFile = new File(tempDir, "streamedTable.pdf");
+        pdfCreator.save(streamedFile.getAbsolutePath());
+        pdfCreator.closeDocument();
+
+        try (PDDocument document = Loader.loadPDF(file);
+             PDDocument streamedDocument = Loader.loadPDF(streamedFile)) {
+            assertTrue(document.getNumberOfPages() > 1);
+            assertEquals(document.getNumberOfPages(), streamedDocument.getNumberOfPages());
+
+            // Dropped, reordered or repeated rows would change the text of at least one page.
+            PDFTextStripper textStripper = new PDFTextStripper();
+            for (int page=1; page<=document.getNumberOfPages(); page++) {
+                textStripper.setStartPage(page);
+                textStripper.setEndPage(page);
+                assertEquals(textStripper.getText(document), textStripper.getText(streamedDocument), "Page " + page);
+            }
+
+            textStripper.setStartPage(1);
+            textStripper.setEndPage(streamedDocument.getNumberOfPages());
+            String text = textStripper.getText(streamedDocument);
+            assertEquals(1500, text.split("Row ", -1).length - 1);
+            assertTrue(text.indexOf("Row 499, column 3") < text.indexOf("Row 500, column 1"));
+        }
+    }
+
+    @Test
+    public void documentIsSavedToStreamsAndChannels(@TempDir File tempDir) throws IOException {
+
+        PdfFont font = new PdfFontBuilder().build();
+        PdfCreator pdfCreator = new PdfCreatorBuilder()
+                .withScratchFile(64 * 1024, tempDir)
+                .build();
+        pdfCreator.addTable(createTable(font, 200));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        pdfCreator.save(outputStream);
+
+        ByteArrayOutputStream channelStream = new ByteArrayOutputStream();
+        pdfCreator.save(Channels.newChannel(channelStream));
+        pdfCreator.closeDocument();
+
+        try (PDDocument document = Loader.loadPDF(outputStream.toByteArray());
+             PDDocument channelDocument = Loader.loadPDF(channelStream.toByteArray())) {
+            assertTrue(document.getNumberOfPages() > 1);
+            assertEquals(document.getNumberOfPages(), channelDocument.getNumberOfPages());
+        }
+    }
+
+    @Test
+    public void repeatedImagesAreEmbeddedOnce(@TempDir File tempDir) throws IOException {
+
+        File imageFile = new File(tempDir, "logo.png");
+        ImageIO.write(new BufferedImage(40, 20, BufferedImage.TYPE_INT_RGB), "png", imageFile);
+
+        PdfCreator pdfCreator = new PdfCreatorBuilder().build();
+        for (int i=0; i<20; i++) {
+            pdfCreator.addImage(imageFile.getAbsolutePath());
+            pdfCreator.addImage(imageFile.getAbsolutePath(), 80, 40);
+            pdfCreator.newPage();
+        }
+
+        assertEquals(1, pdfCreator.getImageCache().getMisses());
+        assertEquals(39, pdfCreator.getImageCache().getHits());
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        pdfCreator.save(outputStream);
+        pdfCreator.closeDocument();
+
+        try (PDDocument document = Loader.loadPDF(outputStream.toByteArray())) {
+            Set<COSBase> images = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (PDPage page : document.getPages()) {
+                if (page.getResources() == null) {
+                    continue;
+                }
+                for (COSName name : page.getResources().getXObjectNames()) {
+                    images.add(page.getResources().getXObject(name).getCOSObject());
+                }
+            }
+            assertEquals(1, images.size());
+        }
+    }
+
+    @Test
+    public void largeImagesAreDownsampledAndJpegsEmbeddedAsTheyAre(@TempDir File tempDir) throws IOException {
+
+        File scanFile = new File(tempDir, "scan.png");
+        ImageIO.write(new BufferedImage(2000, 2600, BufferedImage.TYPE_BYTE_GRAY), "png", scanFile);
+        File photoFile = new File(tempDir, "photo.bin");
+        ImageIO.write(new BufferedImage(300, 200, BufferedImage.TYPE_INT_RGB), "jpg", photoFile);
+
+        PdfCreator pdfCreator = new PdfCreatorBuilder().withImageResolution(150).build();
+        pdfCreator.addImage(scanFile.getAbsolutePath(), 200, 260);
+        pdfCreator.addImage(photoFile.getAbsolutePath(), 30, 20);
+        pdfCreator.addLayout(new PdfLayout().add(new PdfImageBlock(scanFile.getAbsolutePath(), 200, 260)));
+
+        // The layout draws the scan with the same size, so it reuses the downsampled image.
+        assertEquals(2, pdfCreator.getImageCache().getMisses());
+        assertEquals(1, pdfCreator.getImageCache().getHits());
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        pdfCreator.save(outputStream);
+        pdfCreator.closeDocument();
+
+        try (PDDocument document = Loader.loadPDF(outputStream.toByteArray())) {
+            PDResources resources = document.getPage(0).getResources();
+            List<PDImageXObject> images = new ArrayList<>();
+            for (COSName name : resources.getXObjectNames()) {
+                images.add((PDImageXObject) resources.getXObject(name));
+            }
+            assertEquals(2, images.size());
+            images.sort(Comparator.comparingInt(PDImageXObject::getWidth));
+
+            // 150 dpi need 417 x 542 pixels, so every 4th pixel is taken.
+            assertEquals(300, images.get(0).getWidth());
+            assertEquals(500, images.get(1).getWidth());
+            assertEquals(650, images.get(1).getHeight());
+
+            PDImageXObject photo = images.get(0);
+            assertEquals(Collections.singletonList(COSName.DCT_DECODE), photo.getStream().getFilters());
+            List<String> stopFilters = Collections.singletonList(COSName.DCT_DECODE.getName());
+            try (InputStream inputStream = photo.getStream().createInputStream(stopFilters)) {
+                assertArrayEquals(Files.readAllBytes(photoFile.toPath()), inputStream.readAllBytes());
+            }
+        }
+    }
+
+    @Test
+    public void metricsAreReportedToTheListener(@TempDir File tempDir) throws IOException {
+
+        File imageFile = new File(tempDir, "logo.png");
+        ImageIO.write(new BufferedImage(40, 20, BufferedImage.TYPE_INT_RGB), "png", imageFile);
+
+        Map<PdfPhase, Integer> phases = new ConcurrentHashMap<>();
+        Map<PdfCounter, Long> counters = new ConcurrentHashMap<>();
+        PdfMetricsListener listener = new PdfMetricsListener() {
+            @Override
+            public void phaseCompleted(PdfPhase phase, long durationNanos) {
+                assertTrue(durationNanos >= 0);
+                phases.merge(phase, 1, Integer::sum);
+            }
+
+            @Override
+            public void counted(PdfCounter counter, long amount) {
+                counters.merge(counter, amount, Long::sum);
+            }
+        };
+
+        PdfFont font = new PdfFontBuilder().build();
+        PdfCreator pdfCreator = new PdfCreatorBuilder().withMetricsListener(listener).build();
+        pdfCreator.addTextLeftAligned("Some text", font);
+        pdfCreator.addTable(createTable(font, 3));
+        pdfCreator.addImage(imageFile.getAbsolutePath());
+        pdfCreator.addImage(imageFile.getAbsolutePath());
+        pdfCreator.newPage();
+        pdfCreator.addLayout(new PdfLayout().addText(LINE2, font));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        pdfCreator.save(outputStream);
+        pdfCreator.closeDocument();
+
+        assertEquals(EnumSet.allOf(PdfPhase.class), phases.keySet());
+        assertEquals(2, phases.get(PdfPhase.IMAGE_EMBEDDING));
+        assertEquals(1, phases.get(PdfPhase.SAVE));
+        assertEquals(2, counters.get(PdfCounter.PAGES));
+        assertEquals(1, counters.get(PdfCounter.IMAGES_EMBEDDED));
+        assertEquals(outputStream.size(), counters.get(PdfCounter.BYTES_WRITTEN));
+    }
+
+    @Test
+    public void headerAndFooterAreDrawnFromSharedForms() throws IOException {
+
+        PdfFont font = new PdfFontBuilder().build();
+        PdfCreator pdfCreator = new PdfCreatorBuilder()
+                .withHeader("Static header", font)
+                .withFooter("Page " + PdfCreator.PAGE_NUMBER_PLACEHOLDER, font)
+                .build();
+        for (int i=0; i<4; i++) {
+            pdfCreator.addTextLeftAligned("Content of page " + (i+1), font);
+            pdfCreator.newPage();
+        }
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        pdfCreator.save(outputStream);
+        pdfCreator.closeDocument();
+
+        try (PDDocument document = Loader.loadPDF(outputStream.toByteArray())) {
+            assertEquals(5, document.getNumberOfPages());
+
+            Set<COSBase> forms = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (PDPage page : document.getPages()) {
+                for (COSName name : page.getResources().getXObjectNames()) {
+                    forms.add(page.getResources().getXObject(name).getCOSObject());
+                }
+            }
+            assertEquals(2, forms.size());
+
+            PDFTextStripper textStripper = new PDFTextStripper();
+            for (int i=1; i<=document.getNumberOfPages(); i++) {
+                textStripper.setStartPage(i);
+                textStripper.setEndPage(i);
+                String text = textStripper.getText(document);
+                assertTrue(text.contains("Static header"));
+                assertTrue(text.contains("Page " + i));
+            }
+        }
+    }
+
+    @Test
+    public void layoutPagesArePaintedInParallelLikeInSequence() throws IOException {
+
+        PdfFont font = new PdfFontBuilder().build();
+        PdfLayout layout = new PdfLayout();
+        for (int i=0; i<30; i++) {
+            layout.addText("Paragraph " + i + ": " + LINE2, font);
+        }
+        layout.addTable(createTable(font, 50));
+
+        byte[] sequential = createLayoutDocument(layout, false);
+        byte[] parallel = createLayoutDocument(layout, true);
+        assertEquals(1, layout.getMeasureCache().getMisses());
+
+        try (PDDocument sequentialDocument = Loader.loadPDF(sequential);
+             PDDocument parallelDocument = Loader.loadPDF(parallel)) {
+
+            int numberOfPages = sequentialDocument.getNumberOfPages();
+            assertTrue(numberOfPages > 4);
+            assertEquals(numberOfPages, parallelDocument.getNumberOfPages());
+
+            PDFTextStripper textStripper = new PDFTextStripper();
+            for (int i=1; i<=numberOfPages; i++) {
+                textStripper.setStartPage(i);
+                textStripper.setEndPage(i);
+                String text = textStripper.getText(parallelDocument);
+                assertEquals(textStripper.getText(sequentialDocument), text);
+                assertTrue(text.contains("Page " + i + " of " + numberOfPages));
+                assertEquals(1, countContentStreams(parallelDocument.getPage(i-1)));
+            }
+        }
+    }
+
+    @Test
+    public void keptTogetherTableIsMovedToTheNextPage() throws IOException {
+
+        PdfFont font = new PdfFontBuilder().build();
+        PdfLayout layout = new PdfLayout()
+                .addText(LINE3 + " " + LINE3, font)
+                .add(new PdfTableBlock(createTable(font, 10), true));
+
+        PdfCreator pdfCreator = new PdfCreatorBuilder().build();
+        pdfCreator.addLayout(layout);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        pdfCreator.save(outputStream);
+        pdfCreator.closeDocument();
+
+        try (PDDocument document = Loader.loadPDF(outputStream.toByteArray())) {
+            assertEquals(2, document.getNumberOfPages());
+
+            PDFTextStripper textStripper = new PDFTextStripper();
+            textStripper.setStartPage(2);
+            String text = textStripper.getText(document);
+            assertTrue(text.contains("Row 1, column 1"));
+            assertTrue(text.contains("Row 10, column 3"));
+        }
+    }
+
+    @Test
+    public void bufferedPagesAreCompressedWhenSaving() throws IOException {
+
+        byte[] direct = createBufferedDocument(false);
+        byte[] buffered = createBufferedDocument(true);
+
+        try (PDDocument directDocument = Loader.loadPDF(direct);
+             PDDocument bufferedDocument = Loader.loadPDF(buffered)) {
+
+            int numberOfPages = directDocument.getNumberOfPages();
+            assertTrue(numberOfPages > 4);
+            assertEquals(numberOfPages, bufferedDocument.getNumberOfPages());
+
+            PDFTextStripper textStripper = new PDFTextStripper();
+            for (int i=1; i<=numberOfPages; i++) {
+                textStripper.setStartPage(i);
+                textStripper.setEndPage(i);
+                assertEquals(textStripper.getText(directDocument), textStripper.getText(bufferedDocument));
+
+                PDPage page = bufferedDocument.getPage(i-1);
+                assertEquals(1, countContentStreams(page));
+                assertEquals(COSName.FLATE_DECODE, page.getCOSObject().getCOSStream(COSName.CONTENTS)
+                        .getDictionaryObject(COSName.FILTER));
+            }
+        }
+    }
+
+    @Test
+    public void bufferedPagesCanBeDrawnOnAfterSaving() throws IOException {
+
+        PdfFont font = new PdfFontBuilder().build();
+        PdfCreator pdfCreator = new PdfCreatorBuilder().withParallelSave(true).build();
+        pdfCreator.addTextLeftAligned("Before saving", font);
+        pdfCreator.save(new ByteArrayOutputStream());
+
+        pdfCreator.addTextLeftAligned("After saving", font);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        pdfCreator.save(outputStream);
+        pdfCreator.closeDocument();
+
+        try (PDDocument document = Loader.loadPDF(outputStream.toByteArray())) {
+            String text = new PDFTextStripper().getText(document);
+            assertTrue(text.contains("Before saving"));
+            assertTrue(text.contains("After saving"));
+        }
+    }
+
+    @Test
+    public void rowsHigherThanAPageAreContinuedOnTheNextPage() throws IOException {
+
+        PdfFont font = new PdfFontBuilder().build();
+        PdfTable table = new PdfTable(font, 400, 2);
+        table.addCell(createCell(1, 1, "Long text"));
+        table.addCell(createCell(1, 2, LINE3 + " " + LINE3 + " " + LINE3 + " The end."));
+
+        PdfCreator pdfCreator = new PdfCreatorBuilder().build();
+        pdfCreator.addTable(table);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        pdfCreator.save(outputStream);
+        pdfCreator.closeDocument();
+
+        try (PDDocument document = Loader.loadPDF(outputStream.toByteArray())) {
+            int numberOfPages = document.getNumberOfPages();
+            assertTrue(numberOfPages > 1);
+            assertTrue(getLowestTextY(document) > 30);
+
+            PDFTextStripper textStripper = new PDFTextStripper();
+            textStripper.setStartPage(numberOfPages);
+            assertTrue(textStripper.getText(document).contains("The end."));
+        }
+    }
+
+    @Test
+    public void splitRowsFillThePageAndRepeatTheHeader() throws IOException {
+
+        PdfFont font = new PdfFontBuilder().build();
+        PdfTable table = createTable(font, 30);
+        table.addCell(createCell(31, 1, LINE2 + " " + LINE2 + " The end."));
+        table.setSplitRows(true);
+        table.setNumberOfHeaderRows(1);
+
+        PdfCreator pdfCreator = new PdfCreatorBuilder().build();
+        pdfCreator.addTable(table);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        pdfCreator.save(outputStream);
+        pdfCreator.closeDocument();
+
+        try (PDDocument document = Loader.loadPDF(outputStream.toByteArray())) {
+            assertEquals(2, document.getNumberOfPages());
+
+            PDFTextStripper textStripper = new PDFTextStripper();
+            textStripper.setEndPage(1);
+            String firstPage = textStripper.getText(document);
+            assertTrue(firstPage.contains("Maecenas condimentum"));
+            assertTrue(!firstPage.contains("The end."));
+
+            textStripper.setStartPage(2);
+            textStripper.setEndPage(2);
+            String secondPage = textStripper.getText(document);
+            assertTrue(secondPage.contains("Row 1, column 1"));
+            assertTrue(secondPage.contains("The end."));
+            assertTrue(!secondPage.contains("Row 30, column 1"));
+        }
+    }
+
+    @Test
+    public void headerRowsAreRepeatedOnEachPage() throws IOException {
+
+        PdfFont font = new PdfFontBuilder().build();
+        PdfTable table = createTable(font, 150);
+        table.setNumberOfHeaderRows(2);
+        PdfTable layoutTable = createTable(font, 150);
+        layoutTable.setNumberOfHeaderRows(2);
+
+        PdfCreator pdfCreator = new PdfCreatorBuilder().build();
+        pdfCreator.addTable(table);
+        pdfCreator.newPage();
+        pdfCreator.addLayout(new PdfLayout().add(new PdfTableBlock(layoutTable)));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        pdfCreator.save(outputStream);
+        pdfCreator.closeDocument();
+
+        try (PDDocument document = Loader.loadPDF(outputStream.toByteArray())) {
+            int numberOfPages = document.getNumberOfPages();
+            assertTrue(numberOfPages >= 6);
+
+            PDFTextStripper textStripper = new PDFTextStripper();
+            for (int i=1; i<=numberOfPages; i++) {
+                textStripper.setStartPage(i);
+                textStripper.setEndPage(i);
+                String text = textStripper.getText(document);
+                assertEquals(1, text.split("Row 1, column 1", -1).length - 1);
+                assertEquals(1, text.split("Row 2, column 3", -1).length - 1);
+                assertTrue(text.indexOf("Row 1, column 1") < text.indexOf("Row 2, column 3"));
+            }
+        }
+    }
+
+    @Test
+    public void fontFilesAreEmbeddedAsSubsets(@TempDir File tempDir) throws IOException {
+
+        PdfFont font = new PdfFontBuilder().withFontFile(copyFontFile(tempDir).toString()).build();
+        String names = "\u0416\u0443\u043a\u043e\u0432, \u0391\u03b8\u03ae\u03bd\u03b1, M\u00fcller";
+
+        PdfTable table = createTable(font, 3);
+        table.addCell(createCell(4, 1, names));
+
+        PdfLayout layout = new PdfLayout();
+        for (int i=0; i<40; i++) {
+            layout.addText(names + " " + LINE2, font);
+        }
+
+        PdfCreator pdfCreator = new PdfCreatorBuilder()
+                .withHeader(names, font)
+                .withParallelPainting(true)
+                .build();
+        pdfCreator.addTextLeftAligned(names, font);
+        pdfCreator.addTable(table);
+        pdfCreator.addLayout(layout);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        pdfCreator.save(outputStream);
+        pdfCreator.closeDocument();
+
+        // The whole font file has about 400 KB.
+        assertTrue(outputStream.size() < 200_000);
+
+        try (PDDocument document = Loader.loadPDF(outputStream.toByteArray())) {
+            assertTrue(document.getNumberOfPages() > 4);
+
+            PDFTextStripper textStripper = new PDFTextStripper();
+            Set<COSBase> embeddedFonts = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (int i=1; i<=document.getNumberOfPages(); i++) {
+                textStripper.setStartPage(i);
+                textStripper.setEndPage(i);
+                assertTrue(textStripper.getText(document).contains(names));
+
+                for (COSName fontName : document.getPage(i-1).getResources().getFontNames()) {
+                    PDFont pdFont = document.getPage(i-1).getResources().getFont(fontName);
+                    assertTrue(pdFont.getName().matches("[A-Z]{6}\\+.*"));
+                    embeddedFonts.add(pdFont.getCOSObject());
+                }
+            }
+
+            // The pages painted in parallel use the same font as the header.
+            assertEquals(1, embeddedFonts.size());
+        }
+    }
+
+    @Test
+    public void documentsAreAppendedWithSharedFontsAndImages(@TempDir File tempDir) throws IOException {
+
+        File logoFile = new File(tempDir, "logo.png");
+        ImageIO.write(new BufferedImage(200, 100, BufferedImage.TYPE_INT_RGB), "png", logoFile);
+
+        PdfCreator bundle = new PdfCreatorBuilder().build();
+        bundle.addDocuments(IntStream.range(0, 20).mapToObj(i -> createLetter(i, logoFile)));
+        // The letters of the bundle share the image embedded into the bundle itself.
+        bundle.addImage(logoFile.getAbsolutePath(), 80, 40);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        bundle.save(outputStream);
+        bundle.closeDocument();
+
+        try (PDDocument document = Loader.loadPDF(outputStream.toByteArray())) {
+            assertEquals(20 * 3 + 1, document.getNumberOfPages());
+
+            Set<COSBase> fonts = Collections.newSetFromMap(new IdentityHashMap<>());
+            Set<COSBase> images = Collections.newSetFromMap(new IdentityHashMap<>());
+            PDFTextStripper textStripper = new PDFTextStripper();
+            for (int i=0; i<20*3; i++) {
+                textStripper.setStartPage(i+1);
+                textStripper.setEndPage(i+1);
+                String text = textStripper.getText(document);
+                assertTrue(text.contains("Letter " + (i / 3)));
+                assertTrue(text.contains("Page " + (i % 3 + 1) + " of 3"));
+
+                PDResources resources = document.getPage(i).getResources();
+                for (COSName name : resources.getFontNames()) {
+                    fonts.add(resources.getFont(name).getCOSObject());
+                }
+                for (COSName name : resources.getXObjectNames()) {
+                    if (resources.isImageXObject(name)) {
+                        images.add(resources.getXObject(name).getCOSObject());
+                    }
+                }
+            }
+
+            assertEquals(1, fonts.size());
+            assertEquals(1, images.size());
+        }
+    }
+
+    @Test
+    public void contentAfterAppendedDocumentsStartsOnANewPage(@TempDir File tempDir) throws IOException {
+
+        File logoFile = new File(tempDir, "logo.png");
+        ImageIO.write(new BufferedImage(200, 100, BufferedImage.TYPE_INT_RGB), "png", logoFile);
+        PdfFont font = new PdfFontBuilder().build();
+
+        PdfCreator bundle = new PdfCreatorBuilder().build();
+        bundle.addTextLeftAligned("Cover letter", font);
+        bundle.addDocument(createLetter(1, logoFile));
+
+        // The page started after the appended document isn't saved as long as it's empty.
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        bundle.save(outputStream);
+        try (PDDocument document = Loader.loadPDF(outputStream.toByteArray())) {
+            assertEquals(4, document.getNumberOfPages());
+        }
+
+        bundle.addTextLeftAligned("Closing page", font);
+        outputStream = new ByteArrayOutputStream();
+        bundle.save(outputStream);
+        bundle.closeDocument();
+
+        try (PDDocument document = Loader.loadPDF(outputStream.toByteArray())) {
+            assertEquals(5, document.getNumberOfPages());
+
+            PDFTextStripper textStripper = new PDFTextStripper();
+            textStripper.setStartPage(1);
+            textStripper.setEndPage(1);
+            assertTrue(textStripper.getText(document).contains("Cover letter"));
+            textStripper.setStartPage(5);
+            textStripper.setEndPage(5);
+            String text = textStripper.getText(document);
+            assertTrue(text.contains("Closing page"));
+            assertTrue(!text.contains("Letter"));
+        }
+    }
+
+    /**
+     * Creates a letter of three pages, painted in parallel for every second letter.
+     */
+    private PdfCreator createLetter(int number, File logoFile) {
+
+        PdfFont font = new PdfFontBuilder().build();
+        PdfCreator pdfCreator = new PdfCreatorBuilder()
+                .withHeader("Letter " + number, font)
+                .withFooter("Page " + PdfCreator.PAGE_NUMBER_PLACEHOLDER + " of " + PdfCreator.PAGE_COUNT_PLACEHOLDER,
+                        font)
+                .withParallelPainting(number % 2 == 0)
+                .build();
+        pdfCreator.addImage(logoFile.getAbsolutePath(), 80, 40);
+
+        PdfLayout layout = new PdfLayout();
+        for (int i=0; i<120; i++) {
+            layout.addText("Line " + i + " of letter " + number, font);
+        }
+        pdfCreator.addLayout(layout);
+        return pdfCreator;
+    }
+
+    private PdfTableCell createCell(int row, int column, String content) {
+
+        return new PdfTableCellBuilder()
+                .withPosition(new PdfTableCellPosition(row, column))
+                .withContent(content)
+                .build();
+    }
+
+    /**
+     * Returns the lowest baseline of all texts in the document, measured from the bottom of the page.
+     */
+    private float getLowestTextY(PDDocument document) throws IOException {
+
+        float[] lowestY = { Float.MAX_VALUE };
+        PDFTextStripper textStripper = new PDFTextStripper() {
+            @Override
+            protected void writeString(String text, List<TextPosition> textPositions) {
+                for (TextPosition position : textPositions) {
+                    lowestY[0] = Math.min(lowestY[0], position.getPageHeight() - position.getYDirAdj());
+                }
+            }
+        };
+        textStripper.getText(document);
+        return lowestY[0];
+    }
+
+    private byte[] createBufferedDocument(boolean parallelSave) {
+
+        PdfFont font = new PdfFontBuilder().build();
+        PdfCreator pdfCreator = new PdfCreatorBuilder()
+                .withFooter("Page " + PdfCreator.PAGE_NUMBER_PLACEHOLDER, font)
+                .withParallelPainting(true)
+                .withParallelSave(parallelSave)
+                .build();
+        pdfCreator.addTextLeftAligned(LINE3, font);
+        pdfCreator.addTable(createTable(font, 100));
+
+        PdfLayout layout = new PdfLayout();
+        for (int i=0; i<20; i++) {
+            layout.addText(LINE2, font);
+        }
+        pdfCreator.addLayout(layout);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        pdfCreator.save(outputStream);
+        pdfCreator.closeDocument();
+        return outputStream.toByteArray();
+    }
+
+    private byte[] createLayoutDocument(PdfLayout layout, boolean parallelPainting) {
+
+        PdfFont font = new PdfFontBuilder().build();
+        PdfCreator pdfCreator = new PdfCreatorBuilder()
+                .withHeader("Static header", font)
+                .withFooter("Page " + PdfCreator.PAGE_NUMBER_PLACEHOLDER + " of " + PdfCreator.PAGE_COUNT_PLACEHOLDER,
+                        font)
+                .withParallelPainting(parallelPainting)
+                .build();
+        pdfCreator.addTextLeftAligned("Before the layout", font);
+        pdfCreator.addLayout(layout);
+        pdfCreator.addTextLeftAligned("After the layout", font);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        pdfCreator.save(outputStream);
+        pdfCreator.closeDocument();
+        return outputStream.toByteArray();
+    }
+
+    private PdfTable createTable(PdfFont font, int numberOfRows) {
+
+        PdfTable table = new PdfTable(font, 400, 3);
+        for (int row=1; row<=numberOfRows; row++) {
+            for (PdfTableCell cell : createRow(row)) {
+                table.addCell(cell);
+            }
+        }
+        return table;
+    }
+
+    private List<PdfTableCell> createRow(int row) {
+
+        List<PdfTableCell> cells = new ArrayList<>();
+        for (int column=1; column<=3; column++) {
+            cells.add(new PdfTableCellBuilder()
+                    .withPosition(new PdfTableCellPosition(row, column))
+                    .withContent("Row " + row + ", column " + column)
+                    .withBackgroundColor(row % 2 == 0 ? PdfColorBuilder.createPdfColor(Color.LIGHT_GRAY) : null)
+                    .build());
+        }
+        return cells;
+    }
+
     private final static String LINE1_1 = "Lorem ipsum dolor sit amet, consectetur adipiscing elit. Nam ornare dui nisl, in congue mauris tincidunt nec. Nam nec sapien eleifend, ";
     private final static String LINE1_2 = "aliquam purus vitae, iaculis ligula. ";
     private final static String LINE1_3 = "Donec non metus id nulla imperdiet molestie sed eget nibh. Mauris efficitur porttitor consectetur. Mauris imperdiet, mauris quis vehicula iaculis, massa metus lobortis felis, nec vehicula mauris enim vitae nulla. Orci varius natoque penatibus et magnis dis parturient montes, nascetur ridiculus mus. Nullam volutpat tristique tortor, ut pellentesque dui luctus non. Aliquam pharetra eleifend porttitor. Cras maximus ultricies eleifend. Nunc libero mi, facilisis quis fermentum sit amet, maximus nec libero. Praesent ultricies arcu sit amet velit aliquet, vel tincidunt odio iaculis. Aenean tempus odio ut est laoreet, sit amet bibendum justo efficitur. Nam ornare, enim a hendrerit lacinia, ligula libero tempus ipsum, sit amet luctus felis lectus sed dui. Nam dictum ultrices consequat.";
@@ -0,0 +1,196 @@
+package io.github.holleymcfly.pdf.core;
+
+import io.github.holleymcfly.pdf.model.font.PdfFont;
+import io.github.holleymcfly.pdf.model.font.PdfFontBuilder;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PdfBatchGeneratorTest {
+
+    private final static int NUMBER_OF_JOBS = 200;
+
+    @Test
+    public void allDocumentsAreCreated() throws IOException {
+
+        Map<Integer, ByteArrayOutputStream> outputs = new ConcurrentHashMap<>();
+        PdfBatchResult result;
+        try (PdfBatchGenerator generator = new PdfBatchGenerator(4)) {
+            result = generator.generate(IntStream.range(0, NUMBER_OF_JOBS)
+                    .mapToObj(i -> createJob(i, false, outputs)));
+        }
+
+        assertTrue(result.isSuccessful());
+        assertEquals(NUMBER_OF_JOBS, result.getNumberOfSucceededJobs());
+        assertEquals(NUMBER_OF_JOBS, outputs.size());
+        for (int i=0; i<NUMBER_OF_JOBS; i++) {
+            assertDocumentOfJob(i, outputs.get(i));
+        }
+    }
+
+    @Test
+    public void failingJobsDontAffectOtherJobs() throws IOException {
+
+        Map<Integer, ByteArrayOutputStream> outputs = new ConcurrentHashMap<>();
+        PdfBatchResult result;
+        try (PdfBatchGenerator generator = new PdfBatchGenerator(4)) {
+            result = generator.generate(IntStream.range(0, NUMBER_OF_JOBS)
+                    .mapToObj(i -> createJob(i, i % 10 == 0, outputs)));
+        }
+
+        assertFalse(result.isSuccessful());
+        assertEquals(NUMBER_OF_JOBS / 10, result.getNumberOfFailedJobs());
+        assertEquals(NUMBER_OF_JOBS - NUMBER_OF_JOBS / 10, result.getNumberOfSucceededJobs());
+
+        List<PdfBatchFailure> failures = result.getFailures();
+        assertEquals(NUMBER_OF_JOBS / 10, failures.size());
+        for (int i=0; i<NUMBER_OF_JOBS; i++) {
+            if (i % 10 == 0) {
+                PdfBatchFailure failure = failures.get(i / 10);
+                assertEquals(i, failure.getIndex());
+                assertEquals("Job " + i, failure.getJobName());
+                assertFalse(outputs.containsKey(i));
+            }
+            else {
+                assertDocumentOfJob(i, outputs.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void errorsAndJobsWithTheSameNameAreReported() {
+
+        PdfBatchJob failing = new PdfBatchJob("Job", new PdfCreatorBuilder(), pdfCreator -> {
+            throw new AssertionError("Failing job");
+        }, ByteArrayOutputStream::new);
+        PdfBatchJob succeeding = new PdfBatchJob("Job", new PdfCreatorBuilder(),
+                pdfCreator -> pdfCreator.addTextLeftAligned("Text", new PdfFontBuilder().build()),
+                ByteArrayOutputStream::new);
+
+        PdfBatchResult result;
+        try (PdfBatchGenerator generator = new PdfBatchGenerator(2)) {
+            result = generator.generate(Stream.of(failing, succeeding, failing, failing));
+        }
+
+        assertEquals(1, result.getNumberOfSucceededJobs());
+        assertEquals(3, result.getNumberOfFailedJobs());
+        assertEquals(3, result.getFailures().size());
+        assertEquals(List.of(0, 2, 3), result.getFailures().stream().map(PdfBatchFailure::getIndex)
+                .collect(Collectors.toList()));
+        assertInstanceOf(AssertionError.class, result.getFailures().get(0).getCause());
+    }
+
+    @Test
+    public void startedJobsAreWaitedForIfTheJobsCantBeRead() {
+
+        AtomicInteger finished = new AtomicInteger();
+        RuntimeException readError = new IllegalStateException("Can't read the next job");
+        Iterator<PdfBatchJob> jobs = new Iterator<>() {
+            private int i = 0;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public PdfBatchJob next() {
+                if (i++ == 3) {
+                    throw readError;
+                }
+                return new PdfBatchJob("Job", new PdfCreatorBuilder(), pdfCreator -> {
+                    sleep(200);
+                    finished.incrementAndGet();
+                }, ByteArrayOutputStream::new);
+            }
+        };
+
+        try (PdfBatchGenerator generator = new PdfBatchGenerator(4)) {
+            Stream<PdfBatchJob> stream = StreamSupport.stream(Spliterators.spliteratorUnknownSize(jobs, 0), false);
+            assertSame(readError, assertThrows(IllegalStateException.class, () -> generator.generate(stream)));
+        }
+        assertEquals(3, finished.get());
+    }
+
+    @Test
+    public void jobsRunConcurrently() {
+
+        // Each job waits until all of them have started, so they only succeed if they all run at the same time.
+        int concurrentJobs = 8;
+        CountDownLatch started = new CountDownLatch(concurrentJobs);
+        PdfBatchResult result;
+        try (PdfBatchGenerator generator = new PdfBatchGenerator(concurrentJobs)) {
+            result = generator.generate(IntStream.range(0, concurrentJobs).mapToObj(i ->
+                    new PdfBatchJob("Job " + i, new PdfCreatorBuilder(), pdfCreator -> {
+                        started.countDown();
+                        try {
+                            assertTrue(started.await(10, TimeUnit.SECONDS));
+                        }
+                        catch (InterruptedException e) {
+                            throw new IllegalStateException(e);
+                        }
+                    }, ByteArrayOutputStream::new)));
+        }
+
+        assertTrue(result.isSuccessful());
+        assertEquals(concurrentJobs, result.getNumberOfSucceededJobs());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        }
+        catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private PdfBatchJob createJob(int i, boolean failing, Map<Integer, ByteArrayOutputStream> outputs) {
+
+        PdfFont font = new PdfFontBuilder().build();
+        return new PdfBatchJob("Job " + i, new PdfCreatorBuilder().withHeader("Header " + i, font),
+                pdfCreator -> {
+                    pdfCreator.addTextLeftAligned("Document number " + i, font);
+                    if (failing) {
+                        throw new IllegalStateException("Failing job " + i);
+                    }
+                    for (int line=0; line<50; line++) {
+                        pdfCreator.addTextLeftAligned("Line " + line + " of document " + i, font);
+                    }
+                },
+                () -> outputs.computeIfAbsent(i, key -> new ByteArrayOutputStream()));
+    }
+
+    private void assertDocumentOfJob(int i, ByteArrayOutputStream output) throws IOException {
+
+        try (PDDocument document = Loader.loadPDF(output.toByteArray())) {
+            String text = new PDFTextStripper().getText(document);
+            assertTrue(text.contains("Header " + i));
+            assertTrue(text.contains("Document number " + i));
+            assertTrue(text.contains("Line 49 of document " + i));
+        }
+    }
+}
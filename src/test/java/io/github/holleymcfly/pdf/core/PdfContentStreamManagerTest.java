@@ -0,0 +1,73 @@
+package io.github.holleymcfly.pdf.core;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PdfContentStreamManagerTest {
+
+    @Test
+    public void bufferedPagesAreCompressedByMoreThanOneThread() throws IOException {
+
+        // Every page waits until another page is being compressed, which only happens if there are several threads.
+        CountDownLatch concurrentPages = new CountDownLatch(2);
+        AtomicBoolean waitedInVain = new AtomicBoolean();
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+
+        try (PDDocument document = new PDDocument()) {
+            PdfContentStreamManager contentStreamManager = new PdfContentStreamManager(document, true) {
+                @Override
+                byte[] compress(ByteArrayOutputStream buffer) throws IOException {
+                    threads.add(Thread.currentThread());
+                    concurrentPages.countDown();
+                    try {
+                        if (!concurrentPages.await(10, TimeUnit.SECONDS)) {
+                            waitedInVain.set(true);
+                        }
+                    }
+                    catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return super.compress(buffer);
+                }
+            };
+
+            List<PDPage> pages = new ArrayList<>();
+            for (int i=0; i<8; i++) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                pages.add(page);
+
+                ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+                buffer.write(("BT /F1 12 Tf (Page " + i + ") Tj ET").getBytes(StandardCharsets.ISO_8859_1));
+                contentStreamManager.addContents(page, buffer);
+            }
+
+            contentStreamManager.writeBufferedPages();
+
+            assertFalse(waitedInVain.get());
+            assertTrue(threads.size() > 1);
+            for (int i=0; i<pages.size(); i++) {
+                assertNotNull(pages.get(i).getContents());
+                assertEquals("BT /F1 12 Tf (Page " + i + ") Tj ET",
+                        new String(pages.get(i).getContents().readAllBytes(), StandardCharsets.ISO_8859_1));
+            }
+        }
+    }
+}
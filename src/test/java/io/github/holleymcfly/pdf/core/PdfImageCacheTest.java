@@ -0,0 +1,120 @@
+package io.github.holleymcfly.pdf.core;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PdfImageCacheTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void threadsShareTheImageEmbeddedOnce() throws Exception {
+
+        Path file = writeImage("image.png", 400, Color.RED);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try (PDDocument document = new PDDocument()) {
+            PdfImageCache imageCache = new PdfImageCache(document);
+
+            List<Future<PDImageXObject>> images = new ArrayList<>();
+            for (int i=0; i<64; i++) {
+                images.add(executor.submit(() -> imageCache.getImage(file.toString())));
+            }
+
+            PDImageXObject image = images.get(0).get();
+            for (Future<PDImageXObject> other : images) {
+                assertSame(image, other.get());
+            }
+            assertEquals(1, imageCache.size());
+            assertEquals(1, imageCache.getMisses());
+            assertEquals(63, imageCache.getHits());
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void changedFilesAreEmbeddedAgain() throws IOException {
+
+        Path file = writeImage("image.png", 100, Color.RED);
+        try (PDDocument document = new PDDocument()) {
+            PdfImageCache imageCache = new PdfImageCache(document);
+
+            PDImageXObject image = imageCache.getImage(file.toString());
+            assertSame(image, imageCache.getImage(file.toString()));
+
+            writeImage("image.png", 120, Color.BLUE);
+            PDImageXObject changed = imageCache.getImage(file.toString());
+            assertNotSame(image, changed);
+            assertEquals(120, changed.getWidth());
+            assertEquals(2, imageCache.size());
+        }
+    }
+
+    @Test
+    public void downsampledImagesAreTakenFromTheCache() throws IOException {
+
+        Path file = writeImage("image.png", 800, Color.RED);
+        try (PDDocument document = new PDDocument()) {
+            PdfImageCache imageCache = new PdfImageCache(document);
+            imageCache.setResolution(72);
+
+            PDImageXObject image = imageCache.getImage(file.toString(), 100, 100);
+            assertEquals(100, image.getWidth());
+            assertSame(image, imageCache.getImage(file.toString(), 100, 100));
+            assertEquals(1, imageCache.getHits());
+
+            // The size of the changed file is read again, so it is downsampled by another factor.
+            writeImage("image.png", 400, Color.BLUE);
+            assertEquals(100, imageCache.getImage(file.toString(), 100, 100).getWidth());
+        }
+    }
+
+    @Test
+    public void failedImagesAreTriedAgain() throws IOException {
+
+        Path file = directory.resolve("image.png");
+        Files.write(file, new byte[] { 1, 2, 3, 4 });
+        try (PDDocument document = new PDDocument()) {
+            PdfImageCache imageCache = new PdfImageCache(document);
+            assertThrows(Exception.class, () -> imageCache.getImage(file.toString()));
+            assertEquals(0, imageCache.size());
+
+            writeImage("image.png", 50, Color.GREEN);
+            assertEquals(50, imageCache.getImage(file.toString()).getWidth());
+        }
+    }
+
+    private Path writeImage(String name, int size, Color color) throws IOException {
+
+        BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(color);
+        graphics.fillRect(0, 0, size, size);
+        graphics.dispose();
+
+        Path file = directory.resolve(name);
+        ImageIO.write(image, "png", file.toFile());
+        return file;
+    }
+}
@@ -0,0 +1,273 @@
+package io.github.holleymcfly.pdf.core;
+
+import io.github.holleymcfly.pdf.layout.PdfLayout;
+import io.github.holleymcfly.pdf.model.font.PdfFont;
+import io.github.holleymcfly.pdf.model.font.PdfFontBuilder;
+import io.github.holleymcfly.pdf.model.table.PdfTable;
+import io.github.holleymcfly.pdf.model.table.PdfTableCell;
+import io.github.holleymcfly.pdf.model.table.PdfTableCellBuilder;
+import io.github.holleymcfly.pdf.model.table.PdfTableCellPosition;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import static io.github.holleymcfly.pdf.model.font.PdfFontMetricsTest.copyFontFile;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PdfIncrementalWriterTest {
+
+    private final PdfFont font = new PdfFontBuilder().build();
+
+    @Test
+    public void finishedPagesAreWrittenRightAway(@TempDir File tempDir) throws IOException {
+
+        File logoFile = new File(tempDir, "logo.png");
+        ImageIO.write(new BufferedImage(200, 100, BufferedImage.TYPE_INT_RGB), "png", logoFile);
+        PdfFont embeddedFont = new PdfFontBuilder().withFontFile(copyFontFile(tempDir).toString()).build();
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        PdfCreator pdfCreator = createCreatorBuilder()
+                .withIncrementalOutput(outputStream)
+                .build();
+        for (int i=0; i<100; i++) {
+            pdfCreator.addImage(logoFile.getAbsolutePath(), 80, 40);
+            pdfCreator.addTextLeftAligned("Statement " + i, embeddedFont);
+            pdfCreator.newPage();
+            assertEquals(1, pdfCreator.getDocument().getNumberOfPages());
+        }
+        pdfCreator.addTable(createTable(150));
+        assertEquals(1, pdfCreator.getDocument().getNumberOfPages());
+        assertTrue(outputStream.size() > 0);
+
+        pdfCreator.finish();
+        pdfCreator.closeDocument();
+        assertCrossReferencesAreValid(outputStream.toByteArray());
+
+        try (PDDocument document = Loader.loadPDF(outputStream.toByteArray())) {
+            int numberOfPages = document.getNumberOfPages();
+            assertTrue(numberOfPages > 103);
+
+            Set<COSBase> images = Collections.newSetFromMap(new IdentityHashMap<>());
+            PDFTextStripper textStripper = new PDFTextStripper();
+            for (int i=1; i<=numberOfPages; i++) {
+                textStripper.setStartPage(i);
+                textStripper.setEndPage(i);
+                String text = textStripper.getText(document);
+                assertTrue(text.contains("Statement run"));
+                assertTrue(text.contains("Page " + i + " of " + numberOfPages));
+                if (i <= 100) {
+                    assertTrue(text.contains("Statement " + (i-1)));
+                }
+
+                PDResources resources = document.getPage(i-1).getResources();
+                for (COSName name : resources.getXObjectNames()) {
+                    if (resources.isImageXObject(name)) {
+                        images.add(resources.getXObject(name).getCOSObject());
+                    }
+                }
+                for (COSName name : resources.getFontNames()) {
+                    if (resources.getFont(name).isEmbedded()) {
+                        assertTrue(resources.getFont(name).getName().matches("[A-Z]{6}\\+.*"));
+                    }
+                }
+            }
+            assertEquals(1, images.size());
+        }
+    }
+
+    @Test
+    public void incrementallyWrittenDocumentsMatchSavedDocuments() throws IOException {
+
+        ByteArrayOutputStream incrementalOutput = new ByteArrayOutputStream();
+        PdfCreator incremental = createCreatorBuilder()
+                .withIncrementalOutput(incrementalOutput)
+                .withParallelPainting(true)
+                .build();
+        addContent(incremental);
+        incremental.finish();
+        incremental.closeDocument();
+
+        ByteArrayOutputStream savedOutput = new ByteArrayOutputStream();
+        PdfCreator saved = createCreatorBuilder().build();
+        addContent(saved);
+        saved.save(savedOutput);
+        saved.closeDocument();
+
+        assertEquals(getText(savedOutput.toByteArray()), getText(incrementalOutput.toByteArray()));
+    }
+
+    @Test
+    public void filledTemplatesOnlyKeepTheirSharedObjects() throws IOException {
+
+        assertEquals(fillIncrementally(30), fillIncrementally(300));
+    }
+
+    @Test
+    public void appendedDocumentsAreForgottenOnceWritten() throws IOException {
+
+        PdfTemplate template = createTemplate(createCreatorBuilder());
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        PdfCreator bundle = createCreatorBuilder()
+                .withIncrementalOutput(outputStream)
+                .build();
+
+        int[] keptObjects = new int[20];
+        for (int i=0; i<keptObjects.length; i++) {
+            bundle.addDocument(template.fill(createValues("Customer " + i, 60)));
+            keptObjects[i] = bundle.getIncrementalWriter().getNumberOfKeptObjects();
+        }
+        assertEquals(keptObjects[1], keptObjects[keptObjects.length - 1]);
+
+        bundle.finish();
+        bundle.closeDocument();
+        assertCrossReferencesAreValid(outputStream.toByteArray());
+
+        String text = getText(outputStream.toByteArray());
+        assertTrue(text.contains("Booking 60 of Customer 0"));
+        assertTrue(text.contains("Booking 60 of Customer 19"));
+    }
+
+    @Test
+    public void incrementallyWrittenDocumentsArentSaved() {
+
+        PdfCreator pdfCreator = createCreatorBuilder()
+                .withIncrementalOutput(new ByteArrayOutputStream())
+                .build();
+        assertThrows(IllegalStateException.class, () -> pdfCreator.save(new ByteArrayOutputStream()));
+        pdfCreator.closeDocument();
+
+        PdfCreator savedCreator = createCreatorBuilder().build();
+        assertThrows(IllegalStateException.class, savedCreator::finish);
+        savedCreator.closeDocument();
+    }
+
+    private PdfCreatorBuilder createCreatorBuilder() {
+
+        return new PdfCreatorBuilder()
+                .withHeader("Statement run", font)
+                .withFooter("Page " + PdfCreator.PAGE_NUMBER_PLACEHOLDER + " of " + PdfCreator.PAGE_COUNT_PLACEHOLDER,
+                        font);
+    }
+
+    /**
+     * Fills a template that writes its documents incrementally.<br>
+     * <br>
+     * @return  The number of objects kept by the writer once the document has been filled.
+     */
+    private int fillIncrementally(int numberOfRows) throws IOException {
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        PdfTemplate template = createTemplate(createCreatorBuilder().withIncrementalOutput(outputStream));
+        PdfCreator pdfCreator = template.fill(createValues("Alice", numberOfRows));
+        pdfCreator.newPage();
+        int keptObjects = pdfCreator.getIncrementalWriter().getNumberOfKeptObjects();
+
+        pdfCreator.finish();
+        pdfCreator.closeDocument();
+        assertCrossReferencesAreValid(outputStream.toByteArray());
+        assertTrue(getText(outputStream.toByteArray()).contains("Booking " + numberOfRows + " of Alice"));
+        return keptObjects;
+    }
+
+    private PdfTemplate createTemplate(PdfCreatorBuilder creatorBuilder) {
+
+        PdfTable table = new PdfTable(font, 400, 2);
+        table.addCell(createCell(1, 1, "Date"));
+        table.addCell(createCell(1, 2, "Booking"));
+        table.setNumberOfHeaderRows(1);
+
+        return new PdfTemplateBuilder()
+                .withCreator(creatorBuilder)
+                .addText("Statement of {customer}", font)
+                .addTable("bookings", table)
+                .addText("Please check the bookings of this statement.", font)
+                .build();
+    }
+
+    private PdfTemplateValues createValues(String customer, int numberOfRows) {
+
+        List<List<PdfTableCell>> rows = new ArrayList<>();
+        for (int row=1; row<=numberOfRows; row++) {
+            rows.add(List.of(createCell(row, 1, "2024-01-" + (row % 28 + 1)),
+                    createCell(row, 2, "Booking " + row + " of " + customer)));
+        }
+
+        return new PdfTemplateValues()
+                .withValue("customer", customer)
+                .withRows("bookings", rows);
+    }
+
+    private void addContent(PdfCreator pdfCreator) {
+
+        pdfCreator.addTextLeftAligned("Account statement", font);
+        pdfCreator.addTable(createTable(100));
+
+        PdfLayout layout = new PdfLayout();
+        for (int i=0; i<200; i++) {
+            layout.addText("Booking " + i + " of the statement", font);
+        }
+        pdfCreator.addLayout(layout);
+    }
+
+    private PdfTable createTable(int numberOfRows) {
+
+        PdfTable table = new PdfTable(font, 400, 2);
+        for (int row=1; row<=numberOfRows; row++) {
+            table.addCell(createCell(row, 1, "Row " + row));
+            table.addCell(createCell(row, 2, "Amount " + row));
+        }
+        return table;
+    }
+
+    private PdfTableCell createCell(int row, int column, String content) {
+
+        return new PdfTableCellBuilder()
+                .withPosition(new PdfTableCellPosition(row, column))
+                .withContent(content)
+                .build();
+    }
+
+    /**
+     * pdfbox repairs broken cross-reference tables when loading, so their offsets are checked here.
+     */
+    private void assertCrossReferencesAreValid(byte[] pdf) {
+
+        String content = new String(pdf, StandardCharsets.ISO_8859_1);
+        int startxref = content.lastIndexOf("startxref\n");
+        int xref = Integer.parseInt(content.substring(startxref + 10, content.indexOf('\n', startxref + 10)));
+        assertTrue(content.startsWith("xref\n0 ", xref));
+
+        String[] lines = content.substring(xref).split("\r?\n");
+        int size = Integer.parseInt(lines[1].substring(2));
+        for (int i=1; i<size; i++) {
+            int offset = Integer.parseInt(lines[2 + i].substring(0, 10));
+            assertTrue(content.startsWith(i + " 0 obj", offset));
+        }
+    }
+
+    private String getText(byte[] pdf) throws IOException {
+
+        try (PDDocument document = Loader.loadPDF(pdf)) {
+            return new PDFTextStripper().getText(document);
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package io.github.holleymcfly.pdf.core;
+
+import io.github.holleymcfly.pdf.model.font.PdfFont;
+import io.github.holleymcfly.pdf.model.font.PdfFontBuilder;
+import io.github.holleymcfly.pdf.model.table.PdfTable;
+import io.github.holleymcfly.pdf.model.table.PdfTableCell;
+import io.github.holleymcfly.pdf.model.table.PdfTableCellBuilder;
+import io.github.holleymcfly.pdf.model.table.PdfTableCellPosition;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PdfTemplateTest {
+
+    private static final String TERMS = "All prices include the statutory value added tax. Payable within 14 days "
+            + "without deduction. Thank you very much for your order.";
+
+    private final PdfFont font = new PdfFontBuilder().build();
+    private final PdfFont boldFont = new PdfFontBuilder().withFont(Standard14Fonts.FontName.HELVETICA_BOLD).build();
+
+    @Test
+    public void filledDocumentsContainTheStaticAndTheVariableContent() throws IOException {
+
+        PdfTemplate template = createTemplate();
+
+        try (PDDocument document = Loader.loadPDF(fill(template, "Alice", 120))) {
+            assertTrue(document.getNumberOfPages() > 2);
+
+            PDFTextStripper textStripper = new PDFTextStripper();
+            for (int i=1; i<=document.getNumberOfPages(); i++) {
+                textStripper.setStartPage(i);
+                textStripper.setEndPage(i);
+                String text = textStripper.getText(document);
+                assertTrue(text.contains("Invoice header"));
+                assertTrue(text.contains("Page " + i));
+                assertTrue(text.contains("Item"));
+            }
+
+            String text = new PDFTextStripper().getText(document);
+            assertTrue(text.contains("Dear Alice,"));
+            assertTrue(text.contains("Order 4711 of Alice"));
+            assertTrue(text.contains("Article 1 of Alice"));
+            assertTrue(text.contains("Article 120 of Alice"));
+            assertTrue(text.contains("All prices include"));
+            assertTrue(text.indexOf("Article 120 of Alice") < text.indexOf("All prices include"));
+        }
+    }
+
+    @Test
+    public void templatesAreFilledLikeDocumentsCreatedDirectly() throws IOException {
+
+        PdfTemplate template = createTemplate();
+        String filled = getText(fill(template, "Bob", 60));
+
+        PdfCreator pdfCreator = createCreatorBuilder().build();
+        pdfCreator.addTextLeftAligned("Dear Bob,", font);
+        pdfCreator.addTextLeftAligned("Order 4711 of Bob", boldFont);
+        List<List<PdfTableCell>> rows = createRows("Bob", 60);
+        pdfCreator.addTable(createTable(), rows.iterator());
+        pdfCreator.addTextLeftAligned(TERMS, font);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        pdfCreator.save(outputStream);
+        pdfCreator.closeDocument();
+
+        assertEquals(getText(outputStream.toByteArray()), filled);
+    }
+
+    @Test
+    public void templatesCanBeFilledInParallel() throws IOException {
+
+        PdfTemplate template = createTemplate();
+        byte[][] documents = new byte[20][];
+        IntStream.range(0, documents.length).parallel()
+                .forEach(i -> documents[i] = fill(template, "Customer " + i, 30 + i));
+
+        for (int i=0; i<documents.length; i++) {
+            String text = getText(documents[i]);
+            assertTrue(text.contains("Dear Customer " + i + ","));
+            assertTrue(text.contains("Article " + (30 + i) + " of Customer " + i));
+        }
+    }
+
+    @Test
+    public void encodedContentIsDrawnWithOneFormPerDocument() throws IOException {
+
+        PdfTemplate template = createTemplate();
+        Map<COSStream, Integer> fewPages = getForms(template, 30);
+        Map<COSStream, Integer> manyPages = getForms(template, 300);
+
+        // The forms don't depend on the number of pages, the header row of the table is drawn on every page.
+        assertEquals(fewPages.size(), manyPages.size());
+        int numberOfPages = manyPages.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+        assertTrue(numberOfPages > 5);
+        assertEquals(3, manyPages.values().stream().filter(pages -> pages == numberOfPages).count());
+
+        for (COSStream form : manyPages.keySet()) {
+            assertEquals(COSName.FLATE_DECODE, form.getFilters());
+        }
+    }
+
+    @Test
+    public void missingValuesAreRejected() {
+
+        PdfTemplate template = createTemplate();
+        assertThrows(IllegalArgumentException.class, () -> template.fill(new PdfTemplateValues()));
+    }
+
+    private PdfTemplate createTemplate() {
+
+        return new PdfTemplateBuilder()
+                .withCreator(createCreatorBuilder())
+                .addText("Dear {customer},", font)
+                .addText("Order {order} of {customer}", boldFont)
+                .addTable("items", createTable())
+                .addText(TERMS, font)
+                .build();
+    }
+
+    private PdfCreatorBuilder createCreatorBuilder() {
+
+        return new PdfCreatorBuilder()
+                .withHeader("Invoice header", font)
+                .withFooter("Page " + PdfCreator.PAGE_NUMBER_PLACEHOLDER, font);
+    }
+
+    private PdfTable createTable() {
+
+        PdfTable table = new PdfTable(font, 400, 2);
+        table.addCell(createCell(1, 1, "Item"));
+        table.addCell(createCell(1, 2, "Description"));
+        table.setNumberOfHeaderRows(1);
+        return table;
+    }
+
+    /**
+     * Returns the forms drawn on the pages of a filled document, with the number of pages each is drawn on.
+     */
+    private Map<COSStream, Integer> getForms(PdfTemplate template, int numberOfRows) {
+
+        PdfCreator pdfCreator = template.fill(createValues("Carol", numberOfRows));
+        try {
+            Map<COSStream, Integer> forms = new IdentityHashMap<>();
+            for (PDPage page : pdfCreator.getDocument().getPages()) {
+                PDResources resources = page.getResources();
+                for (COSName name : resources.getXObjectNames()) {
+                    COSStream form = (COSStream) resources.getCOSObject().getCOSDictionary(COSName.XOBJECT)
+                            .getDictionaryObject(name);
+                    forms.merge(form, 1, Integer::sum);
+                }
+            }
+            return forms;
+        }
+        finally {
+            pdfCreator.closeDocument();
+        }
+    }
+
+    private PdfTemplateValues createValues(String customer, int numberOfRows) {
+
+        return new PdfTemplateValues()
+                .withValue("customer", customer)
+                .withValue("order", "4711")
+                .withRows("items", createRows(customer, numberOfRows));
+    }
+
+    private byte[] fill(PdfTemplate template, String customer, int numberOfRows) {
+
+        PdfCreator pdfCreator = template.fill(createValues(customer, numberOfRows));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        pdfCreator.save(outputStream);
+        pdfCreator.closeDocument();
+        return outputStream.toByteArray();
+    }
+
+    private List<List<PdfTableCell>> createRows(String customer, int numberOfRows) {
+
+        List<List<PdfTableCell>> rows = new ArrayList<>();
+        for (int row=1; row<=numberOfRows; row++) {
+            List<PdfTableCell> cells = new ArrayList<>();
+            cells.add(createCell(row, 1, String.valueOf(row)));
+            cells.add(createCell(row, 2, "Article " + row + " of " + customer));
+            rows.add(cells);
+        }
+        return rows;
+    }
+
+    private PdfTableCell createCell(int row, int column, String content) {
+
+        return new PdfTableCellBuilder()
+                .withPosition(new PdfTableCellPosition(row, column))
+                .withContent(content)
+                .build();
+    }
+
+    private String getText(byte[] pdf) {
+
+        try (PDDocument document = Loader.loadPDF(pdf)) {
+            return new PDFTextStripper().getText(document);
+        }
+        catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package io.github.holleymcfly.pdf.layout;
+
+import io.github.holleymcfly.pdf.model.color.PdfColorBuilder;
+import io.github.holleymcfly.pdf.model.font.PdfFont;
+import io.github.holleymcfly.pdf.model.font.PdfFontBuilder;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.apache.pdfbox.pdmodel.interactive.annotation.PDAppearanceStream;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class PdfGraphicsStateTest {
+
+    private static final PdfFont FONT = new PdfFontBuilder().build();
+    private static final PdfFont RED = new PdfFontBuilder()
+            .withColor(PdfColorBuilder.createPdfColor(Color.RED))
+            .build();
+
+    @Test
+    public void unchangedFontsAndColorsAreSetOnce() throws IOException {
+
+        String operations = paint(graphicsState -> {
+            PDType1Font font = new PDType1Font(Standard14Fonts.FontName.TIMES_ROMAN);
+            for (int i=0; i<3; i++) {
+                graphicsState.beginText();
+                graphicsState.newLineAtOffset(10, 100 - i * 12);
+                graphicsState.showText("Line " + i, FONT, font);
+                graphicsState.endText();
+            }
+            graphicsState.setNonStrokingColor(FONT.getColor());
+        });
+
+        assertEquals(1, count(operations, " Tf"));
+        assertEquals(1, count(operations, " sc"));
+        assertEquals(3, count(operations, "Tj"));
+    }
+
+    @Test
+    public void textsOfTheSameFontAreShownTogether() throws IOException {
+
+        String operations = paint(graphicsState -> {
+            PDType1Font font = new PDType1Font(Standard14Fonts.FontName.TIMES_ROMAN);
+            graphicsState.beginText();
+            graphicsState.showText("Some", FONT, font);
+            graphicsState.showText(" text", FONT, font);
+            graphicsState.showText(" in red", RED, font);
+            graphicsState.showText(" and black", FONT, font);
+            graphicsState.endText();
+        });
+
+        assertEquals(1, count(operations, " Tf"));
+        assertEquals(3, count(operations, " sc"));
+        assertEquals(3, count(operations, "Tj"));
+        assertEquals(1, count(operations, "(Some text) Tj"));
+    }
+
+    @Test
+    public void resetStatesSetTheFontAgain() throws IOException {
+
+        String operations = paint(graphicsState -> {
+            PDType1Font font = new PDType1Font(Standard14Fonts.FontName.TIMES_ROMAN);
+            graphicsState.setFont(font, 12);
+            graphicsState.setFont(font, 12);
+            graphicsState.reset();
+            graphicsState.setFont(font, 12);
+            graphicsState.setFont(font, 10);
+        });
+
+        assertEquals(3, count(operations, " Tf"));
+    }
+
+    private String paint(Painting painting) throws IOException {
+
+        try (PDDocument document = new PDDocument()) {
+            PDAppearanceStream resourceHolder = new PDAppearanceStream(new COSStream());
+            resourceHolder.setResources(new PDResources());
+
+            ByteArrayOutputStream operations = new ByteArrayOutputStream();
+            try (PDPageContentStream contentStream = new PDPageContentStream(document, resourceHolder, operations)) {
+                painting.paint(new PdfGraphicsState(contentStream));
+            }
+            return operations.toString(StandardCharsets.ISO_8859_1);
+        }
+    }
+
+    private int count(String operations, String operator) {
+        return operations.split(Pattern.quote(operator), -1).length - 1;
+    }
+
+    private interface Painting {
+        void paint(PdfGraphicsState graphicsState) throws IOException;
+    }
+}
@@ -0,0 +1,139 @@
+package io.github.holleymcfly.pdf.layout;
+
+import io.github.holleymcfly.pdf.util.LineBreaker;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class PdfMeasuredLayoutTest {
+
+    // Pages with room for exactly 10 boxes of height 10.
+    private static final float PAGE_TOP = 120;
+    private static final float PAGE_BOTTOM = 20;
+
+    @Test
+    public void boxesAreDistributedOverPages() {
+
+        List<PdfPageLayout> pages = paginate(110, createBlock(25, false, 1, 1));
+
+        assertEquals(3, pages.size());
+        assertEquals(9, pages.get(0).getBoxes().size());
+        assertEquals(10, pages.get(1).getBoxes().size());
+        assertEquals(6, pages.get(2).getBoxes().size());
+        assertEquals(PAGE_TOP, pages.get(1).getY(0));
+        assertEquals(PAGE_TOP - 60, pages.get(2).getEndY());
+    }
+
+    @Test
+    public void blocksAreKeptTogether() {
+
+        List<PdfPageLayout> pages = paginate(PAGE_TOP, createBlock(6, false, 1, 1), createBlock(6, true, 1, 1));
+
+        assertEquals(2, pages.size());
+        assertEquals(6, pages.get(0).getBoxes().size());
+        assertEquals(6, pages.get(1).getBoxes().size());
+
+        // A block that doesn't fit on any page is broken anyway.
+        pages = paginate(PAGE_TOP, createBlock(6, false, 1, 1), createBlock(12, true, 1, 1));
+
+        assertEquals(2, pages.size());
+        assertEquals(10, pages.get(0).getBoxes().size());
+    }
+
+    @Test
+    public void orphansAreMovedToTheNextPage() {
+
+        List<PdfPageLayout> pages = paginate(PAGE_TOP, createBlock(9, false, 1, 1), createBlock(5, false, 2, 1));
+
+        assertEquals(2, pages.size());
+        assertEquals(9, pages.get(0).getBoxes().size());
+        assertEquals(5, pages.get(1).getBoxes().size());
+    }
+
+    @Test
+    public void widowsAreAvoided() {
+
+        List<PdfPageLayout> pages = paginate(PAGE_TOP, createBlock(5, false, 1, 1), createBlock(6, false, 1, 2));
+
+        assertEquals(2, pages.size());
+        assertEquals(9, pages.get(0).getBoxes().size());
+        assertEquals(2, pages.get(1).getBoxes().size());
+    }
+
+    @Test
+    public void tooHighBoxesGetTheirOwnPage() {
+
+        PdfBlock block = (contentWidth, lineBreaker) -> {
+            List<PdfBox> boxes = new ArrayList<>();
+            boxes.add(new PdfSpaceBox(500));
+            return new PdfMeasuredBlock(boxes);
+        };
+
+        List<PdfPageLayout> pages = paginate(PAGE_TOP, createBlock(2, false, 1, 1), block, createBlock(2, false, 1, 1));
+
+        assertEquals(3, pages.size());
+        assertEquals(1, pages.get(1).getBoxes().size());
+    }
+
+    @Test
+    public void repeatedBoxesStartEachFurtherPage() {
+
+        PdfBox header = new PdfSpaceBox(20);
+        PdfBlock block = (contentWidth, lineBreaker) -> {
+            List<PdfBox> boxes = new ArrayList<>();
+            boxes.add(header);
+            for (int i=0; i<20; i++) {
+                boxes.add(new PdfSpaceBox(10));
+            }
+            return new PdfMeasuredBlock(boxes, Collections.singletonList(header), false, 1, 1);
+        };
+
+        List<PdfPageLayout> pages = paginate(PAGE_TOP, block);
+
+        assertEquals(3, pages.size());
+        assertEquals(9, pages.get(0).getBoxes().size());
+        for (PdfPageLayout page : pages) {
+            assertSame(header, page.getBoxes().get(0));
+        }
+        assertEquals(9, pages.get(1).getBoxes().size());
+        assertEquals(5, pages.get(2).getBoxes().size());
+    }
+
+    @Test
+    public void measuredLayoutIsCachedPerContentWidth() {
+
+        PdfLayout layout = new PdfLayout().add(createBlock(3, false, 1, 1));
+
+        PdfMeasuredLayout measured = layout.measure(400, LineBreaker.GREEDY);
+        assertSame(measured, layout.measure(400, LineBreaker.GREEDY));
+        assertEquals(30, layout.measure(300, LineBreaker.GREEDY).getHeight());
+        assertEquals(1, layout.getMeasureCache().getHits());
+        assertEquals(2, layout.getMeasureCache().getMisses());
+    }
+
+    private List<PdfPageLayout> paginate(float firstPageTop, PdfBlock... blocks) {
+
+        PdfLayout layout = new PdfLayout();
+        for (PdfBlock block : blocks) {
+            layout.add(block);
+        }
+
+        return layout.measure(400, LineBreaker.GREEDY).paginate(firstPageTop, PAGE_TOP, PAGE_BOTTOM);
+    }
+
+    private PdfBlock createBlock(int numberOfBoxes, boolean keepTogether, int orphans, int widows) {
+
+        return (contentWidth, lineBreaker) -> {
+            List<PdfBox> boxes = new ArrayList<>();
+            for (int i=0; i<numberOfBoxes; i++) {
+                boxes.add(new PdfSpaceBox(10));
+            }
+            return new PdfMeasuredBlock(boxes, keepTogether, orphans, widows);
+        };
+    }
+}
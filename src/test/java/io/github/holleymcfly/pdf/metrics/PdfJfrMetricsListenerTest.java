@@ -0,0 +1,54 @@
+package io.github.holleymcfly.pdf.metrics;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class PdfJfrMetricsListenerTest {
+
+    @Test
+    public void phasesAndCountersAreRecorded(@TempDir File tempDir) throws IOException {
+
+        PdfJfrMetricsListener listener = new PdfJfrMetricsListener();
+
+        // Nothing is recorded without a recording.
+        listener.phaseCompleted(PdfPhase.SAVE, 1);
+
+        Path file = tempDir.toPath().resolve("metrics.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("io.github.holleymcfly.pdf.Phase");
+            recording.enable("io.github.holleymcfly.pdf.Counter");
+            recording.start();
+
+            listener.phaseCompleted(PdfPhase.TABLE_INIT, 1_500_000);
+            listener.counted(PdfCounter.PAGES, 3);
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().startsWith("io.github.holleymcfly.pdf."))
+                .collect(Collectors.toList());
+        assertEquals(2, events.size());
+
+        RecordedEvent phase = events.get(0);
+        assertEquals("TABLE_INIT", phase.getString("phase"));
+        assertEquals(Duration.ofNanos(1_500_000), phase.getDuration("phaseDuration"));
+
+        RecordedEvent counter = events.get(1);
+        assertEquals("PAGES", counter.getString("counter"));
+        assertEquals(3, counter.getLong("amount"));
+    }
+}
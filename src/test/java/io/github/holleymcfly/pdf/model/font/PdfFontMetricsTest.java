@@ -0,0 +1,83 @@
+package io.github.holleymcfly.pdf.model.font;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.font.PDType0Font;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PdfFontMetricsTest {
+
+    private final static String TEXT =
+            "Lorem ipsum dolor sit amet, \u00e4\u00f6\u00fc\u00df \u20ac 1.234,56 \u201cquoted\u201d";
+
+    @Test
+    public void widthsMatchPdfbox() throws IOException {
+
+        for (Standard14Fonts.FontName fontName : new Standard14Fonts.FontName[] {
+                Standard14Fonts.FontName.TIMES_ROMAN, Standard14Fonts.FontName.HELVETICA_BOLD,
+                Standard14Fonts.FontName.COURIER_OBLIQUE }) {
+
+            PDType1Font font = new PDType1Font(fontName);
+            PdfFontMetrics metrics = PdfFontMetrics.of(fontName);
+
+            assertEquals(font.getStringWidth(TEXT) / 1000 * 12, metrics.getTextWidth(TEXT, 12));
+            assertEquals(font.getFontDescriptor().getFontBoundingBox().getHeight() / 1000 * 12,
+                    metrics.getLineHeight(12));
+        }
+    }
+
+    @Test
+    public void metricsAreShared() {
+        assertSame(PdfFontMetrics.of(Standard14Fonts.FontName.HELVETICA),
+                PdfFontMetrics.of(Standard14Fonts.FontName.HELVETICA));
+    }
+
+    @Test
+    public void unsupportedCharactersAreReported() {
+        assertThrows(IllegalArgumentException.class,
+                () -> PdfFontMetrics.of(Standard14Fonts.FontName.HELVETICA).getTextWidth("\u4e2d", 12));
+    }
+
+    @Test
+    public void fontFileWidthsMatchPdfbox(@TempDir File tempDir) throws IOException {
+
+        Path fontFile = copyFontFile(tempDir);
+        PdfFontMetrics metrics = PdfFontMetrics.of(fontFile);
+        assertTrue(metrics.isEmbedded());
+        assertSame(metrics, PdfFontMetrics.of(fontFile));
+
+        String text = TEXT + " \u0416\u0443\u043a\u043e\u0432 \u0391\u03b8\u03ae\u03bd\u03b1";
+        try (PDDocument document = new PDDocument()) {
+            PDType0Font font = PDType0Font.load(document, fontFile.toFile());
+            assertEquals(font.getStringWidth(text) / 1000 * 12, metrics.getTextWidth(text, 12), 0.001);
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> metrics.getTextWidth("\u4e2d", 12));
+    }
+
+    /**
+     * Copies the TrueType font that comes with pdfbox into the given directory.
+     */
+    public static Path copyFontFile(File directory) throws IOException {
+
+        Path fontFile = directory.toPath().resolve("LiberationSans-Regular.ttf");
+        try (InputStream inputStream = PDType0Font.class.getResourceAsStream(
+                "/org/apache/pdfbox/resources/ttf/LiberationSans-Regular.ttf")) {
+            Files.copy(inputStream, fontFile);
+        }
+        return fontFile;
+    }
+}
@@ -0,0 +1,100 @@
+package io.github.holleymcfly.pdf.model.font;
+
+import io.github.holleymcfly.pdf.model.PdfFormattedText;
+import io.github.holleymcfly.pdf.model.color.PdfColorBuilder;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class PdfFontTest {
+
+    @Test
+    public void identicalParametersReturnTheSameFont() {
+
+        PdfFont font = new PdfFontBuilder().withFont(Standard14Fonts.FontName.HELVETICA).withSize(10)
+                .withColor(PdfColorBuilder.createPdfColor(10, 20, 30)).build();
+
+        assertSame(font, new PdfFontBuilder().withFont(Standard14Fonts.FontName.HELVETICA).withSize(10)
+                .withColor(PdfColorBuilder.createPdfColor(10, 20, 30)).build());
+        assertSame(new PdfFontBuilder().build(), new PdfFontBuilder().withFont(Standard14Fonts.FontName.TIMES_ROMAN)
+                .withSize(12).withColor(PdfColorBuilder.createPdfColor(Color.BLACK)).build());
+
+        assertNotEquals(font, new PdfFontBuilder().withFont(Standard14Fonts.FontName.HELVETICA).withSize(11)
+                .withColor(PdfColorBuilder.createPdfColor(10, 20, 30)).build());
+        assertNotEquals(font, new PdfFontBuilder().withFont(Standard14Fonts.FontName.HELVETICA).withSize(10)
+                .withColor(PdfColorBuilder.createPdfColor(10, 20, 31)).build());
+        assertNotEquals(font, new PdfFontBuilder().withFont(Standard14Fonts.FontName.HELVETICA_BOLD).withSize(10)
+                .withColor(PdfColorBuilder.createPdfColor(10, 20, 30)).build());
+    }
+
+    @Test
+    public void colorsAndFormattedTextsAreEqualByValue() {
+
+        assertSame(PdfColorBuilder.createPdfColor(0.1f, 0.2f, 0.3f, 0.4f),
+                PdfColorBuilder.createPdfColor(0.1f, 0.2f, 0.3f, 0.4f));
+        assertSame(PdfColorBuilder.createPdfColor(new Color(1, 2, 3)),
+                PdfColorBuilder.createPdfColor(new Color(1, 2, 3)));
+        assertNotEquals(PdfColorBuilder.createPdfColor(1, 2, 3), PdfColorBuilder.createPdfColor(1, 2, 4));
+
+        PdfFont font = new PdfFontBuilder().build();
+        PdfFormattedText text = new PdfFormattedText("Some text", font);
+        assertEquals(text, new PdfFormattedText(new String("Some text"), new PdfFontBuilder().build()));
+        assertEquals(text.hashCode(), new PdfFormattedText("Some text", font).hashCode());
+        assertNotEquals(text, new PdfFormattedText("Some text", new PdfFontBuilder().withSize(13).build()));
+    }
+
+    @Test
+    public void threadsShareTheSameFont() throws Exception {
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<PdfFont>> fonts = new ArrayList<>();
+            for (int i=0; i<64; i++) {
+                fonts.add(executor.submit(() -> new PdfFontBuilder().withFont(Standard14Fonts.FontName.COURIER)
+                        .withSize(9).withColor(PdfColorBuilder.createPdfColor(200, 100, 50)).build()));
+            }
+
+            PdfFont font = fonts.get(0).get();
+            for (Future<PdfFont> other : fonts) {
+                assertSame(font, other.get());
+            }
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void unusedFontsAreGarbageCollected() throws InterruptedException {
+
+        WeakReference<PdfFont> font = new WeakReference<>(new PdfFontBuilder().withSize(1234).build());
+        for (int i=0; i<100 && font.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        assertNull(font.get());
+    }
+
+    @Test
+    public void pdfboxFontsAreNotShared() {
+
+        PdfFont font = new PdfFontBuilder().withFont(Standard14Fonts.FontName.HELVETICA).build();
+        assertNotNull(font.getFont());
+        assertNotSame(font.getFont(), font.getFont());
+    }
+}
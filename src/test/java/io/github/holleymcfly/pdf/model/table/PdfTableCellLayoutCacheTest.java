@@ -0,0 +1,126 @@
+package io.github.holleymcfly.pdf.model.table;
+
+import io.github.holleymcfly.pdf.model.PdfFormattedText;
+import io.github.holleymcfly.pdf.model.font.PdfFont;
+import io.github.holleymcfly.pdf.model.font.PdfFontBuilder;
+import io.github.holleymcfly.pdf.util.TextSplitter;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PdfTableCellLayoutCacheTest {
+
+    private final PdfFont font = new PdfFontBuilder().build();
+
+    @Test
+    public void repeatedCellsAreSplitUpOnce() {
+
+        PdfTableCellLayoutCache cache = new PdfTableCellLayoutCache(100);
+        PdfTable table = createTable(cache, 100, "EUR", "Paid", "A rather long description of the booking");
+        table.init();
+
+        assertEquals(3, cache.getMisses());
+        assertEquals(297, cache.getHits());
+        assertEquals(3, cache.size());
+        assertTrue(cache.getHitRate() > 0.98);
+
+        PdfTableCell first = table.getCellsForRow(1).get(2);
+        PdfTableCell last = table.getCellsForRow(100).get(2);
+        assertSame(first.splitUpLines, last.splitUpLines);
+        assertEquals(first.getHeight(), last.getHeight());
+        assertArrayEquals(new TextSplitter(new PdfFormattedText(first.getContent(), font), first.getContentWidth())
+                .splitUpText(), last.getSplitUpLines());
+    }
+
+    @Test
+    public void cellsAreSplitUpWithTheirOwnFont() {
+
+        PdfTableCellLayoutCache cache = new PdfTableCellLayoutCache(100);
+        PdfFont bigFont = new PdfFontBuilder().withFont(Standard14Fonts.FontName.COURIER_BOLD).withSize(30).build();
+        PdfTable table = new PdfTable(font, 300, 3);
+        table.setLayoutCache(cache);
+        table.addCell(new PdfTableCellBuilder().withPosition(new PdfTableCellPosition(1, 1))
+                .withContent("Paid in full").build());
+        table.addCell(new PdfTableCellBuilder().withPosition(new PdfTableCellPosition(1, 2))
+                .withContent("Paid in full").withFont(bigFont).build());
+        table.init();
+
+        assertEquals(2, cache.getMisses());
+        assertEquals(1, table.getCellsForRow(1).get(0).getSplitUpLines().length);
+        assertTrue(table.getCellsForRow(1).get(1).getSplitUpLines().length > 1);
+    }
+
+    @Test
+    public void leastRecentlyUsedLayoutsAreEvicted() {
+
+        PdfTableCellLayoutCache cache = new PdfTableCellLayoutCache(2);
+        PdfTable table = createTable(cache, 10, "1", "2", "3");
+        table.init();
+
+        // The cells are initialized in no particular order, so some of them may still hit the cache.
+        assertEquals(2, cache.size());
+        assertEquals(30, cache.getHits() + cache.getMisses());
+        assertEquals(cache.getMisses() - 2, cache.getEvictions());
+
+        PdfTableCellLayoutCache disabled = new PdfTableCellLayoutCache(0);
+        createTable(disabled, 10, "1", "2", "3").init();
+        assertEquals(0, disabled.size());
+        assertEquals(0, disabled.getHits());
+    }
+
+    @Test
+    public void tablesCanShareASegmentedCache() throws Exception {
+
+        PdfTableCellLayoutCache cache = new PdfTableCellLayoutCache(10000);
+        assertEquals(16, cache.getSegmentCount());
+        assertEquals(1, new PdfTableCellLayoutCache(100).getSegmentCount());
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<PdfTable>> tables = new ArrayList<>();
+            for (int i=0; i<8; i++) {
+                String value = "Value " + i % 4;
+                tables.add(executor.submit(() -> {
+                    PdfTable table = createTable(cache, 50, value, "EUR", "Paid");
+                    table.init();
+                    return table;
+                }));
+            }
+
+            for (Future<PdfTable> table : tables) {
+                assertEquals(1, table.get().getCellsForRow(50).get(1).getSplitUpLines().length);
+            }
+        }
+        finally {
+            executor.shutdown();
+        }
+
+        assertEquals(6, cache.size());
+        assertEquals(8 * 150, cache.getHits() + cache.getMisses());
+    }
+
+    private PdfTable createTable(PdfTableCellLayoutCache cache, int numberOfRows, String... values) {
+
+        PdfTable table = new PdfTable(font, 300, values.length);
+        table.setLayoutCache(cache);
+        for (int row=1; row<=numberOfRows; row++) {
+            for (int column=1; column<=values.length; column++) {
+                table.addCell(new PdfTableCellBuilder()
+                        .withPosition(new PdfTableCellPosition(row, column))
+                        .withContent(values[column-1])
+                        .build());
+            }
+        }
+        return table;
+    }
+}
@@ -0,0 +1,150 @@
+package io.github.holleymcfly.pdf.model.table;
+
+import io.github.holleymcfly.pdf.model.font.PdfFont;
+import io.github.holleymcfly.pdf.model.font.PdfFontBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PdfTableColumnSizerTest {
+
+    private static final String LONG_TEXT = "A rather long description of the booking that needs several lines";
+
+    private final PdfFont font = new PdfFontBuilder().build();
+
+    @Test
+    public void columnsGetTheWidthOfTheirContents() {
+
+        PdfTable table = new PdfTable(font, 500, 3);
+        for (int row=1; row<=10; row++) {
+            table.addCell(cell(row, 1, "Row " + row));
+            table.addCell(cell(row, 2, "EUR"));
+            table.addCell(cell(row, 3, LONG_TEXT + " " + LONG_TEXT));
+        }
+        table.setAutoColumnWidths(true);
+        table.init();
+
+        List<Float> widths = table.getColumnWidths();
+        assertEquals(500, widths.get(0) + widths.get(1) + widths.get(2), 0.01);
+        assertTrue(widths.get(1) < widths.get(0));
+        assertTrue(widths.get(2) > 350);
+
+        // The short columns aren't broken into several lines.
+        assertEquals(1, table.getCellsForRow(10).get(0).getSplitUpLines().length);
+        assertEquals(1, table.getCellsForRow(10).get(1).getSplitUpLines().length);
+        assertEquals(table.getCellsForRow(10).get(0).getHeight(), table.getCellsForRow(10).get(1).getHeight());
+    }
+
+    @Test
+    public void wideTablesGiveEachColumnItsFullContent() {
+
+        PdfTable table = new PdfTable(font, 500, 2);
+        table.addCell(cell(1, 1, "Short"));
+        table.addCell(cell(1, 2, "Somewhat longer"));
+        table.setAutoColumnWidths(true);
+        table.init();
+
+        for (PdfTableCell cell : table.getCellsForRow(1)) {
+            assertEquals(1, cell.getSplitUpLines().length);
+        }
+        assertTrue(table.getColumnWidths().get(1) > table.getColumnWidths().get(0));
+    }
+
+    @Test
+    public void onlyTheSampledRowsAreMeasured() {
+
+        PdfTable table = createLargeTable();
+        table.setAutoColumnWidths(10, 0);
+        table.init();
+
+        // The long text in the last row isn't measured, so both columns are equally wide.
+        assertEquals(table.getColumnWidths().get(0), table.getColumnWidths().get(1), 0.01);
+
+        table = createLargeTable();
+        table.setAutoColumnWidths(true);
+        table.init();
+
+        assertTrue(table.getColumnWidths().get(1) > 2 * table.getColumnWidths().get(0));
+    }
+
+    @Test
+    public void samplesAreTheSameForEachTable() {
+
+        PdfTable first = createSampledTable();
+        PdfTable second = createSampledTable();
+        first.init();
+        second.init();
+
+        assertEquals(first.getColumnWidths(), second.getColumnWidths());
+    }
+
+    @Test
+    public void columnsWithoutMeasuredCellsArentCollapsed() {
+
+        // The middle column only has content in the last row, which is neither in the first rows nor in the sample.
+        PdfTable table = new PdfTable(font, 400, 3);
+        for (int row=1; row<1000; row++) {
+            table.addCell(cell(row, 1, "Value"));
+            table.addCell(cell(row, 3, "Value"));
+        }
+        table.addCell(cell(1000, 1, "Value"));
+        table.addCell(cell(1000, 2, "Sparse"));
+        table.addCell(cell(1000, 3, "Value"));
+        table.setAutoColumnWidths(10, 5);
+        table.init();
+
+        List<Float> widths = table.getColumnWidths();
+        assertEquals(400, widths.get(0) + widths.get(1) + widths.get(2), 0.01);
+        assertEquals(widths.get(0), widths.get(1), 0.01);
+
+        PdfTableCell sparse = table.getCellsForRow(1000).get(1);
+        assertEquals("Sparse", sparse.getContent());
+        assertEquals(1, sparse.getSplitUpLines().length);
+
+        // A column whose cells all span two columns gets a width, too.
+        table = new PdfTable(font, 400, 3);
+        table.addCell(cell(1, 1, "A rather long value"));
+        table.addCell(new PdfTableCellBuilder()
+                .withPosition(new PdfTableCellPosition(1, 2, 2))
+                .withContent("Spanning")
+                .build());
+        table.setAutoColumnWidths(true);
+        table.init();
+
+        assertTrue(table.getColumnWidths().get(1) > 50);
+        assertTrue(table.getColumnWidths().get(2) > 50);
+    }
+
+    private PdfTable createLargeTable() {
+
+        PdfTable table = new PdfTable(font, 400, 2);
+        for (int row=1; row<1000; row++) {
+            table.addCell(cell(row, 1, "Value"));
+            table.addCell(cell(row, 2, "Value"));
+        }
+        table.addCell(cell(1000, 1, "Value"));
+        table.addCell(cell(1000, 2, LONG_TEXT));
+        return table;
+    }
+
+    private PdfTable createSampledTable() {
+
+        PdfTable table = new PdfTable(font, 400, 2);
+        for (int row=1; row<=1000; row++) {
+            table.addCell(cell(row, 1, "Value " + row));
+            table.addCell(cell(row, 2, LONG_TEXT.substring(0, row % LONG_TEXT.length())));
+        }
+        table.setAutoColumnWidths(5, 20);
+        return table;
+    }
+
+    private PdfTableCell cell(int row, int column, String content) {
+        return new PdfTableCellBuilder()
+                .withPosition(new PdfTableCellPosition(row, column))
+                .withContent(content)
+                .build();
+    }
+}
@@ -0,0 +1,98 @@
+package io.github.holleymcfly.pdf.model.table;
+
+import io.github.holleymcfly.pdf.model.font.PdfFont;
+import io.github.holleymcfly.pdf.model.PdfFormattedText;
+import io.github.holleymcfly.pdf.model.font.PdfFontBuilder;
+import io.github.holleymcfly.pdf.util.TextHelper;
+import io.github.holleymcfly.pdf.util.TextSplitter;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PdfTableTest {
+
+    @Test
+    public void cellsArePositionedByTheirColumns() {
+
+        PdfFont font = new PdfFontBuilder().build();
+        LinkedList<Float> columnWidths = new LinkedList<>();
+        columnWidths.add(100f);
+        columnWidths.add(150f);
+        columnWidths.add(70f);
+        columnWidths.add(100f);
+
+        PdfTable table = new PdfTable(font, columnWidths);
+        table.addCell(cell(2, 4, 1, "Sneaky Rocker"));
+        table.addCell(cell(2, 2, 2, "I Can't Believe It's Not Internet of Things! It's a very long text."));
+        table.addCell(cell(2, 1, 1, "Computer That Rock"));
+        table.addCell(cell(1, 1, 1, "Dog Leash"));
+        table.init();
+
+        assertEquals(2, table.getNumberOfRows());
+
+        List<PdfTableCell> cells = table.getCellsForRow(2);
+        assertEquals(3, cells.size());
+        assertEquals(1, cells.get(0).getPosition().getColumn());
+        assertEquals(2, cells.get(1).getPosition().getColumn());
+        assertEquals(4, cells.get(2).getPosition().getColumn());
+
+        assertEquals(5, table.getXofTableCell(2, 1, 5));
+        assertEquals(105, table.getXofTableCell(2, 2, 5));
+        assertEquals(325, table.getXofTableCell(2, 4, 5));
+        assertEquals(-1, table.getXofTableCell(1, 2, 5));
+
+        assertTrue(table.getRowHeight(2) > table.getRowHeight(1));
+        assertEquals(cells.get(1).getHeight(), table.getRowHeight(2));
+        assertTrue(table.getCellsForRow(3).isEmpty());
+    }
+
+    @Test
+    public void cellsAreSplitUpWithTheirOwnFont() {
+
+        PdfFont bigFont = new PdfFontBuilder().withFont(Standard14Fonts.FontName.COURIER_BOLD).withSize(24).build();
+        PdfTable table = new PdfTable(new PdfFontBuilder().withSize(8).build(), 200, 1);
+        table.setLayoutCache(new PdfTableCellLayoutCache(100));
+        table.addCell(new PdfTableCellBuilder()
+                .withPosition(new PdfTableCellPosition(1, 1))
+                .withContent("The lines of this cell are measured in the font they are drawn with.")
+                .withFont(bigFont)
+                .build());
+        table.init();
+
+        // Split up in the smaller font of the table, the lines would stick out of the cell.
+        PdfTableCell cell = table.getCellsForRow(1).get(0);
+        assertTrue(cell.getNumberOfLines() > 1);
+        for (int i=0; i<cell.getNumberOfLines(); i++) {
+            assertTrue(TextHelper.getTextWidth(cell.getLine(i), bigFont) <= cell.getContentWidth());
+        }
+        assertArrayEquals(new TextSplitter(new PdfFormattedText(cell.getContent(), bigFont), cell.getContentWidth())
+                .splitUpText(), cell.getSplitUpLines());
+    }
+
+    @Test
+    public void changedLinesArentSharedWithOtherCells() {
+
+        PdfTable table = new PdfTable(new PdfFontBuilder().build(), 200, 2);
+        table.addCell(cell(1, 1, 1, "Paid"));
+        table.addCell(cell(1, 2, 1, "Paid"));
+        table.init();
+
+        String[] lines = table.getCellsForRow(1).get(0).getSplitUpLines();
+        lines[0] = "Changed";
+        assertEquals("Paid", table.getCellsForRow(1).get(0).getLine(0));
+        assertEquals("Paid", table.getCellsForRow(1).get(1).getLine(0));
+    }
+
+    private PdfTableCell cell(int row, int column, int colspan, String content) {
+        return new PdfTableCellBuilder()
+                .withPosition(new PdfTableCellPosition(row, column, colspan))
+                .withContent(content)
+                .build();
+    }
+}
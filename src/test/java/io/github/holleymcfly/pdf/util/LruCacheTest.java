@@ -0,0 +1,54 @@
+package io.github.holleymcfly.pdf.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class LruCacheTest {
+
+    @Test
+    public void leastRecentlyUsedEntriesAreEvicted() {
+
+        LruCache<Integer, String> cache = new LruCache<>(2);
+        cache.put(1, "1");
+        cache.put(2, "2");
+        cache.get(1);
+        cache.put(3, "3");
+
+        assertEquals("1", cache.get(1));
+        assertNull(cache.get(2));
+        assertEquals("3", cache.get(3));
+        assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    public void segmentsShareTheMaximumSize() {
+
+        LruCache<Integer, Integer> cache = new LruCache<>(100, 8);
+        for (int i=0; i<1000; i++) {
+            cache.put(i, i);
+        }
+
+        assertEquals(100, cache.size());
+        assertEquals(900, cache.getEvictions());
+
+        for (int i=0; i<1000; i++) {
+            cache.get(i);
+        }
+        assertEquals(100, cache.getHits());
+        assertEquals(900, cache.getMisses());
+        assertEquals(0.1, cache.getHitRate(), 0.0001);
+
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void segmentsMustHoldAnEntry() {
+        assertThrows(IllegalArgumentException.class, () -> new LruCache<>(4, 8));
+        assertThrows(IllegalArgumentException.class, () -> new LruCache<>(4, 0));
+        assertEquals(1, new LruCache<>(0, 1).getSegmentCount());
+    }
+}
@@ -0,0 +1,87 @@
+package io.github.holleymcfly.pdf.util;
+
+import io.github.holleymcfly.pdf.model.PdfFormattedText;
+import io.github.holleymcfly.pdf.model.font.PdfFont;
+import io.github.holleymcfly.pdf.model.font.PdfFontBuilder;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class OptimalLineBreakerTest {
+
+    private final PdfFont font = new PdfFontBuilder().withFont(Standard14Fonts.FontName.COURIER).withSize(10).build();
+
+    // Every character of the 10 pt courier font is 6 pt wide.
+    private final static float CHARACTER_WIDTH = 6;
+
+    @Test
+    public void linesAreFilledEvenly() {
+
+        String text = "aaa bb cc ddddd";
+        float lineWidth = 7.5f * CHARACTER_WIDTH;
+
+        String[] greedy = new TextSplitter(new PdfFormattedText(text, font), lineWidth).splitUpText();
+        String[] optimal = new TextSplitter(new PdfFormattedText(text, font), lineWidth, new OptimalLineBreaker())
+                .splitUpText();
+
+        assertArrayEquals(new String[] { "aaa bb", "cc", "ddddd" }, greedy);
+        assertArrayEquals(new String[] { "aaa", "bb cc", "ddddd" }, optimal);
+    }
+
+    @Test
+    public void breaksAreCachedByText() {
+
+        OptimalLineBreaker lineBreaker = new OptimalLineBreaker();
+        PdfFormattedText[] text = { new PdfFormattedText("aaa bb", font), new PdfFormattedText(" cc ddddd", font) };
+        CountingWords words = new CountingWords(new float[] { 3, 2, 2, 5 }, new float[] { 1, 1, 1, 1 });
+
+        int[] first = lineBreaker.breakLines(text, words, 7.5f);
+        first[1] = 42;
+        text[0] = new PdfFormattedText("changed", font);
+        PdfFormattedText[] sameText = { new PdfFormattedText("aaa bb", font), new PdfFormattedText(" cc ddddd", font) };
+        int[] second = lineBreaker.breakLines(sameText, words, 7.5f);
+
+        assertArrayEquals(new int[] { 0, 1, 3 }, second);
+        assertEquals(1, words.measured, "A cached paragraph must not be measured again");
+        assertEquals(1, lineBreaker.getCache().getHits());
+        assertEquals(1, lineBreaker.getCache().getMisses());
+
+        lineBreaker.breakLines(sameText, words, 8.5f);
+        assertEquals(2, words.measured, "Another line width is another paragraph");
+    }
+
+    @Test
+    public void tooLongWordsGetTheirOwnLine() {
+
+        float[] wordWidths = { 20, 2, 2 };
+        float[] spaceWidths = { 1, 1, 1 };
+
+        assertArrayEquals(new int[] { 0, 1 }, new OptimalLineBreaker().breakLines(wordWidths, spaceWidths, 10));
+        assertArrayEquals(new int[] { 0 }, new OptimalLineBreaker().breakLines(new float[0], new float[0], 10));
+    }
+
+    private static final class CountingWords implements LineBreaker.Words {
+
+        private final float[] wordWidths;
+        private final float[] spaceWidths;
+        private int measured;
+
+        private CountingWords(float[] wordWidths, float[] spaceWidths) {
+            this.wordWidths = wordWidths;
+            this.spaceWidths = spaceWidths;
+        }
+
+        @Override
+        public float[] getWordWidths() {
+            measured++;
+            return wordWidths;
+        }
+
+        @Override
+        public float[] getSpaceWidths() {
+            return spaceWidths;
+        }
+    }
+}
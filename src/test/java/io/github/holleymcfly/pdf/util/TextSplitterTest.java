@@ -0,0 +1,80 @@
+package io.github.holleymcfly.pdf.util;
+
+import io.github.holleymcfly.pdf.model.PdfFormattedText;
+import io.github.holleymcfly.pdf.model.font.PdfFont;
+import io.github.holleymcfly.pdf.model.font.PdfFontBuilder;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedList;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TextSplitterTest {
+
+    private final PdfFont font = new PdfFontBuilder().withFont(Standard14Fonts.FontName.COURIER).withSize(10).build();
+
+    // Every character of the 10 pt courier font is 6 pt wide.
+    private final static float CHARACTER_WIDTH = 6;
+
+    @Test
+    public void textIsSplitUpAtSpaces() {
+
+        String[] lines = new TextSplitter(new PdfFormattedText("aaa bbb ccc ddd", font), 8.5f * CHARACTER_WIDTH)
+                .splitUpText();
+
+        assertArrayEquals(new String[] { "aaa bbb", "ccc ddd" }, lines);
+    }
+
+    @Test
+    public void spacesAreHandledLikeStringSplit() {
+
+        assertArrayEquals(new String[] { "" }, split(""));
+        assertArrayEquals(new String[] { "" }, split("   "));
+        assertArrayEquals(new String[] { "aaa  bbb" }, split("aaa  bbb  "));
+    }
+
+    @Test
+    public void tooLongWordsGetTheirOwnLine() {
+
+        String[] lines = new TextSplitter(new PdfFormattedText("aaaaaaaaaa b", font), 5 * CHARACTER_WIDTH)
+                .splitUpText();
+
+        assertArrayEquals(new String[] { "", "aaaaaaaaaa", "b" }, lines);
+    }
+
+    @Test
+    public void wordsKeepTheirFonts() {
+
+        PdfFont bold = new PdfFontBuilder().withFont(Standard14Fonts.FontName.COURIER_BOLD).withSize(10).build();
+        LinkedList<PdfFormattedText> text = new LinkedList<>();
+        text.add(new PdfFormattedText("aaa bbb", font));
+        text.add(new PdfFormattedText("ccc ddd", bold));
+
+        LinkedList<LinkedList<PdfFormattedText>> lines = new TextSplitter(text, 12.5f * CHARACTER_WIDTH)
+                .splitUpTextWithWords();
+
+        assertEquals(2, lines.size());
+        assertEquals("aaa| bbb| ccc", join(lines.get(0)));
+        assertEquals(bold, lines.get(0).getLast().getFont());
+        assertEquals("ddd", join(lines.get(1)));
+        assertEquals(bold, lines.get(1).getFirst().getFont());
+    }
+
+    private String[] split(String text) {
+        return new TextSplitter(new PdfFormattedText(text, font), 100 * CHARACTER_WIDTH).splitUpText();
+    }
+
+    private String join(LinkedList<PdfFormattedText> words) {
+
+        StringBuilder result = new StringBuilder();
+        for (PdfFormattedText word : words) {
+            if (result.length() > 0) {
+                result.append("|");
+            }
+            result.append(word.getText());
+        }
+        return result.toString();
+    }
+}